@@ -0,0 +1,60 @@
+// k6 load test for the user read paths, run once per deployment at the same memory limit:
+//
+//   servlet:  docker run -m 512m ... userservice              (port 8080)
+//   reactive: docker run -m 512m ... userservice-reactive-read (port 8081)
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e ORG_ID=<org> -e USER_IDS=<id,id,...> reactive-read/loadtest/user-reads.js
+//   k6 run -e BASE_URL=http://localhost:8081 -e ORG_ID=<org> -e USER_IDS=<id,id,...> reactive-read/loadtest/user-reads.js
+//
+// Compare http_reqs (throughput) and http_req_duration p95/p99 between the two summaries.
+// The headers below are the ones the gateway adds after authenticating a caller.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const ORG_ID = __ENV.ORG_ID;
+const USER_IDS = (__ENV.USER_IDS || '').split(',').filter((id) => id.length > 0);
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'ramping-arrival-rate',
+            startRate: 200,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            stages: [
+                { target: 2000, duration: '1m' },
+                { target: 5000, duration: '2m' },
+                { target: 5000, duration: '2m' },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+const params = {
+    headers: {
+        'X-Authenticated': 'true',
+        'X-Username': 'loadtest@hsurvey.local',
+        'X-Organization-Id': ORG_ID,
+        'X-Authorities': 'USER_READ',
+    },
+};
+
+export default function () {
+    const id = USER_IDS[Math.floor(Math.random() * USER_IDS.length)];
+    const roll = Math.random();
+    let res;
+    if (roll < 0.6) {
+        res = http.get(`${BASE_URL}/api/users/${id}`, params);
+    } else if (roll < 0.9) {
+        res = http.get(`${BASE_URL}/api/users/${id}/exists`, params);
+    } else {
+        const batch = USER_IDS.slice(0, 50).join(',');
+        res = http.get(`${BASE_URL}/api/users/bulk?ids=${batch}`, params);
+    }
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
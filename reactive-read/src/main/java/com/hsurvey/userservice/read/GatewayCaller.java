@@ -0,0 +1,46 @@
+package com.hsurvey.userservice.read;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Caller identity as asserted by the gateway headers, the reactive counterpart of
+ * GatewayAuthenticationFilter + OrganizationContextUtil in the servlet service.
+ */
+public record GatewayCaller(String username, UUID organizationId, Set<String> authorities) {
+
+    public static final String ATTRIBUTE = GatewayCaller.class.getName();
+
+    public static GatewayCaller fromHeaders(String username, String organizationId, String authoritiesHeader) {
+        Set<String> authorities = authoritiesHeader == null ? Set.of() :
+                Arrays.stream(authoritiesHeader.split(","))
+                        .map(String::trim)
+                        .filter(auth -> !auth.isEmpty())
+                        .collect(Collectors.toUnmodifiableSet());
+
+        UUID orgId = null;
+        if (organizationId != null && !organizationId.isBlank()) {
+            try {
+                orgId = UUID.fromString(organizationId);
+            } catch (IllegalArgumentException e) {
+                orgId = null;
+            }
+        }
+        return new GatewayCaller(username, orgId, authorities);
+    }
+
+    public boolean isRootAdmin() {
+        return authorities.contains("SYS_ADMIN_ROOT");
+    }
+
+    public boolean hasAnyAuthority(String... required) {
+        for (String authority : required) {
+            if (authorities.contains(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package com.hsurvey.userservice.read;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@Component
+public class GatewayHeadersWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (exchange.getRequest().getPath().value().startsWith("/actuator/health")) {
+            return chain.filter(exchange);
+        }
+
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (!"true".equals(headers.getFirst("X-Authenticated")) || headers.getFirst("X-Username") == null) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+
+        exchange.getAttributes().put(GatewayCaller.ATTRIBUTE, GatewayCaller.fromHeaders(
+                headers.getFirst("X-Username"),
+                headers.getFirst("X-Organization-Id"),
+                headers.getFirst("X-Authorities")));
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,14 @@
+package com.hsurvey.userservice.read;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication(scanBasePackages = {
+		"com.hsurvey.userservice.read",
+		"com.hsurvey.userservice.mapper"
+})
+public class ReactiveReadApplication {
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveReadApplication.class, args);
+	}
+}
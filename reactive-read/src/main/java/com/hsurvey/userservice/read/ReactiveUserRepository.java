@@ -0,0 +1,83 @@
+package com.hsurvey.userservice.read;
+
+import com.hsurvey.userservice.dto.UserDTO;
+import com.hsurvey.userservice.entities.Role;
+import com.hsurvey.userservice.entities.User;
+import com.hsurvey.userservice.mapper.UserMapper;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Single-statement lookups: the user row plus its role names aggregated in SQL,
+ * mapped through the shared UserMapper.
+ */
+@Repository
+public class ReactiveUserRepository {
+
+    private static final String SELECT_USERS = """
+            SELECT u.id, u.username, u.email, u.organization_id,
+                   array_remove(array_agg(r.name), NULL) AS roles
+            FROM users u
+            LEFT JOIN user_roles ur ON ur.user_id = u.id
+            LEFT JOIN roles r ON r.id = ur.role_id
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final UserMapper userMapper;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient, UserMapper userMapper) {
+        this.databaseClient = databaseClient;
+        this.userMapper = userMapper;
+    }
+
+    public Mono<UserDTO> findById(UUID id) {
+        return databaseClient.sql(SELECT_USERS + " WHERE u.id = :id GROUP BY u.id")
+                .bind("id", id)
+                .map(this::toDto)
+                .one();
+    }
+
+    public Mono<UserDTO> findByIdAndOrganizationId(UUID id, UUID organizationId) {
+        return databaseClient.sql(SELECT_USERS + " WHERE u.id = :id AND u.organization_id = :organizationId GROUP BY u.id")
+                .bind("id", id)
+                .bind("organizationId", organizationId)
+                .map(this::toDto)
+                .one();
+    }
+
+    public Flux<UserDTO> findAllById(Collection<UUID> ids) {
+        return databaseClient.sql(SELECT_USERS + " WHERE u.id = ANY(:ids) GROUP BY u.id")
+                .bind("ids", ids.toArray(new UUID[0]))
+                .map(this::toDto)
+                .all();
+    }
+
+    public Mono<Boolean> existsById(UUID id) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM users WHERE id = :id)")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE.equals(row.get(0, Boolean.class)))
+                .one();
+    }
+
+    private UserDTO toDto(Readable row) {
+        String[] roleNames = row.get("roles", String[].class);
+        User user = User.builder()
+                .id(row.get("id", UUID.class))
+                .username(row.get("username", String.class))
+                .email(row.get("email", String.class))
+                .organizationId(row.get("organization_id", UUID.class))
+                .roles(roleNames == null ? new java.util.HashSet<>() : Arrays.stream(roleNames)
+                        .map(name -> Role.builder().name(name).build())
+                        .collect(Collectors.toSet()))
+                .build();
+        return userMapper.toDto(user);
+    }
+}
@@ -0,0 +1,59 @@
+package com.hsurvey.userservice.read;
+
+import com.hsurvey.userservice.dto.UserDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only mirror of the lookup endpoints of the servlet UserController. The gateway can
+ * route these paths here while writes keep going to the main service.
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserReadController {
+    private final ReactiveUserRepository userRepository;
+
+    public UserReadController(ReactiveUserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<UserDTO> getUserById(@PathVariable UUID id, ServerWebExchange exchange) {
+        GatewayCaller caller = exchange.getAttribute(GatewayCaller.ATTRIBUTE);
+        if (caller == null || !caller.hasAnyAuthority("USER_READ", "SYS_ADMIN_ROOT", "DEPARTMENT_MANAGER", "TEAM_MANAGER")) {
+            return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient permissions"));
+        }
+
+        Mono<UserDTO> user;
+        if (caller.isRootAdmin()) {
+            user = userRepository.findById(id);
+        } else if (caller.organizationId() == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "No organization context found in request headers"));
+        } else {
+            user = userRepository.findByIdAndOrganizationId(id, caller.organizationId());
+        }
+
+        return user.switchIfEmpty(Mono.error(
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with id: " + id)));
+    }
+
+    @GetMapping("/{userId}/exists")
+    public Mono<Boolean> checkUserExists(@PathVariable UUID userId) {
+        return userRepository.existsById(userId);
+    }
+
+    @GetMapping("/bulk")
+    public Flux<UserDTO> getUsersByIds(@RequestParam("ids") List<UUID> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return userRepository.findAllById(userIds);
+    }
+}
@@ -0,0 +1,19 @@
+package com.hsurvey.userservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Boot builds applicationTaskExecutor from spring.threads.virtual.enabled: a thread pool
+ * by default, a virtual-thread-per-task executor under the "virtual" profile. Either way
+ * this decorator is applied to it.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Bean
+    public TaskDecorator requestContextTaskDecorator() {
+        return new RequestContextTaskDecorator();
+    }
+}
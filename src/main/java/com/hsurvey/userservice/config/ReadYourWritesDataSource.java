@@ -0,0 +1,45 @@
+package com.hsurvey.userservice.config;
+
+import com.hsurvey.userservice.utils.TransactionUtils;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The primary as seen by read-write transactions: once such a transaction commits, its
+ * principal is pinned to the primary for the read-your-writes window.
+ */
+public class ReadYourWritesDataSource extends DelegatingDataSource {
+    private final ReadYourWritesPins pins;
+
+    public ReadYourWritesDataSource(DataSource primary, ReadYourWritesPins pins) {
+        super(primary);
+        this.pins = pins;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        pinAfterCommit();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        pinAfterCommit();
+        return super.getConnection(username, password);
+    }
+
+    private void pinAfterCommit() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        String principal = ReadYourWritesPins.currentPrincipal();
+        if (principal != null) {
+            TransactionUtils.afterCommit(() -> pins.pin(principal));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.hsurvey.userservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Principals whose write committed within the last window; their reads stay on the primary so
+ * they see their own changes despite replica lag. Pins are local to this instance.
+ */
+public class ReadYourWritesPins {
+    private final Cache<String, Boolean> pinned;
+
+    public ReadYourWritesPins(Duration window) {
+        this.pinned = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void pin(String principal) {
+        pinned.put(principal, Boolean.TRUE);
+    }
+
+    public boolean isCurrentPrincipalPinned() {
+        String principal = currentPrincipal();
+        return principal != null && pinned.getIfPresent(principal) != null;
+    }
+
+    static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.hsurvey.userservice.config;
+
+import com.hsurvey.userservice.utils.PrimaryReads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Target for read-only transactions: round-robin over the replica pools, except for reads that
+ * must see the primary (PrimaryReads) and principals pinned after a recent write.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    static final String PRIMARY = "primary";
+
+    private final List<DataSource> replicas;
+    private final ReadYourWritesPins pins;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    ReadYourWritesPins pins, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.pins = pins;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.primaryReads = routedCounter(meterRegistry, "primary");
+        this.replicaReads = routedCounter(meterRegistry, "replica");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PrimaryReads.isRequired() || pins.isCurrentPrincipalPinned()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    // Only the replica pools are owned here; the primary is a bean of its own
+    @Override
+    public void destroy() {
+        for (DataSource replica : replicas) {
+            if (replica instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("userservice.datasource.read-only-connections")
+                .description("Connections handed to read-only transactions, by target")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
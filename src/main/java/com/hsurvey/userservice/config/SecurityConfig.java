@@ -1,10 +1,14 @@
 package com.hsurvey.userservice.config;
 
 import com.hsurvey.userservice.filter.GatewayAuthenticationFilter;
+import com.hsurvey.userservice.filter.ServiceTokenAuthenticationFilter;
 import com.hsurvey.userservice.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -49,13 +53,39 @@ public class SecurityConfig {
         this.gatewayAuthenticationFilter = gatewayAuthenticationFilter;
     }
 
+    // Service-to-service chain: token check only, no gateway headers, sessions or request cache
+    @Bean
+    @Order(1)
+    public SecurityFilterChain internalSecurityFilterChain(
+            HttpSecurity http,
+            @Value("${internal.service.token:}") String serviceToken) throws Exception {
+        http
+                .securityMatcher("/internal/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .headers(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .anonymous(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .sessionManagement(session ->
+                        session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                )
+                .authorizeHttpRequests(auth -> auth
+                        .anyRequest().hasAuthority(ServiceTokenAuthenticationFilter.SERVICE_AUTHORITY)
+                )
+                .addFilterBefore(new ServiceTokenAuthenticationFilter(serviceToken),
+                        UsernamePasswordAuthenticationFilter.class);
+        return http.build();
+    }
 
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
 
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Streaming responses finish on an async dispatch; the request was authorized already
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/auth/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/auth/refresh").permitAll()
@@ -0,0 +1,55 @@
+package com.hsurvey.userservice.controller;
+
+import com.hsurvey.userservice.dto.UserDTO;
+import com.hsurvey.userservice.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service-to-service lookups served through the lean /internal/** security chain.
+ */
+@RestController
+@RequestMapping("/internal/users")
+public class InternalUserController {
+    private final UserService userService;
+    private final Timer existsTimer;
+    private final Timer bulkTimer;
+
+    public InternalUserController(UserService userService, MeterRegistry meterRegistry) {
+        this.userService = userService;
+        this.existsTimer = Timer.builder("userservice.internal.requests")
+                .tag("operation", "exists")
+                .register(meterRegistry);
+        this.bulkTimer = Timer.builder("userservice.internal.requests")
+                .tag("operation", "bulk")
+                .register(meterRegistry);
+    }
+
+    @GetMapping("/{userId}/exists")
+    public ResponseEntity<Boolean> checkUserExists(@PathVariable UUID userId) {
+        return ResponseEntity.ok(existsTimer.record(() -> userService.existsById(userId)));
+    }
+
+    @GetMapping("/bulk")
+    public ResponseEntity<List<UserDTO>> getUsersByIds(@RequestParam("ids") List<UUID> userIds) {
+        return ResponseEntity.ok(lookup(userIds));
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<UserDTO>> postUsersByIds(@RequestBody List<UUID> userIds) {
+        return ResponseEntity.ok(lookup(userIds));
+    }
+
+    private List<UserDTO> lookup(List<UUID> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return bulkTimer.record(() -> userService.getUsersByIds(userIds));
+    }
+}
@@ -0,0 +1,33 @@
+package com.hsurvey.userservice.controller;
+
+import com.hsurvey.userservice.dto.OffboardingJobDTO;
+import com.hsurvey.userservice.service.OrganizationOffboardingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/organizations/{organizationId}/offboarding")
+public class OrganizationOffboardingController {
+    private final OrganizationOffboardingService offboardingService;
+
+    public OrganizationOffboardingController(OrganizationOffboardingService offboardingService) {
+        this.offboardingService = offboardingService;
+    }
+
+    // Also reruns a failed job; the deletes run in the background
+    @PostMapping
+    @PreAuthorize("hasAuthority('SYS_ADMIN_ROOT')")
+    public ResponseEntity<OffboardingJobDTO> startOffboarding(@PathVariable UUID organizationId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(offboardingService.start(organizationId));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('SYS_ADMIN_ROOT')")
+    public ResponseEntity<OffboardingJobDTO> getOffboarding(@PathVariable UUID organizationId) {
+        return ResponseEntity.ok(offboardingService.getJob(organizationId));
+    }
+}
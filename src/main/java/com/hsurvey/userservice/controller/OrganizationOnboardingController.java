@@ -0,0 +1,29 @@
+package com.hsurvey.userservice.controller;
+
+import com.hsurvey.userservice.dto.OrganizationOnboardingRequest;
+import com.hsurvey.userservice.dto.OrganizationOnboardingResultDTO;
+import com.hsurvey.userservice.service.OrganizationOnboardingService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/organizations/onboarding")
+public class OrganizationOnboardingController {
+    private final OrganizationOnboardingService onboardingService;
+
+    public OrganizationOnboardingController(OrganizationOnboardingService onboardingService) {
+        this.onboardingService = onboardingService;
+    }
+
+    // Always 200 with one outcome per organization; failures are reported per entry
+    @PostMapping
+    @PreAuthorize("hasAuthority('SYS_ADMIN_ROOT')")
+    public ResponseEntity<List<OrganizationOnboardingResultDTO>> onboardOrganizations(
+            @Valid @RequestBody OrganizationOnboardingRequest request) {
+        return ResponseEntity.ok(onboardingService.onboard(request.getOrganizations()));
+    }
+}
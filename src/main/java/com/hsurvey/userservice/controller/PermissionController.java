@@ -1,12 +1,19 @@
 package com.hsurvey.userservice.controller;
 
 import com.hsurvey.userservice.dto.PermissionDTO;
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository.Scope;
+import com.hsurvey.userservice.service.OrganizationPayloadCache;
+import com.hsurvey.userservice.service.OrganizationVersionService;
 import com.hsurvey.userservice.service.PermissionService;
 import com.hsurvey.userservice.utils.OrganizationContextUtil;
+import com.hsurvey.userservice.utils.PrimaryReads;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,10 +23,17 @@ import java.util.UUID;
 public class PermissionController {
     private final PermissionService permissionService;
     private final OrganizationContextUtil organizationContextUtil;
+    private final OrganizationVersionService organizationVersionService;
+    private final OrganizationPayloadCache organizationPayloadCache;
 
-    public PermissionController(PermissionService permissionService, OrganizationContextUtil organizationContextUtil) {
+    public PermissionController(PermissionService permissionService,
+                                OrganizationContextUtil organizationContextUtil,
+                                OrganizationVersionService organizationVersionService,
+                                OrganizationPayloadCache organizationPayloadCache) {
         this.permissionService = permissionService;
         this.organizationContextUtil = organizationContextUtil;
+        this.organizationVersionService = organizationVersionService;
+        this.organizationPayloadCache = organizationPayloadCache;
     }
 
     @PostMapping
@@ -45,14 +59,25 @@ public class PermissionController {
 
     @GetMapping
     @PreAuthorize("hasAnyAuthority('PERMISSION_READ','SYS_ADMIN_ROOT')")
-    public ResponseEntity<List<PermissionDTO>> getAllPermissions() {
+    public ResponseEntity<?> getAllPermissions(WebRequest webRequest) {
         List<PermissionDTO> permissions;
 
         if (organizationContextUtil.isRootAdmin()) {
             permissions = permissionService.getAllPermissions();
         } else {
             UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
-            permissions = permissionService.getAllPermissionsByOrganization(organizationId);
+            long version = organizationVersionService.currentVersion(organizationId, Scope.PERMISSIONS);
+            // Answers If-None-Match from the version row alone; sets the ETag header otherwise
+            if (webRequest.checkNotModified(organizationVersionService.etag(organizationId, Scope.PERMISSIONS, version))) {
+                return null;
+            }
+            if (OrganizationPayloadCache.acceptsJson(webRequest.getHeader(HttpHeaders.ACCEPT))) {
+                byte[] payload = organizationPayloadCache.get(organizationId, Scope.PERMISSIONS, version,
+                        () -> PrimaryReads.call(() -> permissionService.getAllPermissionsByOrganization(organizationId)));
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(payload);
+            }
+            // Read behind a primary-read version; a lagging replica would pin stale data to the new ETag
+            permissions = PrimaryReads.call(() -> permissionService.getAllPermissionsByOrganization(organizationId));
         }
 
         return ResponseEntity.ok(permissions);
@@ -1,14 +1,24 @@
     package com.hsurvey.userservice.controller;
 
     import com.hsurvey.userservice.dto.RoleDTO;
+    import com.hsurvey.userservice.dto.RolePermissionChangeDTO;
+    import com.hsurvey.userservice.dto.RolePermissionPatchDTO;
+    import com.hsurvey.userservice.repositories.OrganizationVersionRepository.Scope;
+    import com.hsurvey.userservice.service.OrganizationPayloadCache;
+    import com.hsurvey.userservice.service.OrganizationVersionService;
     import com.hsurvey.userservice.service.RoleService;
     import com.hsurvey.userservice.utils.OrganizationContextUtil;
+    import com.hsurvey.userservice.utils.PrimaryReads;
+    import org.springframework.http.HttpHeaders;
     import org.springframework.http.HttpStatus;
+    import org.springframework.http.MediaType;
     import org.springframework.http.ResponseEntity;
     import org.springframework.security.access.prepost.PreAuthorize;
     import org.springframework.web.bind.annotation.*;
+    import org.springframework.web.context.request.WebRequest;
 
     import java.util.List;
+    import java.util.Set;
     import java.util.UUID;
 
     @RestController
@@ -16,10 +26,17 @@
     public class RoleController {
         private final RoleService roleService;
         private final OrganizationContextUtil organizationContextUtil;
+        private final OrganizationVersionService organizationVersionService;
+        private final OrganizationPayloadCache organizationPayloadCache;
 
-        public RoleController(RoleService roleService, OrganizationContextUtil organizationContextUtil) {
+        public RoleController(RoleService roleService,
+                              OrganizationContextUtil organizationContextUtil,
+                              OrganizationVersionService organizationVersionService,
+                              OrganizationPayloadCache organizationPayloadCache) {
             this.roleService = roleService;
             this.organizationContextUtil = organizationContextUtil;
+            this.organizationVersionService = organizationVersionService;
+            this.organizationPayloadCache = organizationPayloadCache;
         }
 
         @PostMapping
@@ -45,14 +62,28 @@
 
         @GetMapping
         @PreAuthorize("hasAnyAuthority('ROLE_READ','SYS_ADMIN_ROOT')")
-        public ResponseEntity<List<RoleDTO>> getAllRoles() {
-            List<RoleDTO> roles;
+        public ResponseEntity<?> getAllRoles(@RequestParam(required = false) Set<String> fields,
+                                             WebRequest webRequest) {
+            List<?> roles;
 
             if (organizationContextUtil.isRootAdmin()) {
-                roles = roleService.getAllRoles();
+                roles = fields != null ? roleService.getAllRoles(fields) : roleService.getAllRoles();
             } else {
                 UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
-                roles = roleService.getAllRolesByOrganization(organizationId);
+                long version = organizationVersionService.currentVersion(organizationId, Scope.ROLES);
+                // Answers If-None-Match from the version row alone; sets the ETag header otherwise
+                if (webRequest.checkNotModified(organizationVersionService.etag(organizationId, Scope.ROLES, version))) {
+                    return null;
+                }
+                if (fields == null && OrganizationPayloadCache.acceptsJson(webRequest.getHeader(HttpHeaders.ACCEPT))) {
+                    byte[] payload = organizationPayloadCache.get(organizationId, Scope.ROLES, version,
+                            () -> PrimaryReads.call(() -> roleService.getAllRolesByOrganization(organizationId)));
+                    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(payload);
+                }
+                // Read behind a primary-read version; a lagging replica would pin stale data to the new ETag
+                roles = PrimaryReads.call(() -> fields != null
+                        ? roleService.getAllRolesByOrganization(organizationId, fields)
+                        : roleService.getAllRolesByOrganization(organizationId));
             }
 
             return ResponseEntity.ok(roles);
@@ -60,14 +91,17 @@
 
         @GetMapping("/{roleId}")
         @PreAuthorize("hasAnyAuthority('ROLE_READ','SYS_ADMIN_ROOT')")
-        public ResponseEntity<RoleDTO> getRoleById(@PathVariable UUID roleId) {
-            RoleDTO role;
+        public ResponseEntity<?> getRoleById(@PathVariable UUID roleId,
+                                             @RequestParam(required = false) Set<String> fields) {
+            Object role;
 
             if (organizationContextUtil.isRootAdmin()) {
-                role = roleService.getRoleById(roleId);
+                role = fields != null ? roleService.getRoleById(roleId, fields) : roleService.getRoleById(roleId);
             } else {
                 UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
-                role = roleService.getRoleByIdAndOrganization(roleId, organizationId);
+                role = fields != null
+                        ? roleService.getRoleByIdAndOrganization(roleId, organizationId, fields)
+                        : roleService.getRoleByIdAndOrganization(roleId, organizationId);
             }
 
             return ResponseEntity.ok(role);
@@ -112,6 +146,36 @@
             return ResponseEntity.noContent().build();
         }
 
+        @PatchMapping("/{roleId}/permissions")
+        @PreAuthorize("hasAnyAuthority('ROLE_UPDATE','SYS_ADMIN_ROOT')")
+        public ResponseEntity<RolePermissionChangeDTO> updateRolePermissions(@PathVariable UUID roleId,
+                                                                             @RequestBody RolePermissionPatchDTO patch) {
+            RolePermissionChangeDTO change;
+            if (organizationContextUtil.isRootAdmin()) {
+                change = roleService.updateRolePermissions(roleId, patch);
+            } else {
+                UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
+                change = roleService.updateRolePermissionsInOrganization(roleId, patch, organizationId);
+            }
+
+            return ResponseEntity.ok(change);
+        }
+
+        @PutMapping("/{roleId}/permissions")
+        @PreAuthorize("hasAnyAuthority('ROLE_UPDATE','SYS_ADMIN_ROOT')")
+        public ResponseEntity<RolePermissionChangeDTO> replaceRolePermissions(@PathVariable UUID roleId,
+                                                                              @RequestBody List<UUID> permissionIds) {
+            RolePermissionChangeDTO change;
+            if (organizationContextUtil.isRootAdmin()) {
+                change = roleService.replaceRolePermissions(roleId, permissionIds);
+            } else {
+                UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
+                change = roleService.replaceRolePermissionsInOrganization(roleId, permissionIds, organizationId);
+            }
+
+            return ResponseEntity.ok(change);
+        }
+
         @PutMapping("/{roleId}")
         @PreAuthorize("hasAnyAuthority('ROLE_UPDATE','SYS_ADMIN_ROOT')")
         public ResponseEntity<RoleDTO> updateRole(@PathVariable UUID roleId, @RequestBody RoleDTO roleDTO) {
@@ -1,28 +1,65 @@
 package com.hsurvey.userservice.controller;
 
+import com.hsurvey.userservice.dto.BulkUserLookupRequest;
+import com.hsurvey.userservice.dto.BulkUserLookupResponse;
+import com.hsurvey.userservice.dto.CursorPageDTO;
+import com.hsurvey.userservice.dto.RoleAssignmentResultDTO;
+import com.hsurvey.userservice.dto.UserCountsDTO;
 import com.hsurvey.userservice.dto.UserDTO;
+import com.hsurvey.userservice.dto.UserExistenceDTO;
+import com.hsurvey.userservice.dto.UserField;
+import com.hsurvey.userservice.dto.UserImportResultDTO;
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository.Scope;
+import com.hsurvey.userservice.service.OrganizationVersionService;
+import com.hsurvey.userservice.service.UserExportService;
+import com.hsurvey.userservice.service.UserImportService;
 import com.hsurvey.userservice.service.UserService;
 import com.hsurvey.userservice.utils.OrganizationContextUtil;
+import com.hsurvey.userservice.utils.PrimaryReads;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.hsurvey.userservice.dto.CreateUserDTO;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
     private final OrganizationContextUtil organizationContextUtil;
+    private final OrganizationVersionService organizationVersionService;
 
-    public UserController(UserService userService, OrganizationContextUtil organizationContextUtil) {
+    public UserController(UserService userService,
+                          UserExportService userExportService,
+                          UserImportService userImportService,
+                          OrganizationContextUtil organizationContextUtil,
+                          OrganizationVersionService organizationVersionService) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
         this.organizationContextUtil = organizationContextUtil;
+        this.organizationVersionService = organizationVersionService;
     }
 
     @PostMapping
@@ -48,26 +85,147 @@ public class UserController {
 
     @GetMapping
     @PreAuthorize("hasAnyAuthority('USER_READ','SYS_ADMIN_ROOT','DEPARTMENT_MANAGER','TEAM_MANAGER')")
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users;
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Set<String> fields,
+            WebRequest webRequest) {
+        // Clients opt into keyset pagination by sending limit and/or cursor
+        if (limit != null || cursor != null) {
+            if (fields != null) {
+                throw new IllegalArgumentException("fields is not supported together with limit or cursor");
+            }
+            int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+            CursorPageDTO<UserDTO> page;
+
+            if (organizationContextUtil.isRootAdmin()) {
+                page = userService.getUsersPage(cursor, pageSize);
+            } else {
+                UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
+                page = userService.getUsersPageByOrganization(organizationId, cursor, pageSize);
+            }
+            return ResponseEntity.ok(page);
+        }
+
+        List<?> users;
 
         if (organizationContextUtil.isRootAdmin()) {
-            users = userService.getAllUsers();
+            users = fields != null ? userService.getAllUsers(fields) : userService.getAllUsers();
         } else {
             UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
-            users = userService.getAllUsersByOrganization(organizationId);
+            // Answers If-None-Match from the version row alone; sets the ETag header otherwise
+            if (webRequest.checkNotModified(organizationVersionService.etag(organizationId, Scope.USERS))) {
+                return null;
+            }
+            // Read behind a primary-read version; a lagging replica would pin stale data to the new ETag
+            users = PrimaryReads.call(() -> fields != null
+                    ? userService.getAllUsersByOrganization(organizationId, fields)
+                    : userService.getAllUsersByOrganization(organizationId));
         }
 
         return ResponseEntity.ok(users);
     }
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyAuthority('USER_READ','SYS_ADMIN_ROOT')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) UUID organizationId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        UUID targetOrganizationId;
+
+        // Resolved on the request thread: the body is written later on an async executor thread
+        if (organizationContextUtil.isRootAdmin()) {
+            if (organizationId == null) {
+                throw new IllegalArgumentException("Organization ID is required for sys admin export");
+            }
+            targetOrganizationId = organizationId;
+        } else {
+            targetOrganizationId = organizationContextUtil.getCurrentOrganizationId();
+        }
+
+        StreamingResponseBody body = out ->
+                userExportService.exportOrganizationUsers(targetOrganizationId, out, gzip);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAnyAuthority('USER_CREATE', 'SYS_ADMIN_ROOT')")
+    public ResponseEntity<UserImportResultDTO> importUsers(
+            @RequestParam(required = false) UUID organizationId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        UUID targetOrganizationId;
+
+        if (organizationContextUtil.isRootAdmin()) {
+            if (organizationId == null) {
+                throw new IllegalArgumentException("Organization ID is required for sys admin import");
+            }
+            targetOrganizationId = organizationId;
+        } else {
+            targetOrganizationId = organizationContextUtil.getCurrentOrganizationId();
+        }
+
+        // Read straight from the request stream; rows are validated and imported as they arrive
+        return ResponseEntity.ok(userImportService.importUsers(
+                targetOrganizationId, body, UserImportService.Format.fromContentType(contentType)));
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyAuthority('USER_READ','SYS_ADMIN_ROOT','DEPARTMENT_MANAGER','TEAM_MANAGER')")
+    public ResponseEntity<List<UserDTO>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) int limit,
+            @RequestParam(required = false) UUID organizationId) {
+        UUID targetOrganizationId;
+
+        if (organizationContextUtil.isRootAdmin()) {
+            if (organizationId == null) {
+                throw new IllegalArgumentException("Organization ID is required for sys admin search");
+            }
+            targetOrganizationId = organizationId;
+        } else {
+            targetOrganizationId = organizationContextUtil.getCurrentOrganizationId();
+        }
+
+        return ResponseEntity.ok(userService.searchUsersInOrganization(targetOrganizationId, q, limit));
+    }
+
+    @GetMapping("/counts")
+    @PreAuthorize("hasAnyAuthority('USER_READ','SYS_ADMIN_ROOT','DEPARTMENT_MANAGER','TEAM_MANAGER')")
+    public ResponseEntity<UserCountsDTO> getUserCounts(@RequestParam(required = false) UUID organizationId) {
+        UUID targetOrganizationId;
+
+        if (organizationContextUtil.isRootAdmin()) {
+            if (organizationId == null) {
+                throw new IllegalArgumentException("Organization ID is required for sys admin counts");
+            }
+            targetOrganizationId = organizationId;
+        } else {
+            targetOrganizationId = organizationContextUtil.getCurrentOrganizationId();
+        }
+
+        return ResponseEntity.ok(userService.getUserCounts(targetOrganizationId));
+    }
+
     @GetMapping("/{userId}/exists")
     public ResponseEntity<Boolean> checkUserExists(@PathVariable UUID userId) {
         boolean exists = userService.existsById(userId);
         return ResponseEntity.ok(exists);
     }
+    @PostMapping("/exists")
+    public ResponseEntity<UserExistenceDTO> checkUsersExist(@RequestBody List<UUID> userIds) {
+        BitSet exists = userService.existsByIds(userIds);
+        String bitmap = Base64.getEncoder().encodeToString(exists.toByteArray());
+        return ResponseEntity.ok(new UserExistenceDTO(userIds.size(), bitmap));
+    }
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('USER_READ','SYS_ADMIN_ROOT','DEPARTMENT_MANAGER','TEAM_MANAGER')")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable UUID id) {
+    public ResponseEntity<?> getUserById(@PathVariable UUID id,
+                                         @RequestParam(required = false) Set<String> fields) {
         UserDTO userDTO;
 
         if (organizationContextUtil.isRootAdmin()) {
@@ -77,6 +235,10 @@ public class UserController {
             userDTO = userService.getUserByIdAndOrganization(id, organizationId);
         }
 
+        // Single users come from the near-cache, so only the JSON is narrowed
+        if (fields != null) {
+            return ResponseEntity.ok(UserField.select(userDTO, UserField.parse(fields)));
+        }
         return ResponseEntity.ok(userDTO);
     }
 //------------
@@ -92,6 +254,20 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @PostMapping("/bulk-lookup")
+    @PreAuthorize("hasAnyAuthority('USER_READ','SYS_ADMIN_ROOT','DEPARTMENT_MANAGER','TEAM_MANAGER')")
+    public ResponseEntity<BulkUserLookupResponse> lookupUsers(@Valid @RequestBody BulkUserLookupRequest request) {
+        BulkUserLookupResponse response;
+
+        if (organizationContextUtil.isRootAdmin()) {
+            response = userService.lookupUsers(request.getIds(), request.getFields());
+        } else {
+            UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
+            response = userService.lookupUsersInOrganization(request.getIds(), request.getFields(), organizationId);
+        }
+
+        return ResponseEntity.ok(response);
+    }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('USER_UPDATE','SYS_ADMIN_ROOT')")
@@ -121,6 +297,50 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/roles/{roleId}/assign")
+    @PreAuthorize("hasAnyAuthority('USER_UPDATE','SYS_ADMIN_ROOT')")
+    public ResponseEntity<RoleAssignmentResultDTO> assignRoleToUsers(@PathVariable UUID roleId,
+                                                                     @RequestBody List<UUID> userIds) {
+        if (organizationContextUtil.isRootAdmin()) {
+            return ResponseEntity.ok(userService.assignRoleToUsers(roleId, userIds));
+        }
+        UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
+        return ResponseEntity.ok(userService.assignRoleToUsersInOrganization(roleId, userIds, organizationId));
+    }
+
+    @PostMapping("/roles/{roleId}/revoke")
+    @PreAuthorize("hasAnyAuthority('USER_UPDATE','SYS_ADMIN_ROOT')")
+    public ResponseEntity<RoleAssignmentResultDTO> revokeRoleFromUsers(@PathVariable UUID roleId,
+                                                                       @RequestBody List<UUID> userIds) {
+        if (organizationContextUtil.isRootAdmin()) {
+            return ResponseEntity.ok(userService.revokeRoleFromUsers(roleId, userIds));
+        }
+        UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
+        return ResponseEntity.ok(userService.revokeRoleFromUsersInOrganization(roleId, userIds, organizationId));
+    }
+
+    @PostMapping("/{userId}/roles/assign")
+    @PreAuthorize("hasAnyAuthority('USER_UPDATE','SYS_ADMIN_ROOT')")
+    public ResponseEntity<RoleAssignmentResultDTO> assignRolesToUser(@PathVariable UUID userId,
+                                                                     @RequestBody List<UUID> roleIds) {
+        if (organizationContextUtil.isRootAdmin()) {
+            return ResponseEntity.ok(userService.assignRolesToUser(userId, roleIds));
+        }
+        UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
+        return ResponseEntity.ok(userService.assignRolesToUserInOrganization(userId, roleIds, organizationId));
+    }
+
+    @PostMapping("/{userId}/roles/revoke")
+    @PreAuthorize("hasAnyAuthority('USER_UPDATE','SYS_ADMIN_ROOT')")
+    public ResponseEntity<RoleAssignmentResultDTO> revokeRolesFromUser(@PathVariable UUID userId,
+                                                                       @RequestBody List<UUID> roleIds) {
+        if (organizationContextUtil.isRootAdmin()) {
+            return ResponseEntity.ok(userService.revokeRolesFromUser(userId, roleIds));
+        }
+        UUID organizationId = organizationContextUtil.getCurrentOrganizationId();
+        return ResponseEntity.ok(userService.revokeRolesFromUserInOrganization(userId, roleIds, organizationId));
+    }
+
     @PostMapping("/{userId}/roles/{roleId}")
     @PreAuthorize("hasAnyAuthority('USER_UPDATE','SYS_ADMIN_ROOT')")
     public ResponseEntity<UserDTO> addRoleToUser(
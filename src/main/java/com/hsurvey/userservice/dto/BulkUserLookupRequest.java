@@ -0,0 +1,23 @@
+package com.hsurvey.userservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserLookupRequest {
+    @NotNull(message = "ids is required")
+    @Size(max = 50000, message = "At most 50000 ids can be looked up at once")
+    private List<UUID> ids;
+
+    // UserDTO field names to return; all fields when omitted. id is always included.
+    private Set<String> fields;
+}
@@ -0,0 +1,19 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserLookupResponse {
+    // In request order, one entry per distinct id found, holding only the selected fields
+    private List<Map<String, Object>> users;
+    // Requested ids that do not exist or are outside the caller's organization, in request order
+    private List<UUID> missing;
+}
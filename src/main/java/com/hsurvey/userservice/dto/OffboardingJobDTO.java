@@ -0,0 +1,24 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OffboardingJobDTO {
+    private UUID organizationId;
+    // RUNNING, FAILED or COMPLETED
+    private String status;
+    // The table currently being emptied, DONE once everything is gone
+    private String phase;
+    private long deletedRows;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -0,0 +1,33 @@
+package com.hsurvey.userservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizationOnboardingRequest {
+    @NotEmpty(message = "organizations is required")
+    @Size(max = 1000, message = "At most 1000 organizations can be onboarded at once")
+    private List<@Valid @NotNull Organization> organizations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Organization {
+        @NotNull(message = "Organization ID is required")
+        private UUID organizationId;
+
+        @NotNull(message = "manager is required")
+        @Valid
+        private AdminRegisterRequest manager;
+    }
+}
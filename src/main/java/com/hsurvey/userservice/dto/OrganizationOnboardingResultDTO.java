@@ -0,0 +1,19 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizationOnboardingResultDTO {
+    private UUID organizationId;
+    // ONBOARDED, ALREADY_ONBOARDED or FAILED
+    private String outcome;
+    // The manager account, for ONBOARDED only
+    private UUID managerId;
+    private String error;
+}
@@ -0,0 +1,15 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleAssignmentResultDTO {
+    // Distinct ids in the request
+    private int requested;
+    // Assignments actually created or removed; the rest already matched or are outside the organization
+    private int changed;
+}
@@ -0,0 +1,60 @@
+package com.hsurvey.userservice.dto;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Fields a caller may select in role sparse fieldsets, keyed by their RoleDTO JSON name
+public enum RoleField {
+    ID("id"),
+    NAME("name"),
+    ORGANIZATION_ID("organizationId"),
+    DESCRIPTION("description"),
+    PERMISSIONS("permissions");
+
+    private final String jsonName;
+
+    RoleField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public static RoleField fromJsonName(String name) {
+        return Arrays.stream(values())
+                .filter(field -> field.jsonName.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown role field: " + name));
+    }
+
+    // Every field when no names are given
+    public static Set<RoleField> parse(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EnumSet.allOf(RoleField.class);
+        }
+        Set<RoleField> fields = EnumSet.noneOf(RoleField.class);
+        for (String name : names) {
+            fields.add(fromJsonName(name.strip()));
+        }
+        return fields;
+    }
+
+    public static Map<String, Object> select(RoleDTO role, Set<RoleField> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (RoleField field : fields) {
+            row.put(field.jsonName, switch (field) {
+                case ID -> role.getId();
+                case NAME -> role.getName();
+                case ORGANIZATION_ID -> role.getOrganizationId();
+                case DESCRIPTION -> role.getDescription();
+                case PERMISSIONS -> role.getPermissions();
+            });
+        }
+        return row;
+    }
+}
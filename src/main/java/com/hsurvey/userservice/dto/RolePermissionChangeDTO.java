@@ -0,0 +1,18 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RolePermissionChangeDTO {
+    private UUID roleId;
+    // Only the grants that actually changed
+    private List<UUID> added;
+    private List<UUID> removed;
+}
@@ -0,0 +1,18 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RolePermissionPatchDTO {
+    // Permission ids to grant; ids the role already holds are ignored
+    private List<UUID> add;
+    // Permission ids to revoke; ids the role does not hold are ignored
+    private List<UUID> remove;
+}
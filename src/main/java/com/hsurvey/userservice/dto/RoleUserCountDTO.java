@@ -0,0 +1,16 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleUserCountDTO {
+    private UUID roleId;
+    private String roleName;
+    private long userCount;
+}
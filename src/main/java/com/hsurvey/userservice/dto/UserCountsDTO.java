@@ -0,0 +1,17 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCountsDTO {
+    private UUID organizationId;
+    private long userCount;
+    private List<RoleUserCountDTO> roles;
+}
@@ -0,0 +1,15 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserExistenceDTO {
+    // Number of ids in the request
+    private int size;
+    // Base64 bitmap aligned with the request: bit i (byte i / 8, bit i % 8, least significant first) is set if ids[i] exists
+    private String bitmap;
+}
@@ -0,0 +1,60 @@
+package com.hsurvey.userservice.dto;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Fields a caller may select in bulk lookups and sparse fieldsets, keyed by their UserDTO JSON name
+public enum UserField {
+    ID("id"),
+    USERNAME("username"),
+    EMAIL("email"),
+    ORGANIZATION_ID("organizationId"),
+    ROLES("roles");
+
+    private final String jsonName;
+
+    UserField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public static UserField fromJsonName(String name) {
+        return Arrays.stream(values())
+                .filter(field -> field.jsonName.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown user field: " + name));
+    }
+
+    // Every field when no names are given
+    public static Set<UserField> parse(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EnumSet.allOf(UserField.class);
+        }
+        Set<UserField> fields = EnumSet.noneOf(UserField.class);
+        for (String name : names) {
+            fields.add(fromJsonName(name.strip()));
+        }
+        return fields;
+    }
+
+    public static Map<String, Object> select(UserDTO user, Set<UserField> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (UserField field : fields) {
+            row.put(field.jsonName, switch (field) {
+                case ID -> user.getId();
+                case USERNAME -> user.getUsername();
+                case EMAIL -> user.getEmail();
+                case ORGANIZATION_ID -> user.getOrganizationId();
+                case ROLES -> user.getRoles();
+            });
+        }
+        return row;
+    }
+}
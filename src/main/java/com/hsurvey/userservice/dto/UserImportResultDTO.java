@@ -0,0 +1,19 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+    private UUID organizationId;
+    private int created;
+    private int failed;
+    // One entry per data row, in file order
+    private List<UserImportRowDTO> rows;
+}
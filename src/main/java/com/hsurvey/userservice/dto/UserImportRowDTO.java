@@ -0,0 +1,21 @@
+package com.hsurvey.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRowDTO {
+    // Line of the row in the uploaded file, counting the CSV header as line 1
+    private long line;
+    private String username;
+    private String email;
+    // Set when the user was created
+    private UUID id;
+    // Set when the row was rejected
+    private String error;
+}
@@ -5,7 +5,14 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@NamedEntityGraph(
+        name = RefreshToken.GRAPH_USER_WITH_ROLES,
+        attributeNodes = @NamedAttributeNode(value = "user", subgraph = "roles"),
+        subgraphs = @NamedSubgraph(name = "roles", attributeNodes = @NamedAttributeNode("roles"))
+)
 public class RefreshToken {
+    public static final String GRAPH_USER_WITH_ROLES = "RefreshToken.userWithRoles";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
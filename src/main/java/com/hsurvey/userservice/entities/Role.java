@@ -8,11 +8,16 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "roles")
+@NamedEntityGraph(name = Role.GRAPH_PERMISSIONS, attributeNodes = @NamedAttributeNode("permissions"))
 @Data
+@EqualsAndHashCode(exclude = "permissions") // Hashing a role must not initialize its LAZY permissions
+@ToString(exclude = "permissions")
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Role {
+    public static final String GRAPH_PERMISSIONS = "Role.permissions";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -25,7 +30,7 @@ public class Role {
 
     private String description;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "role_permissions",
             joinColumns = @JoinColumn(name = "role_id"),
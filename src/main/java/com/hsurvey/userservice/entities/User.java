@@ -8,6 +8,12 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@NamedEntityGraph(name = User.GRAPH_ROLES, attributeNodes = @NamedAttributeNode("roles"))
+@NamedEntityGraph(
+        name = User.GRAPH_ROLES_AND_PERMISSIONS,
+        attributeNodes = @NamedAttributeNode(value = "roles", subgraph = "permissions"),
+        subgraphs = @NamedSubgraph(name = "permissions", attributeNodes = @NamedAttributeNode("permissions"))
+)
 @Getter
 @Setter
 @Builder
@@ -16,6 +22,10 @@ import java.util.UUID;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true) // Only use ID for equals/hashCode
 @ToString(exclude = "roles") // Exclude roles from toString to avoid circular references
 public class User {
+    // Roles are LAZY; repository methods that need them declare one of these graphs
+    public static final String GRAPH_ROLES = "User.roles";
+    public static final String GRAPH_ROLES_AND_PERMISSIONS = "User.rolesAndPermissions";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @EqualsAndHashCode.Include // Only include ID in equals/hashCode
@@ -33,7 +43,7 @@ public class User {
     @Column(name = "organization_id", nullable = false)
     private UUID organizationId;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.MERGE)
+    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.MERGE)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
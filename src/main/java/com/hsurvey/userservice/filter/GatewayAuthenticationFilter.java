@@ -19,6 +19,12 @@ import java.util.stream.Collectors;
 @Component
 public class GatewayAuthenticationFilter extends OncePerRequestFilter {
 
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Internal endpoints are authenticated by their own chain
+        return request.getRequestURI().startsWith("/internal/");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -17,6 +17,12 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
     
     private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
     private static final String REQUEST_ID_HEADER = "X-Request-ID";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // High-rate service-to-service calls are covered by their own metrics instead
+        return request.getRequestURI().startsWith("/internal/");
+    }
     
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -0,0 +1,70 @@
+package com.hsurvey.userservice.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Authenticates machine callers of the /internal/** chain with a shared service token.
+ * The token digest and the resulting Authentication are computed once at startup, so a
+ * request costs one header read and one constant-time digest comparison.
+ * Deliberately not a @Component: it must only run inside the internal security chain.
+ */
+public class ServiceTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+    public static final String SERVICE_AUTHORITY = "SERVICE_INTERNAL";
+
+    private static final Authentication SERVICE_AUTHENTICATION =
+            UsernamePasswordAuthenticationToken.authenticated(
+                    "internal-service", null, List.of(new SimpleGrantedAuthority(SERVICE_AUTHORITY)));
+
+    private final byte[] expectedDigest;
+
+    public ServiceTokenAuthenticationFilter(String serviceToken) {
+        this.expectedDigest = serviceToken == null || serviceToken.isBlank() ? null : sha256(serviceToken);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String token = request.getHeader(SERVICE_TOKEN_HEADER);
+
+        if (expectedDigest == null || token == null
+                || !MessageDigest.isEqual(expectedDigest, sha256(token))) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid service credential");
+            return;
+        }
+
+        SecurityContextHolder.setContext(new SecurityContextImpl(SERVICE_AUTHENTICATION));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.hsurvey.userservice.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Materializes the default role and permission templates from V8 for an organization. Both
+ * statements skip whatever the organization already has, so provisioning can be repeated safely;
+ * call them in this order, in one transaction.
+ */
+@Repository
+public class DefaultRoleTemplateRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public DefaultRoleTemplateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Held until the calling transaction ends, so concurrent provisioning of one organization is serialized
+    public void lockOrganization(UUID organizationId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext('organization_provisioning'), hashtext(?::text))",
+                rs -> null, organizationId);
+    }
+
+    // Returns how many permissions were missing and created
+    public int provisionPermissions(UUID organizationId) {
+        return jdbcTemplate.update("""
+                        INSERT INTO permissions (id, name, description, organization_id)
+                        SELECT gen_random_uuid(), t.name, t.description, ?
+                        FROM default_permission_templates t
+                        ON CONFLICT (organization_id, name) DO NOTHING""",
+                organizationId);
+    }
+
+    /**
+     * Creates the missing roles and grants them their template permissions. Roles the organization
+     * already has are left as they are, including permissions an administrator removed from them.
+     * Returns how many roles were created.
+     */
+    public int provisionRoles(UUID organizationId) {
+        Integer created = jdbcTemplate.queryForObject("""
+                        WITH created_roles AS (
+                            INSERT INTO roles (id, name, description, organization_id)
+                            SELECT gen_random_uuid(), t.name, t.description, ?
+                            FROM default_role_templates t
+                            ON CONFLICT (organization_id, name) DO NOTHING
+                            RETURNING id, name
+                        ), granted AS (
+                            INSERT INTO role_permissions (role_id, permission_id)
+                            SELECT r.id, p.id
+                            FROM created_roles r
+                            JOIN default_role_template_permissions tp ON tp.role_name = r.name
+                            JOIN permissions p ON p.organization_id = ? AND p.name = tp.permission_name
+                            ON CONFLICT DO NOTHING
+                        )
+                        SELECT count(*) FROM created_roles""",
+                Integer.class, organizationId, organizationId);
+        return created != null ? created : 0;
+    }
+}
@@ -0,0 +1,188 @@
+package com.hsurvey.userservice.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Job rows from V7 and the batched deletes that empty an organization. Every delete picks at most
+ * limit rows through an index and removes them by primary key, so a batch holds row locks on a
+ * bounded set only and never scans or locks a whole table.
+ */
+@Repository
+public class OrganizationOffboardingRepository {
+
+    public enum Status { RUNNING, FAILED, COMPLETED }
+
+    // Tables are emptied in dependency order; a phase is done once a batch comes back short
+    public enum Phase { REFRESH_TOKENS, USER_ROLES, USERS, ROLE_PERMISSIONS, ROLES, PERMISSIONS, COUNTERS, DONE;
+
+        public Phase next() {
+            return this == DONE ? DONE : values()[ordinal() + 1];
+        }
+    }
+
+    public record Job(UUID organizationId, Status status, Phase phase, long deletedRows,
+                      Instant startedAt, Instant updatedAt, Instant finishedAt, String error) {
+    }
+
+    private static final RowMapper<Job> JOB_MAPPER = (rs, rowNum) -> new Job(
+            rs.getObject("organization_id", UUID.class),
+            Status.valueOf(rs.getString("status")),
+            Phase.valueOf(rs.getString("phase")),
+            rs.getLong("deleted_rows"),
+            toInstant(rs.getTimestamp("started_at")),
+            toInstant(rs.getTimestamp("updated_at")),
+            toInstant(rs.getTimestamp("finished_at")),
+            rs.getString("error"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrganizationOffboardingRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<Job> findJob(UUID organizationId) {
+        return jdbcTemplate.query("SELECT * FROM organization_offboarding_jobs WHERE organization_id = ?",
+                JOB_MAPPER, organizationId).stream().findFirst();
+    }
+
+    public List<UUID> findRunningJobs() {
+        return jdbcTemplate.query("SELECT organization_id FROM organization_offboarding_jobs WHERE status = 'RUNNING'",
+                (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    /*
+     * A running job keeps its phase. A failed one goes back to the first phase: rows created in an
+     * already emptied table while the job ran (a login, a role assignment) are what usually fails
+     * it, and every phase is idempotent. A completed one starts over with a fresh count.
+     */
+    public Job startJob(UUID organizationId) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO organization_offboarding_jobs AS j
+                            (organization_id, status, phase, deleted_rows, started_at, updated_at)
+                        VALUES (?, 'RUNNING', 'REFRESH_TOKENS', 0, now(), now())
+                        ON CONFLICT (organization_id) DO UPDATE SET
+                            status       = 'RUNNING',
+                            phase        = CASE WHEN j.status = 'RUNNING' THEN j.phase ELSE 'REFRESH_TOKENS' END,
+                            deleted_rows = CASE WHEN j.status = 'COMPLETED' THEN 0 ELSE j.deleted_rows END,
+                            started_at   = CASE WHEN j.status = 'COMPLETED' THEN now() ELSE j.started_at END,
+                            updated_at   = now(),
+                            finished_at  = NULL,
+                            error        = NULL
+                        RETURNING *""",
+                JOB_MAPPER, organizationId);
+    }
+
+    // Held until the calling transaction ends; empty if the job is not running or another worker holds it
+    public Optional<Phase> lockRunningJob(UUID organizationId) {
+        return jdbcTemplate.query("""
+                        SELECT phase FROM organization_offboarding_jobs
+                        WHERE organization_id = ? AND status = 'RUNNING'
+                        FOR UPDATE SKIP LOCKED""",
+                (rs, rowNum) -> Phase.valueOf(rs.getString(1)), organizationId).stream().findFirst();
+    }
+
+    public void recordProgress(UUID organizationId, Phase phase, long deletedRows) {
+        jdbcTemplate.update("""
+                        UPDATE organization_offboarding_jobs SET
+                            phase        = ?,
+                            deleted_rows = deleted_rows + ?,
+                            status       = CASE WHEN ? = 'DONE' THEN 'COMPLETED' ELSE status END,
+                            finished_at  = CASE WHEN ? = 'DONE' THEN now() END,
+                            updated_at   = now()
+                        WHERE organization_id = ?""",
+                phase.name(), deletedRows, phase.name(), phase.name(), organizationId);
+    }
+
+    public void markFailed(UUID organizationId, String error) {
+        jdbcTemplate.update("""
+                        UPDATE organization_offboarding_jobs
+                        SET status = 'FAILED', error = ?, updated_at = now()
+                        WHERE organization_id = ? AND status = 'RUNNING'""",
+                error, organizationId);
+    }
+
+    /**
+     * Deletes up to limit rows of the phase's table (up to limit per side for the join tables) and
+     * returns how many went; fewer than limit means the phase is done. USERS is handled by
+     * deleteUsers because the ids must be published; COUNTERS by deleteCounters. ROLES and
+     * PERMISSIONS also remove the batch's own memberships and grants, since nothing stops new ones
+     * being created after their phase has passed; the foreign keys are checked at the end of the
+     * statement, so the rows can go together.
+     */
+    public int deleteBatch(Phase phase, UUID organizationId, int limit) {
+        return switch (phase) {
+            case REFRESH_TOKENS -> jdbcTemplate.update("""
+                            DELETE FROM refresh_token WHERE id IN (
+                                SELECT t.id FROM refresh_token t
+                                JOIN users u ON u.id = t.user_id
+                                WHERE u.organization_id = ?
+                                LIMIT ?)""",
+                    organizationId, limit);
+            // Memberships are removed from either side, so cross-organization leftovers go too. An OR
+            // across both sides cannot use either index, so each side is its own indexed select.
+            case USER_ROLES -> jdbcTemplate.update("""
+                            DELETE FROM user_roles ur
+                            USING ((SELECT x.user_id, x.role_id FROM users u
+                                    JOIN user_roles x ON x.user_id = u.id
+                                    WHERE u.organization_id = ? LIMIT ?)
+                                   UNION ALL
+                                   (SELECT x.user_id, x.role_id FROM roles r
+                                    JOIN user_roles x ON x.role_id = r.id
+                                    WHERE r.organization_id = ? LIMIT ?)) batch
+                            WHERE ur.user_id = batch.user_id AND ur.role_id = batch.role_id""",
+                    organizationId, limit, organizationId, limit);
+            case ROLE_PERMISSIONS -> jdbcTemplate.update("""
+                            DELETE FROM role_permissions rp
+                            USING ((SELECT x.role_id, x.permission_id FROM roles r
+                                    JOIN role_permissions x ON x.role_id = r.id
+                                    WHERE r.organization_id = ? LIMIT ?)
+                                   UNION ALL
+                                   (SELECT x.role_id, x.permission_id FROM permissions p
+                                    JOIN role_permissions x ON x.permission_id = p.id
+                                    WHERE p.organization_id = ? LIMIT ?)) batch
+                            WHERE rp.role_id = batch.role_id AND rp.permission_id = batch.permission_id""",
+                    organizationId, limit, organizationId, limit);
+            case ROLES -> jdbcTemplate.update("""
+                            WITH batch AS (SELECT id FROM roles WHERE organization_id = ? LIMIT ?),
+                                 memberships AS (DELETE FROM user_roles x USING batch WHERE x.role_id = batch.id),
+                                 grants AS (DELETE FROM role_permissions x USING batch WHERE x.role_id = batch.id)
+                            DELETE FROM roles WHERE id IN (SELECT id FROM batch)""",
+                    organizationId, limit);
+            case PERMISSIONS -> jdbcTemplate.update("""
+                            WITH batch AS (SELECT id FROM permissions WHERE organization_id = ? LIMIT ?),
+                                 grants AS (DELETE FROM role_permissions x USING batch WHERE x.permission_id = batch.id)
+                            DELETE FROM permissions WHERE id IN (SELECT id FROM batch)""",
+                    organizationId, limit);
+            default -> throw new IllegalArgumentException("No batch delete for phase " + phase);
+        };
+    }
+
+    // Takes the batch's refresh tokens and memberships along, like deleteBatch does for ROLES
+    public List<UUID> deleteUsers(UUID organizationId, int limit) {
+        return jdbcTemplate.query("""
+                        WITH batch AS (SELECT id FROM users WHERE organization_id = ? LIMIT ?),
+                             tokens AS (DELETE FROM refresh_token x USING batch WHERE x.user_id = batch.id),
+                             memberships AS (DELETE FROM user_roles x USING batch WHERE x.user_id = batch.id)
+                        DELETE FROM users WHERE id IN (SELECT id FROM batch)
+                        RETURNING id""",
+                (rs, rowNum) -> rs.getObject(1, UUID.class), organizationId, limit);
+    }
+
+    // The organization_versions row stays so ETags keep increasing if the organization comes back
+    public int deleteCounters(UUID organizationId) {
+        return jdbcTemplate.update("DELETE FROM role_user_counts WHERE organization_id = ?", organizationId)
+                + jdbcTemplate.update("DELETE FROM organization_user_counts WHERE organization_id = ?", organizationId);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hsurvey.userservice.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the trigger-maintained change counters from V6.
+ */
+@Repository
+public class OrganizationVersionRepository {
+
+    public enum Scope {
+        USERS("users_version"),
+        ROLES("roles_version"),
+        PERMISSIONS("permissions_version");
+
+        private final String column;
+
+        Scope(String column) {
+            this.column = column;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrganizationVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 0 for organizations that have never been written to
+    public long findVersion(UUID organizationId, Scope scope) {
+        List<Long> versions = jdbcTemplate.query(
+                "SELECT " + scope.column + " FROM organization_versions WHERE organization_id = ?",
+                (rs, rowNum) -> rs.getLong(1), organizationId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+}
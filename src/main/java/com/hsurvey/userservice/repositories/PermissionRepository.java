@@ -2,6 +2,9 @@ package com.hsurvey.userservice.repositories;
 
 import com.hsurvey.userservice.entities.Permission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +17,24 @@ public interface PermissionRepository extends JpaRepository<Permission, UUID> {
     boolean existsByNameAndOrganizationId(String name, UUID organizationId);
     List<Permission> findByOrganizationId(UUID organizationId);
 
+    // Deletion is set-based: revoke from every role holding the permission, then delete it. All return rows changed.
+    @Modifying
+    @Query(value = "DELETE FROM role_permissions WHERE permission_id = :permissionId", nativeQuery = true)
+    int revokeFromAllRoles(@Param("permissionId") UUID permissionId);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM role_permissions rp
+            USING permissions p
+            WHERE rp.permission_id = p.id AND p.id = :permissionId AND p.organization_id = :organizationId""",
+            nativeQuery = true)
+    int revokeFromAllRolesInOrganization(@Param("permissionId") UUID permissionId, @Param("organizationId") UUID organizationId);
+
+    @Modifying
+    @Query(value = "DELETE FROM permissions WHERE id = :permissionId", nativeQuery = true)
+    int deletePermission(@Param("permissionId") UUID permissionId);
+
+    @Modifying
+    @Query(value = "DELETE FROM permissions WHERE id = :permissionId AND organization_id = :organizationId", nativeQuery = true)
+    int deletePermissionInOrganization(@Param("permissionId") UUID permissionId, @Param("organizationId") UUID organizationId);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.hsurvey.userservice.repositories;
 
 import com.hsurvey.userservice.entities.RefreshToken;
 import com.hsurvey.userservice.entities.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,5 +11,10 @@ import java.util.Optional;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByToken(String token);
+
+    // Token refresh reads the user and role names; fetch them with the token instead of lazily
+    @EntityGraph(RefreshToken.GRAPH_USER_WITH_ROLES)
+    Optional<RefreshToken> findWithUserByToken(String token);
+
     int deleteByUser(User user);
 } 
\ No newline at end of file
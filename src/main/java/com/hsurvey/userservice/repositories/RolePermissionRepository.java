@@ -0,0 +1,107 @@
+package com.hsurvey.userservice.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Multi-id edits of role_permissions, written straight to the join table without loading the
+ * role's permission collection. Every statement returns only the rows it changed, so callers
+ * learn the diff without reading the grants first. Ids travel as one uuid[] parameter.
+ */
+@Repository
+public class RolePermissionRepository {
+
+    public record Diff(List<UUID> added, List<UUID> removed) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RolePermissionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Set<UUID> findPermissionIdsInOrganization(Collection<UUID> permissionIds, UUID organizationId) {
+        return new HashSet<>(jdbcTemplate.query(
+                "SELECT p.id FROM permissions p WHERE p.id = ANY(?) AND p.organization_id = ?",
+                statement -> {
+                    setUuids(statement, 1, permissionIds);
+                    statement.setObject(2, organizationId);
+                },
+                (rs, rowNum) -> rs.getObject(1, UUID.class)));
+    }
+
+    // Only permissions of the organization are granted; returns the ids that were newly granted
+    public List<UUID> addPermissions(UUID roleId, Collection<UUID> permissionIds, UUID organizationId) {
+        return jdbcTemplate.query("""
+                        INSERT INTO role_permissions (role_id, permission_id)
+                        SELECT ?, p.id FROM permissions p
+                        WHERE p.id = ANY(?) AND p.organization_id = ?
+                        ON CONFLICT DO NOTHING
+                        RETURNING permission_id""",
+                statement -> {
+                    statement.setObject(1, roleId);
+                    setUuids(statement, 2, permissionIds);
+                    statement.setObject(3, organizationId);
+                },
+                (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    public List<UUID> removePermissions(UUID roleId, Collection<UUID> permissionIds) {
+        return jdbcTemplate.query(
+                "DELETE FROM role_permissions WHERE role_id = ? AND permission_id = ANY(?) RETURNING permission_id",
+                statement -> {
+                    statement.setObject(1, roleId);
+                    setUuids(statement, 2, permissionIds);
+                },
+                (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    /**
+     * Makes the role hold exactly the given permissions of the organization. The revoke and the
+     * grant run as data-modifying CTEs of one statement; they touch disjoint rows, so seeing the
+     * same snapshot is safe.
+     */
+    public Diff replacePermissions(UUID roleId, Collection<UUID> permissionIds, UUID organizationId) {
+        List<UUID> added = new ArrayList<>();
+        List<UUID> removed = new ArrayList<>();
+        jdbcTemplate.query("""
+                        WITH target AS (
+                            SELECT p.id FROM permissions p WHERE p.id = ANY(?) AND p.organization_id = ?
+                        ), revoked AS (
+                            DELETE FROM role_permissions rp
+                            WHERE rp.role_id = ? AND NOT EXISTS (SELECT 1 FROM target t WHERE t.id = rp.permission_id)
+                            RETURNING rp.permission_id
+                        ), granted AS (
+                            INSERT INTO role_permissions (role_id, permission_id)
+                            SELECT ?, t.id FROM target t
+                            ON CONFLICT DO NOTHING
+                            RETURNING permission_id
+                        )
+                        SELECT true AS added, permission_id FROM granted
+                        UNION ALL
+                        SELECT false, permission_id FROM revoked""",
+                statement -> {
+                    setUuids(statement, 1, permissionIds);
+                    statement.setObject(2, organizationId);
+                    statement.setObject(3, roleId);
+                    statement.setObject(4, roleId);
+                },
+                rs -> {
+                    (rs.getBoolean("added") ? added : removed).add(rs.getObject("permission_id", UUID.class));
+                });
+        return new Diff(added, removed);
+    }
+
+    private static void setUuids(PreparedStatement statement, int index, Collection<UUID> ids) throws SQLException {
+        statement.setArray(index, statement.getConnection().createArrayOf("uuid", ids.toArray()));
+    }
+}
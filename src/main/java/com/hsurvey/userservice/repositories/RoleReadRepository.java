@@ -0,0 +1,92 @@
+package com.hsurvey.userservice.repositories;
+
+import com.hsurvey.userservice.dto.RoleField;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Sparse-fieldset reads of roles that select only the requested columns. Permissions are a
+ * nested collection, not a column; callers that need them go through the entity graph instead.
+ */
+@Repository
+public class RoleReadRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public RoleReadRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Map<String, Object>> findAllFields(Set<RoleField> fields) {
+        Set<RoleField> selected = columnsOf(fields);
+        return jdbcTemplate.query("SELECT " + fieldColumns(selected) +
+                " FROM roles r ORDER BY r.organization_id, r.name", fieldRowMapper(selected));
+    }
+
+    public List<Map<String, Object>> findFieldsByOrganizationId(UUID organizationId, Set<RoleField> fields) {
+        Set<RoleField> selected = columnsOf(fields);
+        return jdbcTemplate.query("SELECT " + fieldColumns(selected) +
+                        " FROM roles r WHERE r.organization_id = ? ORDER BY r.name",
+                fieldRowMapper(selected), organizationId);
+    }
+
+    public Optional<Map<String, Object>> findFieldsById(UUID id, Set<RoleField> fields) {
+        Set<RoleField> selected = columnsOf(fields);
+        return jdbcTemplate.query("SELECT " + fieldColumns(selected) + " FROM roles r WHERE r.id = ?",
+                fieldRowMapper(selected), id).stream().findFirst();
+    }
+
+    public Optional<Map<String, Object>> findFieldsByIdAndOrganizationId(UUID id, UUID organizationId,
+                                                                         Set<RoleField> fields) {
+        Set<RoleField> selected = columnsOf(fields);
+        return jdbcTemplate.query("SELECT " + fieldColumns(selected) +
+                        " FROM roles r WHERE r.id = ? AND r.organization_id = ?",
+                fieldRowMapper(selected), id, organizationId).stream().findFirst();
+    }
+
+    private static Set<RoleField> columnsOf(Set<RoleField> fields) {
+        if (fields.contains(RoleField.PERMISSIONS)) {
+            throw new IllegalArgumentException("Permissions cannot be read as a column");
+        }
+        return EnumSet.copyOf(fields);
+    }
+
+    private static String fieldColumns(Set<RoleField> selected) {
+        List<String> columns = new ArrayList<>();
+        for (RoleField field : selected) {
+            columns.add(switch (field) {
+                case ID -> "r.id";
+                case NAME -> "r.name";
+                case ORGANIZATION_ID -> "r.organization_id";
+                case DESCRIPTION -> "r.description";
+                case PERMISSIONS -> throw new IllegalStateException();
+            });
+        }
+        return String.join(", ", columns);
+    }
+
+    private static RowMapper<Map<String, Object>> fieldRowMapper(Set<RoleField> selected) {
+        return (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (RoleField field : selected) {
+                row.put(field.getJsonName(), switch (field) {
+                    case ID -> rs.getObject("id", UUID.class);
+                    case NAME -> rs.getString("name");
+                    case ORGANIZATION_ID -> rs.getObject("organization_id", UUID.class);
+                    case DESCRIPTION -> rs.getString("description");
+                    case PERMISSIONS -> throw new IllegalStateException();
+                });
+            }
+            return row;
+        };
+    }
+}
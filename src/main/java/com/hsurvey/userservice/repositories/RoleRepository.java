@@ -1,8 +1,9 @@
 package com.hsurvey.userservice.repositories;
 
-import com.hsurvey.userservice.entities.Permission;
 import com.hsurvey.userservice.entities.Role;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,6 +17,24 @@ public interface RoleRepository extends JpaRepository<Role, UUID> {
     boolean existsByNameAndOrganizationId(String name, UUID organizationId);
     List<Role> findByOrganizationId(UUID organizationId);
 
-    @Query("SELECT r FROM Role r JOIN r.permissions p WHERE p = :permission")
-    List<Role> findByPermissionsContaining(@Param("permission") Permission permission);
-}
\ No newline at end of file
+    // Role DTOs carry their permissions, so reads that map to RoleDTO fetch them with the role
+    @EntityGraph(Role.GRAPH_PERMISSIONS)
+    @Query("SELECT r FROM Role r")
+    List<Role> findAllWithPermissions();
+
+    @EntityGraph(Role.GRAPH_PERMISSIONS)
+    @Query("SELECT r FROM Role r WHERE r.organizationId = :organizationId")
+    List<Role> findWithPermissionsByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    @EntityGraph(Role.GRAPH_PERMISSIONS)
+    Optional<Role> findWithPermissionsById(UUID id);
+
+    // Grants are written straight to the join table, like user_roles; both return the rows changed
+    @Modifying
+    @Query(value = "INSERT INTO role_permissions (role_id, permission_id) VALUES (:roleId, :permissionId) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addPermissionToRole(@Param("roleId") UUID roleId, @Param("permissionId") UUID permissionId);
+
+    @Modifying
+    @Query(value = "DELETE FROM role_permissions WHERE role_id = :roleId AND permission_id = :permissionId", nativeQuery = true)
+    int removePermissionFromRole(@Param("roleId") UUID roleId, @Param("permissionId") UUID permissionId);
+}
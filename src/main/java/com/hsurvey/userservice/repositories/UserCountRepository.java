@@ -0,0 +1,114 @@
+package com.hsurvey.userservice.repositories;
+
+import com.hsurvey.userservice.dto.RoleUserCountDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads and corrects the trigger-maintained counters from V5. Reads touch one row per
+ * organization or role, never the users table.
+ */
+@Repository
+public class UserCountRepository {
+
+    /**
+     * A counter that disagrees with the rows it counts. key is the organization id for
+     * organization counters and the role id for role counters.
+     */
+    public record Drift(UUID key, UUID organizationId, long counted, long actual) {
+        public long delta() {
+            return actual - counted;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserCountRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long countUsersByOrganizationId(UUID organizationId) {
+        List<Long> counts = jdbcTemplate.query(
+                "SELECT user_count FROM organization_user_counts WHERE organization_id = ?",
+                (rs, rowNum) -> rs.getLong(1), organizationId);
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+
+    // Every role of the organization, including roles nobody holds yet
+    public List<RoleUserCountDTO> countUsersByRole(UUID organizationId) {
+        return jdbcTemplate.query("""
+                        SELECT r.id, r.name, COALESCE(c.user_count, 0) AS user_count
+                        FROM roles r
+                        LEFT JOIN role_user_counts c ON c.role_id = r.id
+                        WHERE r.organization_id = ?
+                        ORDER BY r.name""",
+                (rs, rowNum) -> new RoleUserCountDTO(
+                        rs.getObject("id", UUID.class), rs.getString("name"), rs.getLong("user_count")),
+                organizationId);
+    }
+
+    // Held until the calling transaction ends; false if another replica is already reconciling
+    public boolean tryLockForReconcile() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('user_count_reconcile'))", Boolean.class));
+    }
+
+    // Full recount; run in a REPEATABLE READ transaction so rows and counters come from one snapshot
+    public List<Drift> findOrganizationDrift() {
+        return jdbcTemplate.query("""
+                        SELECT COALESCE(a.organization_id, c.organization_id) AS organization_id,
+                               COALESCE(c.user_count, 0) AS counted,
+                               COALESCE(a.actual, 0) AS actual
+                        FROM (SELECT organization_id, count(*) AS actual FROM users GROUP BY organization_id) a
+                        FULL JOIN organization_user_counts c ON c.organization_id = a.organization_id
+                        WHERE COALESCE(a.actual, 0) <> COALESCE(c.user_count, 0)""",
+                (rs, rowNum) -> {
+                    UUID organizationId = rs.getObject("organization_id", UUID.class);
+                    return new Drift(organizationId, organizationId, rs.getLong("counted"), rs.getLong("actual"));
+                });
+    }
+
+    // Same snapshot requirement as findOrganizationDrift; counters of deleted roles are left to deleteOrphanedRoleCounts
+    public List<Drift> findRoleDrift() {
+        return jdbcTemplate.query("""
+                        SELECT r.id AS role_id,
+                               r.organization_id,
+                               COALESCE(c.user_count, 0) AS counted,
+                               COALESCE(a.actual, 0) AS actual
+                        FROM roles r
+                        LEFT JOIN (SELECT role_id, count(*) AS actual FROM user_roles GROUP BY role_id) a
+                               ON a.role_id = r.id
+                        LEFT JOIN role_user_counts c ON c.role_id = r.id
+                        WHERE COALESCE(a.actual, 0) <> COALESCE(c.user_count, 0)""",
+                (rs, rowNum) -> new Drift(rs.getObject("role_id", UUID.class),
+                        rs.getObject("organization_id", UUID.class), rs.getLong("counted"), rs.getLong("actual")));
+    }
+
+    // Counters whose role no longer exists, whatever they hold; the roles trigger normally removes them
+    public List<Drift> deleteOrphanedRoleCounts() {
+        return jdbcTemplate.query("""
+                        DELETE FROM role_user_counts c
+                        WHERE NOT EXISTS (SELECT 1 FROM roles r WHERE r.id = c.role_id)
+                        RETURNING c.role_id, c.organization_id, c.user_count""",
+                (rs, rowNum) -> new Drift(rs.getObject("role_id", UUID.class),
+                        rs.getObject("organization_id", UUID.class), rs.getLong("user_count"), 0));
+    }
+
+    // Corrections are applied as deltas, so they commute with trigger updates committed since the recount
+    public void adjustOrganizationCount(UUID organizationId, long delta) {
+        jdbcTemplate.update("""
+                        INSERT INTO organization_user_counts AS c (organization_id, user_count) VALUES (?, ?)
+                        ON CONFLICT (organization_id) DO UPDATE SET user_count = c.user_count + EXCLUDED.user_count""",
+                organizationId, delta);
+    }
+
+    public void adjustRoleCount(UUID roleId, UUID organizationId, long delta) {
+        jdbcTemplate.update("""
+                        INSERT INTO role_user_counts AS c (role_id, organization_id, user_count) VALUES (?, ?, ?)
+                        ON CONFLICT (role_id) DO UPDATE SET user_count = c.user_count + EXCLUDED.user_count""",
+                roleId, organizationId, delta);
+    }
+}
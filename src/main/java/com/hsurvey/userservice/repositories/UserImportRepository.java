@@ -0,0 +1,88 @@
+package com.hsurvey.userservice.repositories;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based user creation for imports. A batch is COPYed into a temporary staging table, rows
+ * clashing with existing users are removed from it in one statement, and the rest is inserted
+ * with one INSERT ... SELECT. All three calls must run in the same transaction; the staging
+ * table is dropped when it commits.
+ */
+@Repository
+public class UserImportRepository {
+
+    public record StagedUser(long line, UUID id, String username, String email, String passwordHash) {
+    }
+
+    // Existing user a staged row clashed with; both flags may be set
+    public record Conflict(long line, boolean emailTaken, boolean usernameTaken) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserImportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void stage(List<StagedUser> users) {
+        jdbcTemplate.execute("""
+                CREATE TEMPORARY TABLE user_import_staging (
+                    line     bigint       NOT NULL,
+                    id       uuid         NOT NULL,
+                    username varchar(255) NOT NULL,
+                    email    varchar(255) NOT NULL,
+                    password varchar(255) NOT NULL
+                ) ON COMMIT DROP""");
+
+        StringBuilder csv = new StringBuilder(users.size() * 160);
+        for (StagedUser user : users) {
+            csv.append(user.line()).append(',').append(user.id()).append(',');
+            appendQuoted(csv, user.username()).append(',');
+            appendQuoted(csv, user.email()).append(',');
+            appendQuoted(csv, user.passwordHash()).append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY user_import_staging (line, id, username, email, password) FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Drops staged rows whose email or username is already taken and returns them
+    public List<Conflict> removeConflicting() {
+        return jdbcTemplate.query("""
+                        DELETE FROM user_import_staging s
+                        USING users u
+                        WHERE u.email = s.email OR u.username = s.username
+                        RETURNING s.line, u.email = s.email AS email_taken, u.username = s.username AS username_taken""",
+                (rs, rowNum) -> new Conflict(rs.getLong("line"), rs.getBoolean("email_taken"), rs.getBoolean("username_taken")));
+    }
+
+    // Rows that lost a race with a concurrent insert are skipped rather than failing the batch
+    public List<UUID> insertStaged(UUID organizationId) {
+        return jdbcTemplate.query("""
+                        INSERT INTO users (id, username, email, password, organization_id)
+                        SELECT id, username, email, password, ?
+                        FROM user_import_staging
+                        ON CONFLICT DO NOTHING
+                        RETURNING id""",
+                (rs, rowNum) -> rs.getObject(1, UUID.class), organizationId);
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
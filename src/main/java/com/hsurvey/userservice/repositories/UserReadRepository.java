@@ -0,0 +1,240 @@
+package com.hsurvey.userservice.repositories;
+
+import com.hsurvey.userservice.dto.UserDTO;
+import com.hsurvey.userservice.dto.UserField;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Plain JDBC reads of users that never materialize managed entities.
+ */
+@Repository
+public class UserReadRepository {
+
+    // Role names are collected per row so the scan can stream in index order without a GROUP BY
+    private static final String ROLE_NAMES_COLUMN = """
+            ARRAY(SELECT r.name FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                  WHERE ur.user_id = u.id) AS roles""";
+
+    static final String USER_WITH_ROLE_NAMES_COLUMNS =
+            "u.id, u.username, u.email, u.organization_id, " + ROLE_NAMES_COLUMN + " ";
+
+    private static final String SELECT_USERS = "SELECT " + USER_WITH_ROLE_NAMES_COLUMNS + " FROM users u ";
+
+    private static final RowMapper<UserDTO> USER_DTO_ROW_MAPPER = (rs, rowNum) -> {
+        UserDTO user = new UserDTO();
+        user.setId(rs.getObject("id", UUID.class));
+        user.setUsername(rs.getString("username"));
+        user.setEmail(rs.getString("email"));
+        user.setOrganizationId(rs.getObject("organization_id", UUID.class));
+        user.setRoles(roleNames(rs.getArray("roles")));
+        return user;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserReadRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams every user of the organization through a forward-only cursor. Postgres only
+     * honours the fetch size inside a transaction, so callers must hold one.
+     * Columns: id, username, email, organization_id, roles (text[]).
+     */
+    public void streamByOrganizationId(UUID organizationId, int fetchSize, RowCallbackHandler handler) {
+        String sql = "SELECT " + USER_WITH_ROLE_NAMES_COLUMNS +
+                " FROM users u WHERE u.organization_id = ? ORDER BY u.id";
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, organizationId);
+            return statement;
+        }, handler);
+    }
+
+    public List<UUID> findUserIdsByRoleId(UUID roleId) {
+        return jdbcTemplate.query("SELECT ur.user_id FROM user_roles ur WHERE ur.role_id = ?",
+                (rs, rowNum) -> rs.getObject(1, UUID.class), roleId);
+    }
+
+    // Streams every user id; same transaction requirement as streamByOrganizationId
+    public void streamAllIds(int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id FROM users", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    public Set<UUID> findExistingIds(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query("SELECT u.id FROM users u WHERE u.id = ANY(?)", statement ->
+                        statement.setArray(1, statement.getConnection().createArrayOf("uuid", ids.toArray())),
+                (rs, rowNum) -> rs.getObject(1, UUID.class)));
+    }
+
+    // Projections below return UserDTO fields and role names in a single statement,
+    // without hydrating roles or their permissions
+
+    public List<UserDTO> findAll() {
+        return jdbcTemplate.query(SELECT_USERS + "ORDER BY u.organization_id, u.id", USER_DTO_ROW_MAPPER);
+    }
+
+    public List<UserDTO> findByOrganizationId(UUID organizationId) {
+        return jdbcTemplate.query(SELECT_USERS + "WHERE u.organization_id = ? ORDER BY u.id",
+                USER_DTO_ROW_MAPPER, organizationId);
+    }
+
+    public Optional<UserDTO> findById(UUID id) {
+        return jdbcTemplate.query(SELECT_USERS + "WHERE u.id = ?", USER_DTO_ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    public Optional<UserDTO> findByIdAndOrganizationId(UUID id, UUID organizationId) {
+        return jdbcTemplate.query(SELECT_USERS + "WHERE u.id = ? AND u.organization_id = ?",
+                USER_DTO_ROW_MAPPER, id, organizationId).stream().findFirst();
+    }
+
+    public List<UserDTO> findAllById(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_USERS + "WHERE u.id = ANY(?)", statement -> {
+            Array idArray = statement.getConnection().createArrayOf("uuid", ids.toArray());
+            statement.setArray(1, idArray);
+        }, USER_DTO_ROW_MAPPER);
+    }
+
+    /**
+     * Case-insensitive substring match on username or email within one organization, served by the
+     * trigram indexes from V4. Prefix matches on username sort first.
+     */
+    public List<UserDTO> searchByOrganizationId(UUID organizationId, String term, int limit) {
+        String lowered = term.toLowerCase(Locale.ROOT);
+        String escaped = lowered.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return jdbcTemplate.query(SELECT_USERS +
+                        "WHERE u.organization_id = ? " +
+                        "AND (lower(u.username) LIKE ? OR lower(u.email) LIKE ?) " +
+                        "ORDER BY lower(u.username) LIKE ? DESC, u.username, u.id LIMIT ?",
+                USER_DTO_ROW_MAPPER, organizationId, "%" + escaped + "%", "%" + escaped + "%", escaped + "%", limit);
+    }
+
+    // Keyset pages ordered by (organization_id, id), served by idx_users_organization_id_id
+    public List<UserDTO> findPageByOrganizationId(UUID organizationId, UUID afterId, int limit) {
+        return jdbcTemplate.query(SELECT_USERS + "WHERE u.organization_id = ? AND u.id > ? ORDER BY u.id LIMIT ?",
+                USER_DTO_ROW_MAPPER, organizationId, afterId, limit);
+    }
+
+    public List<UserDTO> findPage(UUID afterOrganizationId, UUID afterId, int limit) {
+        return jdbcTemplate.query(SELECT_USERS +
+                        "WHERE (u.organization_id, u.id) > (?, ?) ORDER BY u.organization_id, u.id LIMIT ?",
+                USER_DTO_ROW_MAPPER, afterOrganizationId, afterId, limit);
+    }
+
+    // Sparse fieldsets: only the selected columns are read, and rows are keyed by UserDTO JSON name
+
+    public List<Map<String, Object>> findFieldsByOrganizationId(UUID organizationId, Set<UserField> fields) {
+        return jdbcTemplate.query("SELECT " + fieldColumns(fields) +
+                        " FROM users u WHERE u.organization_id = ? ORDER BY u.id",
+                fieldRowMapper(fields), organizationId);
+    }
+
+    public List<Map<String, Object>> findAllFields(Set<UserField> fields) {
+        return jdbcTemplate.query("SELECT " + fieldColumns(fields) +
+                " FROM users u ORDER BY u.organization_id, u.id", fieldRowMapper(fields));
+    }
+
+    /**
+     * Looks up one chunk of ids and returns only the selected fields, keyed by their JSON name.
+     * The ids travel as a single uuid[] parameter, so every chunk size shares one statement plan.
+     * A null organizationId means no organization filter.
+     */
+    public List<Map<String, Object>> findFieldsByIds(List<UUID> ids, UUID organizationId, Set<UserField> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Set<UserField> selected = withId(fields);
+        String sql = "SELECT " + fieldColumns(selected) + " FROM users u WHERE u.id = ANY(?)" +
+                (organizationId != null ? " AND u.organization_id = ?" : "");
+
+        return jdbcTemplate.query(sql, statement -> {
+            statement.setArray(1, statement.getConnection().createArrayOf("uuid", ids.toArray()));
+            if (organizationId != null) {
+                statement.setObject(2, organizationId);
+            }
+        }, fieldRowMapper(selected));
+    }
+
+    // Bulk lookups match rows back to the requested ids, so id is always read there
+    private static Set<UserField> withId(Set<UserField> fields) {
+        Set<UserField> selected = EnumSet.copyOf(fields);
+        selected.add(UserField.ID);
+        return selected;
+    }
+
+    private static String fieldColumns(Set<UserField> selected) {
+        List<String> columns = new ArrayList<>();
+        for (UserField field : selected) {
+            columns.add(switch (field) {
+                case ID -> "u.id";
+                case USERNAME -> "u.username";
+                case EMAIL -> "u.email";
+                case ORGANIZATION_ID -> "u.organization_id";
+                case ROLES -> ROLE_NAMES_COLUMN;
+            });
+        }
+        return String.join(", ", columns);
+    }
+
+    private static RowMapper<Map<String, Object>> fieldRowMapper(Set<UserField> selected) {
+        return (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (UserField field : selected) {
+                row.put(field.getJsonName(), switch (field) {
+                    case ID -> rs.getObject("id", UUID.class);
+                    case USERNAME -> rs.getString("username");
+                    case EMAIL -> rs.getString("email");
+                    case ORGANIZATION_ID -> rs.getObject("organization_id", UUID.class);
+                    case ROLES -> roleNames(rs.getArray("roles"));
+                });
+            }
+            return row;
+        };
+    }
+
+    private static Set<String> roleNames(Array roles) throws SQLException {
+        if (roles == null) {
+            return new HashSet<>();
+        }
+        try {
+            return new HashSet<>(Arrays.asList((String[]) roles.getArray()));
+        } finally {
+            roles.free();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.hsurvey.userservice.repositories;
 
 import com.hsurvey.userservice.entities.Role;
 import com.hsurvey.userservice.entities.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,7 +14,16 @@ import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
 
+    // Authentication needs the full authority tree: roles and their permissions in one query
+    @EntityGraph(User.GRAPH_ROLES_AND_PERMISSIONS)
     Optional<User> findByEmail(String email);
+
+    @EntityGraph(User.GRAPH_ROLES)
+    Optional<User> findWithRolesById(UUID id);
+
+    @EntityGraph(User.GRAPH_ROLES)
+    Optional<User> findWithRolesByIdAndOrganizationId(UUID id, UUID organizationId);
+
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByUsernameAndOrganizationId(String username, UUID organizationId);
@@ -21,6 +31,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> findByOrganizationId(UUID organizationId);
     Optional<User> findByIdAndOrganizationId(UUID id, UUID organizationId);
     boolean existsByOrganizationIdAndRolesContaining(UUID organizationId, Role role);
+
     @Modifying
     @Query(value = "INSERT INTO user_roles (user_id, role_id) VALUES (:userId, :roleId) ON CONFLICT DO NOTHING", nativeQuery = true)
     void addRoleToUser(@Param("userId") UUID userId, @Param("roleId") UUID roleId);
@@ -0,0 +1,94 @@
+package com.hsurvey.userservice.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk edits of user_roles. Each is one statement that joins users and roles so only pairs of
+ * the given organization are written: ids of other organizations or of missing rows are
+ * silently skipped. Each returns the ids on the "many" side whose assignment actually changed.
+ */
+@Repository
+public class UserRoleRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserRoleRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Returns the users that did not hold the role before
+    public List<UUID> assignRoleToUsers(UUID roleId, Collection<UUID> userIds, UUID organizationId) {
+        return jdbcTemplate.query("""
+                        INSERT INTO user_roles (user_id, role_id)
+                        SELECT u.id, r.id
+                        FROM roles r
+                        JOIN users u ON u.organization_id = r.organization_id
+                        WHERE r.id = ? AND r.organization_id = ? AND u.id = ANY(?)
+                        ON CONFLICT DO NOTHING
+                        RETURNING user_id""",
+                statement -> {
+                    statement.setObject(1, roleId);
+                    statement.setObject(2, organizationId);
+                    setUuids(statement, 3, userIds);
+                },
+                (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    // Returns the users that held the role
+    public List<UUID> revokeRoleFromUsers(UUID roleId, Collection<UUID> userIds, UUID organizationId) {
+        return jdbcTemplate.query("""
+                        DELETE FROM user_roles ur
+                        USING roles r
+                        WHERE ur.role_id = r.id AND r.id = ? AND r.organization_id = ? AND ur.user_id = ANY(?)
+                        RETURNING ur.user_id""",
+                statement -> {
+                    statement.setObject(1, roleId);
+                    statement.setObject(2, organizationId);
+                    setUuids(statement, 3, userIds);
+                },
+                (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    // Returns the roles the user did not hold before
+    public List<UUID> assignRolesToUser(UUID userId, Collection<UUID> roleIds, UUID organizationId) {
+        return jdbcTemplate.query("""
+                        INSERT INTO user_roles (user_id, role_id)
+                        SELECT u.id, r.id
+                        FROM users u
+                        JOIN roles r ON r.organization_id = u.organization_id
+                        WHERE u.id = ? AND u.organization_id = ? AND r.id = ANY(?)
+                        ON CONFLICT DO NOTHING
+                        RETURNING role_id""",
+                statement -> {
+                    statement.setObject(1, userId);
+                    statement.setObject(2, organizationId);
+                    setUuids(statement, 3, roleIds);
+                },
+                (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    // Returns the roles the user held
+    public List<UUID> revokeRolesFromUser(UUID userId, Collection<UUID> roleIds, UUID organizationId) {
+        return jdbcTemplate.query("""
+                        DELETE FROM user_roles ur
+                        USING users u
+                        WHERE ur.user_id = u.id AND u.id = ? AND u.organization_id = ? AND ur.role_id = ANY(?)
+                        RETURNING ur.role_id""",
+                statement -> {
+                    statement.setObject(1, userId);
+                    statement.setObject(2, organizationId);
+                    setUuids(statement, 3, roleIds);
+                },
+                (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    private static void setUuids(PreparedStatement statement, int index, Collection<UUID> ids) throws SQLException {
+        statement.setArray(index, statement.getConnection().createArrayOf("uuid", ids.toArray()));
+    }
+}
@@ -0,0 +1,153 @@
+package com.hsurvey.userservice.service;
+
+import com.hsurvey.userservice.dto.OffboardingJobDTO;
+import com.hsurvey.userservice.repositories.OrganizationOffboardingRepository;
+import com.hsurvey.userservice.repositories.OrganizationOffboardingRepository.Job;
+import com.hsurvey.userservice.repositories.OrganizationOffboardingRepository.Phase;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Removes everything an organization owns in this service, one bounded batch per transaction.
+ * Each batch locks the job row, deletes, and records the new phase and count before committing,
+ * so the job row always says exactly what is left: a crash or restart resumes from it, and a
+ * second worker (another replica resuming the same job) skips batches it cannot lock.
+ */
+@Service
+@Slf4j
+public class OrganizationOffboardingService {
+    private final OrganizationOffboardingRepository offboardingRepository;
+    private final UserInvalidationBus userInvalidationBus;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration batchPause;
+    // Jobs with a worker in this process; workers on other replicas are kept apart by the row lock
+    private final Set<UUID> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public OrganizationOffboardingService(OrganizationOffboardingRepository offboardingRepository,
+                                          UserInvalidationBus userInvalidationBus,
+                                          AsyncTaskExecutor applicationTaskExecutor,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${user.offboarding.batch-size:5000}") int batchSize,
+                                          @Value("${user.offboarding.batch-pause:100ms}") Duration batchPause) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("user.offboarding.batch-size must be at least 1");
+        }
+        this.offboardingRepository = offboardingRepository;
+        this.userInvalidationBus = userInvalidationBus;
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+    }
+
+    // Starts a new job, resumes a running one where it stopped, or runs a failed one again from the top
+    public OffboardingJobDTO start(UUID organizationId) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID is required");
+        }
+        Job job = transactionTemplate.execute(status -> offboardingRepository.startJob(organizationId));
+        submit(organizationId);
+        return toDto(job);
+    }
+
+    public OffboardingJobDTO getJob(UUID organizationId) {
+        return offboardingRepository.findJob(organizationId)
+                .map(OrganizationOffboardingService::toDto)
+                .orElseThrow(() -> new EntityNotFoundException("No offboarding job for organization: " + organizationId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningJobs() {
+        List<UUID> running = offboardingRepository.findRunningJobs();
+        if (!running.isEmpty()) {
+            log.info("Resuming {} organization offboarding job(s)", running.size());
+            running.forEach(this::submit);
+        }
+    }
+
+    private void submit(UUID organizationId) {
+        if (activeJobs.add(organizationId)) {
+            applicationTaskExecutor.execute(() -> {
+                try {
+                    run(organizationId);
+                } finally {
+                    activeJobs.remove(organizationId);
+                }
+            });
+        }
+    }
+
+    private void run(UUID organizationId) {
+        try {
+            while (Boolean.TRUE.equals(transactionTemplate.execute(status -> runBatch(organizationId)))) {
+                if (!batchPause.isZero()) {
+                    Thread.sleep(batchPause.toMillis());
+                }
+            }
+        } catch (InterruptedException e) {
+            // The job stays RUNNING and is picked up again on the next start
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Offboarding of organization {} failed", organizationId, e);
+            transactionTemplate.executeWithoutResult(status ->
+                    offboardingRepository.markFailed(organizationId, String.valueOf(e.getMessage())));
+        }
+    }
+
+    // Returns whether there is more to do
+    private boolean runBatch(UUID organizationId) {
+        Optional<Phase> locked = offboardingRepository.lockRunningJob(organizationId);
+        if (locked.isEmpty()) {
+            return false;
+        }
+        Phase phase = locked.get();
+        long deleted;
+        boolean phaseDone;
+        switch (phase) {
+            case USERS -> {
+                List<UUID> userIds = offboardingRepository.deleteUsers(organizationId, batchSize);
+                userInvalidationBus.usersDeleted(userIds, organizationId);
+                deleted = userIds.size();
+                phaseDone = deleted < batchSize;
+            }
+            case COUNTERS -> {
+                deleted = offboardingRepository.deleteCounters(organizationId);
+                phaseDone = true;
+            }
+            case DONE -> {
+                return false;
+            }
+            default -> {
+                deleted = offboardingRepository.deleteBatch(phase, organizationId, batchSize);
+                phaseDone = deleted < batchSize;
+            }
+        }
+        Phase next = phaseDone ? phase.next() : phase;
+        offboardingRepository.recordProgress(organizationId, next, deleted);
+        if (next == Phase.DONE) {
+            log.info("Offboarding of organization {} completed", organizationId);
+        }
+        return next != Phase.DONE;
+    }
+
+    private static OffboardingJobDTO toDto(Job job) {
+        return new OffboardingJobDTO(job.organizationId(), job.status().name(), job.phase().name(), job.deletedRows(),
+                job.startedAt(), job.updatedAt(), job.finishedAt(), job.error());
+    }
+}
@@ -0,0 +1,170 @@
+package com.hsurvey.userservice.service;
+
+import com.hsurvey.userservice.dto.AdminRegisterRequest;
+import com.hsurvey.userservice.dto.OrganizationOnboardingRequest.Organization;
+import com.hsurvey.userservice.dto.OrganizationOnboardingResultDTO;
+import com.hsurvey.userservice.entities.Role;
+import com.hsurvey.userservice.entities.User;
+import com.hsurvey.userservice.repositories.UserRepository;
+import com.hsurvey.userservice.service.clients.OrganizationClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Onboards many organizations at once, as POST /api/auth/register/{organizationId} does for one:
+ * default roles and permissions plus an organization manager account. A fixed number of workers
+ * take organizations off a shared list, so the request never holds more than that many pooled
+ * connections or outstanding organization-service calls. Each organization commits on its own
+ * under its provisioning advisory lock; one failing does not affect the others.
+ */
+@Service
+@Slf4j
+public class OrganizationOnboardingService {
+    public static final String ONBOARDED = "ONBOARDED";
+    public static final String ALREADY_ONBOARDED = "ALREADY_ONBOARDED";
+    public static final String FAILED = "FAILED";
+
+    private final OrganizationClient organizationClient;
+    private final OrganizationRoleService organizationRoleService;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserInvalidationBus userInvalidationBus;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+
+    public OrganizationOnboardingService(OrganizationClient organizationClient,
+                                         OrganizationRoleService organizationRoleService,
+                                         UserRepository userRepository,
+                                         PasswordEncoder passwordEncoder,
+                                         UserInvalidationBus userInvalidationBus,
+                                         AsyncTaskExecutor applicationTaskExecutor,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${user.onboarding.parallelism:8}") int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("user.onboarding.parallelism must be at least 1");
+        }
+        this.organizationClient = organizationClient;
+        this.organizationRoleService = organizationRoleService;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userInvalidationBus = userInvalidationBus;
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism;
+    }
+
+    // One result per requested organization, in request order
+    public List<OrganizationOnboardingResultDTO> onboard(List<Organization> organizations) {
+        OrganizationOnboardingResultDTO[] results = new OrganizationOnboardingResultDTO[organizations.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<UUID> organizationIds = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+
+        for (int i = 0; i < organizations.size(); i++) {
+            Organization organization = organizations.get(i);
+            AdminRegisterRequest manager = organization.getManager();
+            if (!organizationIds.add(organization.getOrganizationId())) {
+                results[i] = failed(organization, "Organization appears more than once in this request");
+            } else if (!emails.add(manager.getEmail())) {
+                results[i] = failed(organization, "Email appears more than once in this request");
+            } else if (!usernames.add(manager.getUsername())) {
+                results[i] = failed(organization, "Username appears more than once in this request");
+            } else {
+                pending.add(i);
+            }
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int n = next.getAndIncrement(); n < pending.size(); n = next.getAndIncrement()) {
+                int index = pending.get(n);
+                results[index] = onboardOne(organizations.get(index));
+            }
+        };
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(parallelism, pending.size())];
+        for (int w = 0; w < workers.length; w++) {
+            workers[w] = CompletableFuture.runAsync(worker, applicationTaskExecutor);
+        }
+        CompletableFuture.allOf(workers).join();
+
+        return Arrays.asList(results);
+    }
+
+    private OrganizationOnboardingResultDTO onboardOne(Organization organization) {
+        UUID organizationId = organization.getOrganizationId();
+        try {
+            if (!organizationExists(organizationId)) {
+                return failed(organization, "Organization not found");
+            }
+            // Hashing is the slow part; keep it out of the transaction and the lock
+            String passwordHash = passwordEncoder.encode(organization.getManager().getPassword());
+            return transactionTemplate.execute(status -> provision(organization, passwordHash, status));
+        } catch (DataIntegrityViolationException e) {
+            return failed(organization, "Email or username already exists");
+        } catch (RuntimeException e) {
+            log.warn("Onboarding of organization {} failed", organizationId, e);
+            return failed(organization, e.getMessage());
+        }
+    }
+
+    private OrganizationOnboardingResultDTO provision(Organization organization, String passwordHash,
+                                                      TransactionStatus status) {
+        UUID organizationId = organization.getOrganizationId();
+        AdminRegisterRequest manager = organization.getManager();
+
+        // Takes the organization's provisioning lock; everything below runs serialized per organization
+        organizationRoleService.createDefaultRolesForOrganization(organizationId);
+        Role managerRole = organizationRoleService.getDefaultOrganizationManagerRole(organizationId);
+
+        if (userRepository.existsByOrganizationIdAndRolesContaining(organizationId, managerRole)) {
+            return new OrganizationOnboardingResultDTO(organizationId, ALREADY_ONBOARDED, null, null);
+        }
+        if (userRepository.existsByEmail(manager.getEmail())) {
+            status.setRollbackOnly();
+            return failed(organization, "Email already exists");
+        }
+        if (userRepository.existsByUsername(manager.getUsername())) {
+            status.setRollbackOnly();
+            return failed(organization, "Username already exists");
+        }
+
+        User savedUser = userRepository.save(User.builder()
+                .username(manager.getUsername())
+                .email(manager.getEmail())
+                .password(passwordHash)
+                .organizationId(organizationId)
+                .roles(Set.of(managerRole))
+                .build());
+        userInvalidationBus.userCreated(savedUser.getId(), organizationId);
+
+        return new OrganizationOnboardingResultDTO(organizationId, ONBOARDED, savedUser.getId(), null);
+    }
+
+    private boolean organizationExists(UUID organizationId) {
+        ResponseEntity<Boolean> response = organizationClient.organizationExists(organizationId);
+        return response != null && response.getStatusCode().is2xxSuccessful() && Boolean.TRUE.equals(response.getBody());
+    }
+
+    private static OrganizationOnboardingResultDTO failed(Organization organization, String error) {
+        return new OrganizationOnboardingResultDTO(organization.getOrganizationId(), FAILED, null, error);
+    }
+}
@@ -0,0 +1,91 @@
+package com.hsurvey.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository.Scope;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON of an organization's full role or permission list, keyed by the organization
+ * version it was read at. A mutation bumps the version, so the next read misses and rebuilds;
+ * the previous entry is never read again. Role and permission messages on UserInvalidationBus
+ * evict an organization's superseded entries on every replica instead of leaving them to age out.
+ */
+@Service
+public class OrganizationPayloadCache {
+
+    public record Key(UUID organizationId, Scope scope, long version) {
+    }
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final Cache<Key, byte[]> cache;
+    private final ObjectMapper objectMapper;
+
+    public OrganizationPayloadCache(ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${user.payload-cache.max-weight-bytes:67108864}") long maxWeightBytes,
+                                    @Value("${user.payload-cache.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, byte[] payload) -> payload.length)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "organizationPayload");
+    }
+
+    /**
+     * The loader must read data at least as new as version, i.e. run after the version was read.
+     * Concurrent misses on one key share a single load. The returned array must not be modified.
+     */
+    public byte[] get(UUID organizationId, Scope scope, long version, Supplier<?> loader) {
+        return cache.get(new Key(organizationId, scope, version), key -> {
+            try {
+                return objectMapper.writeValueAsBytes(loader.get());
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // A null organization evicts the scope in every organization
+    public void invalidate(UUID organizationId, Scope scope) {
+        cache.asMap().keySet().removeIf(key -> key.scope() == scope
+                && (organizationId == null || organizationId.equals(key.organizationId())));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // Cached payloads are JSON; clients that negotiate another format take the regular path
+    public static boolean acceptsJson(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return true;
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(acceptHeader);
+            // A caller naming a binary format wants it even if it also lists a wildcard
+            boolean namesBinary = accepted.stream().anyMatch(mediaType -> !mediaType.isWildcardSubtype()
+                    && (mediaType.isCompatibleWith(SMILE) || mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)));
+            return !namesBinary && accepted.stream().anyMatch(mediaType -> mediaType.isCompatibleWith(MediaType.APPLICATION_JSON));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -1,226 +1,34 @@
 package com.hsurvey.userservice.service;
 
-import com.hsurvey.userservice.entities.Permission;
 import com.hsurvey.userservice.entities.Role;
-import com.hsurvey.userservice.repositories.PermissionRepository;
+import com.hsurvey.userservice.repositories.DefaultRoleTemplateRepository;
 import com.hsurvey.userservice.repositories.RoleRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.*;
+import java.util.UUID;
 
 @Service
 public class OrganizationRoleService {
 
     private final RoleRepository roleRepository;
-    private final PermissionRepository permissionRepository;
+    private final DefaultRoleTemplateRepository defaultRoleTemplateRepository;
 
-    public OrganizationRoleService(RoleRepository roleRepository, PermissionRepository permissionRepository) {
+    public OrganizationRoleService(RoleRepository roleRepository, DefaultRoleTemplateRepository defaultRoleTemplateRepository) {
         this.roleRepository = roleRepository;
-        this.permissionRepository = permissionRepository;
+        this.defaultRoleTemplateRepository = defaultRoleTemplateRepository;
     }
 
+    /**
+     * Creates the default permissions and roles (see V8) the organization does not have yet, with
+     * two set-based statements. Safe to call again; existing roles and permissions are untouched.
+     * Holds the organization's provisioning lock until the caller's transaction ends.
+     */
     @Transactional
     public void createDefaultRolesForOrganization(UUID organizationId) {
-
-        Set<Permission> allPermissions = createDefaultPermissions(organizationId);
-
-        // Create USER role - empty, no permissions
-        Role userRole = Role.builder()
-                .name("USER")
-                .organizationId(organizationId)
-                .description("Default user role with no permissions")
-                .permissions(new HashSet<>())
-                .build();
-
-        // Create ORGANIZATION MANAGER role - has all permissions except DEPARTMENT_MANAGER and TEAM_MANAGER
-        Set<Permission> organizationManagerPermissions = new HashSet<>(allPermissions);
-        organizationManagerPermissions.removeIf(permission -> 
-            permission.getName().equals("DEPARTMENT_MANAGER") || 
-            permission.getName().equals("TEAM_MANAGER"));
-
-        Role organizationManagerRole = Role.builder()
-                .name("ORGANIZATION MANAGER")
-                .organizationId(organizationId)
-                .description("Organization manager role with all permissions except department and team management")
-                .permissions(organizationManagerPermissions)
-                .build();
-
-        // Create DEPARTMENT MANAGER role - specific permissions
-        Set<Permission> departmentManagerPermissions = getDepartmentManagerPermissions(allPermissions);
-
-        Role departmentManagerRole = Role.builder()
-                .name("DEPARTMENT MANAGER")
-                .organizationId(organizationId)
-                .description("Department manager role with survey, option, question, team, and department permissions")
-                .permissions(departmentManagerPermissions)
-                .build();
-
-        // Create TEAM MANAGER role - specific permissions
-        Set<Permission> teamManagerPermissions = getTeamManagerPermissions(allPermissions);
-
-        Role teamManagerRole = Role.builder()
-                .name("TEAM MANAGER")
-                .organizationId(organizationId)
-                .description("Team manager role with survey, option, question, and team permissions")
-                .permissions(teamManagerPermissions)
-                .build();
-
-        // Save roles if they don't exist
-        if (!roleRepository.existsByNameAndOrganizationId("USER", organizationId)) {
-            roleRepository.save(userRole);
-        }
-        if (!roleRepository.existsByNameAndOrganizationId("ORGANIZATION MANAGER", organizationId)) {
-            roleRepository.save(organizationManagerRole);
-        }
-        if (!roleRepository.existsByNameAndOrganizationId("DEPARTMENT MANAGER", organizationId)) {
-            roleRepository.save(departmentManagerRole);
-        }
-        if (!roleRepository.existsByNameAndOrganizationId("TEAM MANAGER", organizationId)) {
-            roleRepository.save(teamManagerRole);
-        }
-    }
-
-    private Set<Permission> getDepartmentManagerPermissions(Set<Permission> allPermissions) {
-        Set<Permission> departmentManagerPermissions = new HashSet<>();
-        
-        // Filter permissions for DEPARTMENT_MANAGER role
-        for (Permission permission : allPermissions) {
-            String permissionName = permission.getName();
-            if (permissionName.equals("DEPARTMENT_MANAGER") ||
-                permissionName.equals("SURVEY_READ") ||
-                permissionName.equals("SURVEY_CREATE") ||
-                permissionName.equals("SURVEY_UPDATE") ||
-                permissionName.equals("SURVEY_DELETE") ||
-                permissionName.equals("SURVEY_LOCK") ||
-                permissionName.equals("SURVEY_UNLOCK") ||
-                permissionName.equals("OPTION_CREATE") ||
-                permissionName.equals("OPTION_READ") ||
-                permissionName.equals("OPTION_UPDATE") ||
-                permissionName.equals("OPTION_DELETE") ||
-                permissionName.equals("OPTION_LOCK") ||
-                permissionName.equals("OPTION_UNLOCK") ||
-                permissionName.equals("QUESTION_CREATE") ||
-                permissionName.equals("QUESTION_READ") ||
-                permissionName.equals("QUESTION_UPDATE") ||
-                permissionName.equals("QUESTION_DELETE") ||
-                permissionName.equals("QUESTION_LOCK") ||
-                permissionName.equals("QUESTION_UNLOCK") ||
-                permissionName.equals("TEAM_CREATE") ||
-                permissionName.equals("TEAM_READ") ||
-                permissionName.equals("TEAM_UPDATE") ||
-                permissionName.equals("TEAM_DELETE") ||
-                permissionName.equals("DEPARTMENT_READ") ||
-                permissionName.equals("DEPARTMENT_UPDATE")) {
-                departmentManagerPermissions.add(permission);
-            }
-        }
-        
-        return departmentManagerPermissions;
-    }
-
-    private Set<Permission> getTeamManagerPermissions(Set<Permission> allPermissions) {
-        Set<Permission> teamManagerPermissions = new HashSet<>();
-        
-        // Filter permissions for TEAM_MANAGER role
-        for (Permission permission : allPermissions) {
-            String permissionName = permission.getName();
-            if (permissionName.equals("TEAM_MANAGER") ||
-                permissionName.equals("SURVEY_READ") ||
-                permissionName.equals("SURVEY_CREATE") ||
-                permissionName.equals("SURVEY_UPDATE") ||
-                permissionName.equals("SURVEY_DELETE") ||
-                permissionName.equals("SURVEY_LOCK") ||
-                permissionName.equals("SURVEY_UNLOCK") ||
-                permissionName.equals("OPTION_CREATE") ||
-                permissionName.equals("OPTION_READ") ||
-                permissionName.equals("OPTION_UPDATE") ||
-                permissionName.equals("OPTION_DELETE") ||
-                permissionName.equals("OPTION_LOCK") ||
-                permissionName.equals("OPTION_UNLOCK") ||
-                permissionName.equals("QUESTION_CREATE") ||
-                permissionName.equals("QUESTION_READ") ||
-                permissionName.equals("QUESTION_UPDATE") ||
-                permissionName.equals("QUESTION_DELETE") ||
-                permissionName.equals("QUESTION_LOCK") ||
-                permissionName.equals("QUESTION_UNLOCK") ||
-                permissionName.equals("TEAM_READ") ||
-                permissionName.equals("TEAM_UPDATE")) {
-                teamManagerPermissions.add(permission);
-            }
-        }
-        
-        return teamManagerPermissions;
-    }
-
-    private Set<Permission> createDefaultPermissions(UUID organizationId) {
-        List<String> defaultPermissionNames = Arrays.asList(
-                "ORG_MANAGER",
-                "DEPARTMENT_MANAGER",
-                "TEAM_MANAGER",
-                "PERMISSION_CREATE",
-                "PERMISSION_READ",
-                "PERMISSION_UPDATE",
-                "PERMISSION_DELETE",
-                "ROLE_CREATE",
-                "ROLE_READ",
-                "ROLE_UPDATE",
-                "ROLE_DELETE",
-                "USER_CREATE",
-                "USER_READ",
-                "USER_UPDATE",
-                "USER_DELETE",
-                "SURVEY_READ",
-                "SURVEY_CREATE",
-                "SURVEY_UPDATE",
-                "SURVEY_DELETE",
-                "SURVEY_LOCK",
-                "SURVEY_UNLOCK",
-                "OPTION_CREATE",
-                "OPTION_READ",
-                "OPTION_UPDATE",
-                "OPTION_DELETE",
-                "OPTION_LOCK",
-                "OPTION_UNLOCK",
-                "QUESTION_CREATE",
-                "QUESTION_READ",
-                "QUESTION_UPDATE",
-                "QUESTION_DELETE",
-                "QUESTION_LOCK",
-                "QUESTION_UNLOCK",
-                "ORGANIZATION_READ",
-                "ORGANIZATION_UPDATE",
-                "ORGANIZATION_DELETE",
-                "DEPARTMENT_CREATE",
-                "DEPARTMENT_READ",
-                "DEPARTMENT_UPDATE",
-                "DEPARTMENT_DELETE",
-                "TEAM_CREATE",
-                "TEAM_READ",
-                "TEAM_UPDATE",
-                "TEAM_DELETE"
-        );
-
-        Set<Permission> permissions = new HashSet<>();
-
-        for (String permissionName : defaultPermissionNames) {
-            Optional<Permission> existingPermission = permissionRepository.findByNameAndOrganizationId(permissionName, organizationId);
-
-            if (existingPermission.isPresent()) {
-                permissions.add(existingPermission.get());
-            } else {
-                Permission permission = Permission.builder()
-                        .name(permissionName)
-                        .organizationId(organizationId)
-                        .description("Default " + permissionName.toLowerCase().replace("_", " ") + " permission")
-                        .build();
-
-                Permission savedPermission = permissionRepository.save(permission);
-                permissions.add(savedPermission);
-            }
-        }
-
-        return permissions;
+        defaultRoleTemplateRepository.lockOrganization(organizationId);
+        defaultRoleTemplateRepository.provisionPermissions(organizationId);
+        defaultRoleTemplateRepository.provisionRoles(organizationId);
     }
 
     public Role getDefaultUserRole(UUID organizationId) {
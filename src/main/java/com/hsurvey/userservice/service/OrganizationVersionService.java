@@ -0,0 +1,35 @@
+package com.hsurvey.userservice.service;
+
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository;
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository.Scope;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Weak ETags for organization-scoped list endpoints. Controllers must compute the tag before
+ * loading the data: a write committing in between then only causes one extra refetch, whereas
+ * the opposite order could pin stale data to a new tag.
+ */
+@Service
+public class OrganizationVersionService {
+    private final OrganizationVersionRepository organizationVersionRepository;
+
+    public OrganizationVersionService(OrganizationVersionRepository organizationVersionRepository) {
+        this.organizationVersionRepository = organizationVersionRepository;
+    }
+
+    public long currentVersion(UUID organizationId, Scope scope) {
+        return organizationVersionRepository.findVersion(organizationId, scope);
+    }
+
+    public String etag(UUID organizationId, Scope scope) {
+        return etag(organizationId, scope, currentVersion(organizationId, scope));
+    }
+
+    // The organization is part of the tag because the same URL serves every organization
+    public String etag(UUID organizationId, Scope scope, long version) {
+        return "W/\"" + scope.name().toLowerCase(Locale.ROOT) + "-" + organizationId + "-" + version + "\"";
+    }
+}
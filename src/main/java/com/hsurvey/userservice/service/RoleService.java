@@ -1,7 +1,11 @@
 package com.hsurvey.userservice.service;
 
 import com.hsurvey.userservice.dto.RoleDTO;
+import com.hsurvey.userservice.dto.RolePermissionChangeDTO;
+import com.hsurvey.userservice.dto.RolePermissionPatchDTO;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 public interface RoleService {
@@ -15,6 +19,12 @@ public interface RoleService {
     RoleDTO getRoleById(UUID roleId);
     RoleDTO getRoleByIdAndOrganization(UUID roleId, UUID organizationId);
 
+    // Sparse fieldsets: only the named RoleDTO fields, all of them if none are named
+    List<Map<String, Object>> getAllRoles(Set<String> fields);
+    List<Map<String, Object>> getAllRolesByOrganization(UUID organizationId, Set<String> fields);
+    Map<String, Object> getRoleById(UUID roleId, Set<String> fields);
+    Map<String, Object> getRoleByIdAndOrganization(UUID roleId, UUID organizationId, Set<String> fields);
+
     // Update methods
     RoleDTO updateRole(UUID roleId, RoleDTO roleDTO);
     RoleDTO updateRoleInOrganization(UUID roleId, RoleDTO roleDTO, UUID organizationId);
@@ -28,4 +38,10 @@ public interface RoleService {
     void addPermissionToRoleInOrganization(UUID roleId, UUID permissionId, UUID organizationId);
     void removePermissionFromRole(UUID roleId, UUID permissionId);
     void removePermissionFromRoleInOrganization(UUID roleId, UUID permissionId, UUID organizationId);
+
+    // Multi-id permission edits, reporting only the grants that changed
+    RolePermissionChangeDTO updateRolePermissions(UUID roleId, RolePermissionPatchDTO patch);
+    RolePermissionChangeDTO updateRolePermissionsInOrganization(UUID roleId, RolePermissionPatchDTO patch, UUID organizationId);
+    RolePermissionChangeDTO replaceRolePermissions(UUID roleId, List<UUID> permissionIds);
+    RolePermissionChangeDTO replaceRolePermissionsInOrganization(UUID roleId, List<UUID> permissionIds, UUID organizationId);
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.hsurvey.userservice.service;
+
+import com.hsurvey.userservice.repositories.UserCountRepository;
+import com.hsurvey.userservice.repositories.UserCountRepository.Drift;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recounts users per organization and per role from scratch and repairs counters that drifted
+ * (rows written with the triggers disabled, manual fixes, restored backups); counters left behind
+ * by roles that no longer exist are dropped rather than zeroed. Counters and rows
+ * are read from one REPEATABLE READ snapshot, in which the triggers guarantee they agree, so
+ * any difference is real drift and not a write racing the recount. A counter updated by another
+ * transaction since the snapshot makes the repair fail rather than overwrite it; the next run retries.
+ */
+@Service
+@Slf4j
+public class UserCountReconciler {
+    private final UserCountRepository userCountRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final Counter driftCounter;
+
+    public UserCountReconciler(UserCountRepository userCountRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.userCountRepository = userCountRepository;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.driftCounter = Counter.builder("userservice.counters.drift")
+                .description("Organization and role user counters found out of step by the reconcile job")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${user.counters.reconcile-cron:0 17 3 * * *}")
+    public void reconcileOnSchedule() {
+        try {
+            reconcile();
+        } catch (ConcurrencyFailureException e) {
+            log.warn("User counter reconcile raced a concurrent write; retrying on the next run", e);
+        }
+    }
+
+    /**
+     * Returns the counters that were corrected, or an empty list if none drifted or another
+     * replica holds the reconcile lock.
+     */
+    public List<Drift> reconcile() {
+        long startTime = System.nanoTime();
+        List<Drift> drift = snapshotTransaction.execute(status -> {
+            if (!userCountRepository.tryLockForReconcile()) {
+                log.info("User counter reconcile already running on another replica");
+                return List.of();
+            }
+            List<Drift> organizationDrift = userCountRepository.findOrganizationDrift();
+            List<Drift> roleDrift = userCountRepository.findRoleDrift();
+            List<Drift> orphaned = userCountRepository.deleteOrphanedRoleCounts();
+
+            organizationDrift.forEach(d -> {
+                log.warn("Organization {} user counter drifted: counted {}, actual {}", d.key(), d.counted(), d.actual());
+                userCountRepository.adjustOrganizationCount(d.key(), d.delta());
+            });
+            roleDrift.forEach(d -> {
+                log.warn("Role {} (organization {}) user counter drifted: counted {}, actual {}",
+                        d.key(), d.organizationId(), d.counted(), d.actual());
+                userCountRepository.adjustRoleCount(d.key(), d.organizationId(), d.delta());
+            });
+            orphaned.forEach(d -> log.warn("Role {} (organization {}) no longer exists; dropped its user counter of {}",
+                    d.key(), d.organizationId(), d.counted()));
+
+            List<Drift> all = new ArrayList<>(organizationDrift);
+            all.addAll(roleDrift);
+            all.addAll(orphaned);
+            return all;
+        });
+
+        driftCounter.increment(drift.size());
+        log.info("Reconciled user counters in {}ms; {} corrected",
+                (System.nanoTime() - startTime) / 1_000_000, drift.size());
+        return drift;
+    }
+}
@@ -0,0 +1,92 @@
+package com.hsurvey.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsurvey.userservice.dto.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of UserDTO by id, bounded by an estimate of retained bytes. Every write path
+ * that changes a user's fields or role names must publish through UserInvalidationBus;
+ * expire-after-write only bounds staleness if a notification is lost.
+ */
+@Service
+public class UserDtoCache {
+    private final Cache<UUID, UserDTO> cache;
+    // Bumped on every invalidation; a load that raced with one must not be cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserDtoCache(MeterRegistry meterRegistry,
+                        @Value("${user.cache.max-weight-bytes:33554432}") long maxWeightBytes,
+                        @Value("${user.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((UUID id, UserDTO user) -> estimateBytes(user))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDto");
+    }
+
+    public Optional<UserDTO> get(UUID id, Supplier<Optional<UserDTO>> loader) {
+        UserDTO cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+
+        long loadGeneration = generation.get();
+        Optional<UserDTO> loaded = loader.get();
+        // compute() serializes with invalidate() on the key, so a stale value is either rejected here or removed there
+        loaded.ifPresent(user -> cache.asMap().compute(id, (key, current) ->
+                generation.get() == loadGeneration ? copy(user) : current));
+        return loaded;
+    }
+
+    // Writers go through UserInvalidationBus, which calls this after commit on every replica
+    public void invalidate(Collection<UUID> ids) {
+        generation.incrementAndGet();
+        cache.invalidateAll(ids);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // Callers get their own copy; UserDTO is mutable
+    private static UserDTO copy(UserDTO user) {
+        UserDTO copy = new UserDTO();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setEmail(user.getEmail());
+        copy.setOrganizationId(user.getOrganizationId());
+        copy.setRoles(user.getRoles() != null ? new HashSet<>(user.getRoles()) : null);
+        return copy;
+    }
+
+    // Rough retained size: object headers, two UUIDs and the role set, plus UTF-16 string contents
+    private static int estimateBytes(UserDTO user) {
+        int bytes = 200 + 2 * (length(user.getUsername()) + length(user.getEmail()));
+        if (user.getRoles() != null) {
+            for (String role : user.getRoles()) {
+                bytes += 64 + 2 * length(role);
+            }
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,10 @@
+package com.hsurvey.userservice.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+public interface UserExportService {
+    // Writes one JSON object per line and returns the number of users written
+    long exportOrganizationUsers(UUID organizationId, OutputStream out, boolean gzip) throws IOException;
+}
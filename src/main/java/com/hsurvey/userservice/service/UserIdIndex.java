@@ -0,0 +1,270 @@
+package com.hsurvey.userservice.service;
+
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.utils.PrimaryReads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory set of all user ids, stored as primitive (msb, lsb) long pairs in an open-addressed
+ * table with linear probing. A hit is authoritative; a miss may just mean the index is still
+ * warming or the user was created elsewhere, so callers confirm misses against the database.
+ */
+@Service
+@Slf4j
+public class UserIdIndex {
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    private static final long INITIAL_LOAD_RETRY_MS = 1000;
+    private static final long MAX_LOAD_RETRY_BACKOFF_MS = 60_000;
+
+    private final UserReadRepository userReadRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Slot i holds one UUID at [2i, 2i + 1]; the nil UUID marks an empty slot and is never stored
+    private long[] slots = new long[INITIAL_CAPACITY * 2];
+    private int size;
+    private volatile boolean ready;
+    // Removals seen during the initial load, which may have read those rows before the delete committed
+    private final Set<UUID> removedWhileWarming = new HashSet<>();
+
+    public UserIdIndex(UserReadRepository userReadRepository,
+                       PlatformTransactionManager transactionManager,
+                       AsyncTaskExecutor applicationTaskExecutor) {
+        this.userReadRepository = userReadRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.applicationTaskExecutor = applicationTaskExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        applicationTaskExecutor.execute(this::loadWithRetry);
+    }
+
+    public void reloadInBackground() {
+        applicationTaskExecutor.execute(this::reload);
+    }
+
+    // Starts over from an empty table; until the load finishes, misses fall back to the database
+    public void reload() {
+        reset();
+        loadWithRetry();
+    }
+
+    // Retries with backoff until a load succeeds; lookups fall back to the database meanwhile
+    public void loadWithRetry() {
+        long backoffMillis = INITIAL_LOAD_RETRY_MS;
+        while (!isReady() && !load()) {
+            log.warn("Retrying user id index load in {}ms", backoffMillis);
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, MAX_LOAD_RETRY_BACKOFF_MS);
+        }
+    }
+
+    // Returns false if the load failed; the index is then empty and not ready
+    public synchronized boolean load() {
+        long startTime = System.nanoTime();
+        try {
+            // Postgres only streams with a fetch size inside a transaction. Hits are authoritative and
+            // never expire, so the load must not come from a replica that has not seen recent deletes.
+            PrimaryReads.call(() -> readOnlyTransaction.execute(status -> {
+                userReadRepository.streamAllIds(LOAD_FETCH_SIZE, rs -> add(rs.getObject(1, UUID.class)));
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            log.error("Failed to load user id index; existence checks will fall back to the database", e);
+            // The next attempt reads every row again, so removals seen so far are already reflected in it
+            reset();
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removedWhileWarming.forEach(this::removeLocked);
+            removedWhileWarming.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded user id index with {} ids in {}ms", size(), (System.nanoTime() - startTime) / 1_000_000);
+        return true;
+    }
+
+    private void reset() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            slots = new long[INITIAL_CAPACITY * 2];
+            size = 0;
+            removedWhileWarming.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(UUID id) {
+        if (id == null || isNil(id.getMostSignificantBits(), id.getLeastSignificantBits())) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return findSlot(slots, id.getMostSignificantBits(), id.getLeastSignificantBits()) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(UUID id) {
+        if (id == null || isNil(id.getMostSignificantBits(), id.getLeastSignificantBits())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (size + 1 > capacity() / 4 * 3) {
+                resize(capacity() * 2);
+            }
+            if (insert(slots, id.getMostSignificantBits(), id.getLeastSignificantBits())) {
+                size++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                removedWhileWarming.add(id);
+            }
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int capacity() {
+        return slots.length / 2;
+    }
+
+    private void removeLocked(UUID id) {
+        long[] table = slots;
+        int mask = capacity() - 1;
+        int hole = findSlot(table, id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (hole < 0) {
+            return;
+        }
+
+        // Backward-shift deletion: pull later entries of the probe run into the hole so lookups need no tombstones
+        int next = hole;
+        while (true) {
+            next = (next + 1) & mask;
+            long msb = table[2 * next];
+            long lsb = table[2 * next + 1];
+            if (isNil(msb, lsb)) {
+                break;
+            }
+            int home = home(msb, lsb, mask);
+            boolean homeBetween = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!homeBetween) {
+                table[2 * hole] = msb;
+                table[2 * hole + 1] = lsb;
+                hole = next;
+            }
+        }
+        table[2 * hole] = 0L;
+        table[2 * hole + 1] = 0L;
+        size--;
+    }
+
+    private void resize(int newCapacity) {
+        long[] resized = new long[newCapacity * 2];
+        for (int i = 0; i < slots.length; i += 2) {
+            if (!isNil(slots[i], slots[i + 1])) {
+                insert(resized, slots[i], slots[i + 1]);
+            }
+        }
+        slots = resized;
+    }
+
+    private static int findSlot(long[] table, long msb, long lsb) {
+        int mask = table.length / 2 - 1;
+        for (int slot = home(msb, lsb, mask); ; slot = (slot + 1) & mask) {
+            long slotMsb = table[2 * slot];
+            long slotLsb = table[2 * slot + 1];
+            if (slotMsb == msb && slotLsb == lsb) {
+                return slot;
+            }
+            if (isNil(slotMsb, slotLsb)) {
+                return -1;
+            }
+        }
+    }
+
+    // Returns false if the id was already present
+    private static boolean insert(long[] table, long msb, long lsb) {
+        int mask = table.length / 2 - 1;
+        for (int slot = home(msb, lsb, mask); ; slot = (slot + 1) & mask) {
+            long slotMsb = table[2 * slot];
+            long slotLsb = table[2 * slot + 1];
+            if (slotMsb == msb && slotLsb == lsb) {
+                return false;
+            }
+            if (isNil(slotMsb, slotLsb)) {
+                table[2 * slot] = msb;
+                table[2 * slot + 1] = lsb;
+                return true;
+            }
+        }
+    }
+
+    private static int home(long msb, long lsb, int mask) {
+        // Murmur3 finalizer; random UUIDs are well distributed but v7/time-based ones are not
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private static boolean isNil(long msb, long lsb) {
+        return msb == 0L && lsb == 0L;
+    }
+}
@@ -0,0 +1,37 @@
+package com.hsurvey.userservice.service;
+
+import com.hsurvey.userservice.dto.UserImportResultDTO;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface UserImportService {
+
+    enum Format {
+        // Header line naming the username, email and password columns, then one user per record
+        CSV(MediaType.parseMediaType("text/csv")),
+        // One JSON object per line with username, email and password
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public static Format fromContentType(String contentType) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (Format format : values()) {
+                if (format.mediaType.isCompatibleWith(type)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+        }
+    }
+
+    // Creates the users of the upload in the organization, reporting success or the rejection reason per row
+    UserImportResultDTO importUsers(UUID organizationId, InputStream in, Format format) throws IOException;
+}
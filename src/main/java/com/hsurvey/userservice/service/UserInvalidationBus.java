@@ -0,0 +1,316 @@
+package com.hsurvey.userservice.service;
+
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository.Scope;
+import com.hsurvey.userservice.utils.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Single entry point for user, role and permission changes that in-process structures (UserDtoCache,
+ * UserIdIndex, OrganizationPayloadCache) must see.
+ * The change is applied locally after commit and published with pg_notify inside the writing transaction,
+ * so Postgres delivers it to every other replica exactly when, and only if, the transaction commits.
+ * Each replica LISTENs on its own connection outside the pool; after a reconnect it cannot know what it
+ * missed, so it flushes everything.
+ */
+@Service
+@Slf4j
+public class UserInvalidationBus {
+    public static final String CHANNEL = "user_service_invalidation";
+
+    // Keeps each payload well under Postgres' 8000-byte NOTIFY limit
+    private static final int MAX_IDS_PER_MESSAGE = 150;
+    private static final long POLL_TIMEOUT_MS = 10_000;
+    private static final int LIVENESS_TIMEOUT_SECONDS = 5;
+    private static final long MAX_RECONNECT_BACKOFF_MS = 30_000;
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ? || txid_current() || ?)";
+
+    public enum EntityType { USER, ROLE, PERMISSION }
+
+    public enum Action { CREATED, CHANGED, DELETED }
+
+    /**
+     * Wire format: origin|type|action|organizationId|version|sentAtMillis|id,id,...
+     * version is the id of the writing transaction.
+     */
+    public record Message(String origin, EntityType type, Action action, UUID organizationId,
+                          long version, long sentAtMillis, List<UUID> ids) {
+
+        public static Message parse(String payload) {
+            String[] parts = payload.split("\\|", -1);
+            if (parts.length != 7) {
+                throw new IllegalArgumentException("Malformed invalidation message: " + payload);
+            }
+            List<UUID> ids = parts[6].isEmpty() ? List.of()
+                    : Arrays.stream(parts[6].split(",")).map(UUID::fromString).toList();
+            return new Message(parts[0], EntityType.valueOf(parts[1]), Action.valueOf(parts[2]),
+                    parts[3].isEmpty() ? null : UUID.fromString(parts[3]),
+                    Long.parseLong(parts[4]), Long.parseLong(parts[5]), ids);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final UserDtoCache userDtoCache;
+    private final UserIdIndex userIdIndex;
+    private final OrganizationPayloadCache organizationPayloadCache;
+    private final Timer lagTimer;
+    private final Counter resyncCounter;
+    // Replicas ignore their own messages; the writer already applied them after commit
+    private final String origin = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private volatile Thread listenerThread;
+    private volatile Connection listenConnection;
+
+    public UserInvalidationBus(JdbcTemplate jdbcTemplate,
+                               DataSourceProperties dataSourceProperties,
+                               UserDtoCache userDtoCache,
+                               UserIdIndex userIdIndex,
+                               OrganizationPayloadCache organizationPayloadCache,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.userDtoCache = userDtoCache;
+        this.userIdIndex = userIdIndex;
+        this.organizationPayloadCache = organizationPayloadCache;
+        this.lagTimer = Timer.builder("userservice.invalidation.lag")
+                .description("Time from publishing an invalidation to applying it on another replica")
+                .register(meterRegistry);
+        this.resyncCounter = Counter.builder("userservice.invalidation.resyncs")
+                .description("Full cache flushes after the LISTEN connection was (re)established")
+                .register(meterRegistry);
+    }
+
+    // PUBLISHING
+
+    public void userCreated(UUID userId, UUID organizationId) {
+        publish(EntityType.USER, Action.CREATED, List.of(userId), organizationId);
+    }
+
+    public void usersCreated(Collection<UUID> userIds, UUID organizationId) {
+        publish(EntityType.USER, Action.CREATED, userIds, organizationId);
+    }
+
+    public void userChanged(UUID userId, UUID organizationId) {
+        publish(EntityType.USER, Action.CHANGED, List.of(userId), organizationId);
+    }
+
+    public void usersChanged(Collection<UUID> userIds, UUID organizationId) {
+        publish(EntityType.USER, Action.CHANGED, userIds, organizationId);
+    }
+
+    public void userDeleted(UUID userId, UUID organizationId) {
+        publish(EntityType.USER, Action.DELETED, List.of(userId), organizationId);
+    }
+
+    public void usersDeleted(Collection<UUID> userIds, UUID organizationId) {
+        publish(EntityType.USER, Action.DELETED, userIds, organizationId);
+    }
+
+    // A null organization means it was not looked up; replicas then evict the scope everywhere
+    public void roleCreated(UUID roleId, UUID organizationId) {
+        publish(EntityType.ROLE, Action.CREATED, List.of(roleId), organizationId);
+    }
+
+    public void roleChanged(UUID roleId, UUID organizationId) {
+        publish(EntityType.ROLE, Action.CHANGED, List.of(roleId), organizationId);
+    }
+
+    public void roleDeleted(UUID roleId, UUID organizationId) {
+        publish(EntityType.ROLE, Action.DELETED, List.of(roleId), organizationId);
+    }
+
+    public void permissionCreated(UUID permissionId, UUID organizationId) {
+        publish(EntityType.PERMISSION, Action.CREATED, List.of(permissionId), organizationId);
+    }
+
+    public void permissionChanged(UUID permissionId, UUID organizationId) {
+        publish(EntityType.PERMISSION, Action.CHANGED, List.of(permissionId), organizationId);
+    }
+
+    public void permissionDeleted(UUID permissionId, UUID organizationId) {
+        publish(EntityType.PERMISSION, Action.DELETED, List.of(permissionId), organizationId);
+    }
+
+    private void publish(EntityType type, Action action, Collection<UUID> entityIds, UUID organizationId) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(entityIds);
+        long sentAtMillis = System.currentTimeMillis();
+
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_MESSAGE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_MESSAGE, ids.size()));
+            String prefix = String.join("|", origin, type.name(), action.name(),
+                    organizationId != null ? organizationId.toString() : "") + "|";
+            String suffix = "|" + sentAtMillis + "|" +
+                    chunk.stream().map(UUID::toString).collect(Collectors.joining(","));
+            jdbcTemplate.query(NOTIFY_SQL, rs -> null, CHANNEL, prefix, suffix);
+        }
+
+        Message local = new Message(origin, type, action, organizationId, 0L, sentAtMillis, ids);
+        TransactionUtils.afterCommit(() -> apply(local));
+    }
+
+    // RECEIVING
+
+    public void handle(String payload) {
+        Message message;
+        try {
+            message = Message.parse(payload);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed invalidation message: {}", payload, e);
+            return;
+        }
+        if (origin.equals(message.origin())) {
+            return;
+        }
+        apply(message);
+        lagTimer.record(Math.max(0, System.currentTimeMillis() - message.sentAtMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void apply(Message message) {
+        switch (message.type()) {
+            case USER -> applyToUsers(message);
+            case ROLE -> organizationPayloadCache.invalidate(message.organizationId(), Scope.ROLES);
+            case PERMISSION -> {
+                organizationPayloadCache.invalidate(message.organizationId(), Scope.PERMISSIONS);
+                // Role payloads list the permissions they grant
+                if (message.action() != Action.CREATED) {
+                    organizationPayloadCache.invalidate(message.organizationId(), Scope.ROLES);
+                }
+            }
+        }
+    }
+
+    private void applyToUsers(Message message) {
+        switch (message.action()) {
+            case CREATED -> message.ids().forEach(userIdIndex::add);
+            case CHANGED -> userDtoCache.invalidate(message.ids());
+            case DELETED -> {
+                message.ids().forEach(userIdIndex::remove);
+                userDtoCache.invalidate(message.ids());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        running = true;
+        Thread thread = new Thread(this::listenLoop, "user-invalidation-listener");
+        thread.setDaemon(true);
+        listenerThread = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stopListening() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        closeQuietly(listenConnection);
+    }
+
+    private void listenLoop() {
+        long backoffMillis = 1000;
+        boolean reconnect = false;
+
+        while (running) {
+            try (Connection connection = openListenConnection()) {
+                listenConnection = connection;
+                resync(reconnect);
+                reconnect = true;
+                backoffMillis = 1000;
+
+                while (running) {
+                    poll(connection);
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Invalidation listener lost its connection; reconnecting in {}ms", backoffMillis, e);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, MAX_RECONNECT_BACKOFF_MS);
+            }
+        }
+    }
+
+    /**
+     * Waits up to POLL_TIMEOUT_MS for notifications and handles them. A half-open TCP connection
+     * just polls empty forever, so an empty poll is followed by a round trip; a dead connection
+     * throws, which sends the listener through reconnect and resync.
+     */
+    public void poll(Connection connection) throws SQLException {
+        PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications((int) POLL_TIMEOUT_MS);
+        if (notifications == null || notifications.length == 0) {
+            if (!connection.isValid(LIVENESS_TIMEOUT_SECONDS)) {
+                throw new SQLException("Invalidation listener connection stopped responding");
+            }
+            return;
+        }
+        for (PGNotification notification : notifications) {
+            handle(notification.getParameter());
+        }
+    }
+
+    // A dedicated connection outside the pool: it is held for the lifetime of the replica
+    private Connection openListenConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+        return connection;
+    }
+
+    // Anything published while we were not listening is lost, so drop everything derived from the database
+    private void resync(boolean reconnect) {
+        userDtoCache.invalidateAll();
+        organizationPayloadCache.invalidateAll();
+        if (reconnect) {
+            userIdIndex.reloadInBackground();
+        }
+        resyncCounter.increment();
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close invalidation listener connection", e);
+        }
+    }
+}
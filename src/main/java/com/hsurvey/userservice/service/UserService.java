@@ -1,8 +1,15 @@
 package com.hsurvey.userservice.service;
 
+import com.hsurvey.userservice.dto.BulkUserLookupResponse;
 import com.hsurvey.userservice.dto.CreateUserDTO;
+import com.hsurvey.userservice.dto.CursorPageDTO;
+import com.hsurvey.userservice.dto.RoleAssignmentResultDTO;
+import com.hsurvey.userservice.dto.UserCountsDTO;
 import com.hsurvey.userservice.dto.UserDTO;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 public interface UserService {
@@ -13,14 +20,33 @@ public interface UserService {
     // Read methods
     List<UserDTO> getAllUsers();
     List<UserDTO> getAllUsersByOrganization(UUID organizationId);
+    // Sparse fieldsets: only the named UserDTO fields, all of them if none are named
+    List<Map<String, Object>> getAllUsers(Set<String> fields);
+    List<Map<String, Object>> getAllUsersByOrganization(UUID organizationId, Set<String> fields);
     UserDTO getUserById(UUID userId);
     UserDTO getUserByIdAndOrganization(UUID userId, UUID organizationId);
 
+    // Keyset-paginated read methods
+    CursorPageDTO<UserDTO> getUsersPage(String cursor, int limit);
+    CursorPageDTO<UserDTO> getUsersPageByOrganization(UUID organizationId, String cursor, int limit);
+
+    // Username/email substring search, best matches first
+    List<UserDTO> searchUsersInOrganization(UUID organizationId, String query, int limit);
+
+    // Counter-backed, independent of organization size
+    UserCountsDTO getUserCounts(UUID organizationId);
+
     // Bulk read method for internal service calls
     List<UserDTO> getUsersByIds(List<UUID> userIds);
 
-    // Check existence method
+    // Large bulk lookups with field selection
+    BulkUserLookupResponse lookupUsers(List<UUID> userIds, Set<String> fields);
+    BulkUserLookupResponse lookupUsersInOrganization(List<UUID> userIds, Set<String> fields, UUID organizationId);
+
+    // Check existence methods
     boolean existsById(UUID userId);
+    // Bit i is set if userIds[i] exists
+    BitSet existsByIds(List<UUID> userIds);
 
     // Update methods
     UserDTO updateUser(UUID id, UserDTO userDTO);
@@ -35,4 +61,14 @@ public interface UserService {
     UserDTO addRoleToUserInOrganization(UUID userId, UUID roleId, UUID organizationId);
     UserDTO removeRoleFromUser(UUID userId, UUID roleId);
     UserDTO removeRoleFromUserInOrganization(UUID userId, UUID roleId, UUID organizationId);
+
+    // Bulk role assignment: one role for many users, or many roles for one user; counts only
+    RoleAssignmentResultDTO assignRoleToUsers(UUID roleId, List<UUID> userIds);
+    RoleAssignmentResultDTO assignRoleToUsersInOrganization(UUID roleId, List<UUID> userIds, UUID organizationId);
+    RoleAssignmentResultDTO revokeRoleFromUsers(UUID roleId, List<UUID> userIds);
+    RoleAssignmentResultDTO revokeRoleFromUsersInOrganization(UUID roleId, List<UUID> userIds, UUID organizationId);
+    RoleAssignmentResultDTO assignRolesToUser(UUID userId, List<UUID> roleIds);
+    RoleAssignmentResultDTO assignRolesToUserInOrganization(UUID userId, List<UUID> roleIds, UUID organizationId);
+    RoleAssignmentResultDTO revokeRolesFromUser(UUID userId, List<UUID> roleIds);
+    RoleAssignmentResultDTO revokeRolesFromUserInOrganization(UUID userId, List<UUID> roleIds, UUID organizationId);
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import com.hsurvey.userservice.repositories.RefreshTokenRepository;
 import com.hsurvey.userservice.service.AuthService;
 import com.hsurvey.userservice.service.CustomUserDetailsService;
 import com.hsurvey.userservice.service.OrganizationRoleService;
+import com.hsurvey.userservice.service.UserInvalidationBus;
 import com.hsurvey.userservice.service.clients.OrganizationClient;
 import com.hsurvey.userservice.service.clients.DepartmentClient;
 import com.hsurvey.userservice.service.clients.TeamClient;
@@ -21,6 +22,7 @@ import com.hsurvey.userservice.utils.JwtUtil;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -34,6 +36,7 @@ import java.time.Instant;
 import java.util.Set;
 import java.util.UUID;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Value;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -51,6 +54,8 @@ public class AuthServiceImpl implements AuthService {
     private final TeamClient teamClient;
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtUtil jwtUtil;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final UserInvalidationBus userInvalidationBus;
     @Value("${jwt.refreshExpiration:604800000}") // 7 days default
     private long refreshExpiration;
 
@@ -95,15 +100,15 @@ public class AuthServiceImpl implements AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        userInvalidationBus.userCreated(savedUser.getId(), orgId);
 
         UserDetails userDetails = userDetailsService.loadUserByUsername(savedUser.getEmail());
 
         // Fetch department and team IDs for the user
-        UUID departmentId = getDepartmentIdForUser(savedUser.getId());
-        UUID teamId = getTeamIdForUser(savedUser.getId());
+        OrgUnitIds orgUnitIds = fetchOrgUnitIds(savedUser.getId());
 
         // Generate JWT token with complete user context
-        String jwtToken = generateJwtToken(savedUser, departmentId, teamId);
+        String jwtToken = generateJwtToken(savedUser, orgUnitIds.departmentId(), orgUnitIds.teamId());
         RefreshToken refreshToken = createRefreshToken(savedUser);
         setAuthCookies(response, jwtToken, refreshToken.getToken());
 
@@ -132,6 +137,9 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("Failed to verify organization", e);
         }
 
+        // Takes the organization's provisioning lock first, so the checks below cannot race a
+        // concurrent registration or batch onboarding; a failed check rolls the provisioning back
+        organizationRoleService.createDefaultRolesForOrganization(organizationId);
 
         if (organizationManagerAlreadyExistsForOrganization(organizationId)) {
             throw new OrganizationManagerAlreadyExistsException("Organization manager already exists for this organization");
@@ -145,8 +153,6 @@ public class AuthServiceImpl implements AuthService {
             throw new IllegalArgumentException("Username already exists");
         }
 
-        organizationRoleService.createDefaultRolesForOrganization(organizationId);
-
         Role organizationManagerRole = organizationRoleService.getDefaultOrganizationManagerRole(organizationId);
 
         User organizationManagerUser = User.builder()
@@ -158,15 +164,15 @@ public class AuthServiceImpl implements AuthService {
                 .build();
 
         User savedUser = userRepository.save(organizationManagerUser);
+        userInvalidationBus.userCreated(savedUser.getId(), organizationId);
 
         UserDetails userDetails = userDetailsService.loadUserByUsername(savedUser.getEmail());
 
 
-        UUID departmentId = getDepartmentIdForUser(savedUser.getId());
-        UUID teamId = getTeamIdForUser(savedUser.getId());
+        OrgUnitIds orgUnitIds = fetchOrgUnitIds(savedUser.getId());
 
 
-        String jwtToken = generateJwtToken(savedUser, departmentId, teamId);
+        String jwtToken = generateJwtToken(savedUser, orgUnitIds.departmentId(), orgUnitIds.teamId());
         RefreshToken refreshToken = createRefreshToken(savedUser);
         setAuthCookies(response, jwtToken, refreshToken.getToken());
 
@@ -191,6 +197,16 @@ public class AuthServiceImpl implements AuthService {
         return userRepository.existsByOrganizationIdAndRolesContaining(organizationId, organizationManagerRole);
     }
 
+    private record OrgUnitIds(UUID departmentId, UUID teamId) {}
+
+    // Department and team lookups are independent calls to organization-service, so issue them concurrently
+    private OrgUnitIds fetchOrgUnitIds(UUID userId) {
+        CompletableFuture<UUID> departmentId =
+                CompletableFuture.supplyAsync(() -> getDepartmentIdForUser(userId), applicationTaskExecutor);
+        UUID teamId = getTeamIdForUser(userId);
+        return new OrgUnitIds(departmentId.join(), teamId);
+    }
+
     private UUID getDepartmentIdForUser(UUID userId) {
         try {
             ResponseEntity<UUID> response = departmentClient.getDepartmentIdByUserId(userId);
@@ -229,11 +245,10 @@ public class AuthServiceImpl implements AuthService {
             User user = userRepository.findByEmail(request.getEmail())
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
             UUID organizationId = user.getOrganizationId();
-            UUID departmentId = getDepartmentIdForUser(user.getId());
-            UUID teamId = getTeamIdForUser(user.getId());
+            OrgUnitIds orgUnitIds = fetchOrgUnitIds(user.getId());
             
             // Generate JWT token with complete user context
-            String jwtToken = generateJwtToken(user, departmentId, teamId);
+            String jwtToken = generateJwtToken(user, orgUnitIds.departmentId(), orgUnitIds.teamId());
             RefreshToken refreshToken = createRefreshToken(user);
             setAuthCookies(response, jwtToken, refreshToken.getToken());
             
@@ -262,7 +277,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     public AuthResponse refreshAccessToken(String refreshToken, HttpServletResponse response) {
-        RefreshToken tokenEntity = refreshTokenRepository.findByToken(refreshToken)
+        RefreshToken tokenEntity = refreshTokenRepository.findWithUserByToken(refreshToken)
                 .filter(rt -> rt.getExpiryDate().isAfter(Instant.now()))
                 .orElse(null);
         if (tokenEntity == null) {
@@ -271,11 +286,10 @@ public class AuthServiceImpl implements AuthService {
         User user = tokenEntity.getUser();
         UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
         UUID organizationId = user.getOrganizationId();
-        UUID departmentId = getDepartmentIdForUser(user.getId());
-        UUID teamId = getTeamIdForUser(user.getId());
+        OrgUnitIds orgUnitIds = fetchOrgUnitIds(user.getId());
         
 
-        String jwtToken = generateJwtToken(user, departmentId, teamId);
+        String jwtToken = generateJwtToken(user, orgUnitIds.departmentId(), orgUnitIds.teamId());
 
         refreshTokenRepository.delete(tokenEntity);
         RefreshToken newRefreshToken = createRefreshToken(user);
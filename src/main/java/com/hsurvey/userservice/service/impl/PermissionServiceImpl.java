@@ -2,11 +2,10 @@ package com.hsurvey.userservice.service.impl;
 
 import com.hsurvey.userservice.dto.PermissionDTO;
 import com.hsurvey.userservice.entities.Permission;
-import com.hsurvey.userservice.entities.Role;
 import com.hsurvey.userservice.mapper.PermissionMapper;
 import com.hsurvey.userservice.repositories.PermissionRepository;
-import com.hsurvey.userservice.repositories.RoleRepository;
 import com.hsurvey.userservice.service.PermissionService;
+import com.hsurvey.userservice.service.UserInvalidationBus;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,14 +18,14 @@ import java.util.stream.Collectors;
 public class PermissionServiceImpl implements PermissionService {
     private final PermissionRepository permissionRepository;
     private final PermissionMapper permissionMapper;
-    private final RoleRepository roleRepository;
+    private final UserInvalidationBus userInvalidationBus;
 
     public PermissionServiceImpl(PermissionRepository permissionRepository,
                                  PermissionMapper permissionMapper,
-                                 RoleRepository roleRepository) {
+                                 UserInvalidationBus userInvalidationBus) {
         this.permissionRepository = permissionRepository;
         this.permissionMapper = permissionMapper;
-        this.roleRepository = roleRepository;
+        this.userInvalidationBus = userInvalidationBus;
     }
 
     // CREATE METHODS
@@ -62,6 +61,7 @@ public class PermissionServiceImpl implements PermissionService {
 
         Permission permission = permissionMapper.toEntity(permissionDTO);
         Permission savedPermission = permissionRepository.save(permission);
+        userInvalidationBus.permissionCreated(savedPermission.getId(), organizationId);
         return permissionMapper.toDto(savedPermission);
     }
 
@@ -152,6 +152,7 @@ public class PermissionServiceImpl implements PermissionService {
 
         existingPermission.setName(permissionDTO.getName());
         existingPermission.setDescription(permissionDTO.getDescription());
+        userInvalidationBus.permissionChanged(permissionId, existingPermission.getOrganizationId());
 
         Permission updatedPermission = permissionRepository.save(existingPermission);
         return permissionMapper.toDto(updatedPermission);
@@ -196,12 +197,14 @@ public class PermissionServiceImpl implements PermissionService {
 
         existingPermission.setName(permissionDTO.getName());
         existingPermission.setDescription(permissionDTO.getDescription());
+        userInvalidationBus.permissionChanged(permissionId, existingPermission.getOrganizationId());
 
         Permission updatedPermission = permissionRepository.save(existingPermission);
         return permissionMapper.toDto(updatedPermission);
     }
 
     // DELETE METHODS
+    // Two statements whatever the number of roles holding the permission: revoke it, then delete it
     @Override
     @Transactional
     public void deletePermissionById(UUID permissionId) {
@@ -209,18 +212,11 @@ public class PermissionServiceImpl implements PermissionService {
             throw new IllegalArgumentException("Permission ID cannot be null");
         }
 
-        Permission permission = permissionRepository.findById(permissionId)
-                .orElseThrow(() -> new EntityNotFoundException("Permission not found with id: " + permissionId));
-
-
-        List<Role> rolesWithPermission = roleRepository.findByPermissionsContaining(permission);
-        for (Role role : rolesWithPermission) {
-            role.getPermissions().remove(permission);
-            roleRepository.save(role);
+        permissionRepository.revokeFromAllRoles(permissionId);
+        if (permissionRepository.deletePermission(permissionId) == 0) {
+            throw new EntityNotFoundException("Permission not found with id: " + permissionId);
         }
-
-
-        permissionRepository.delete(permission);
+        userInvalidationBus.permissionDeleted(permissionId, null);
     }
 
     @Override
@@ -234,20 +230,11 @@ public class PermissionServiceImpl implements PermissionService {
             throw new IllegalArgumentException("Organization ID cannot be null");
         }
 
-        Permission permission = permissionRepository.findById(permissionId)
-                .orElseThrow(() -> new EntityNotFoundException("Permission not found with id: " + permissionId));
-
-
-        if (!permission.getOrganizationId().equals(organizationId)) {
+        // Both statements only match a permission of this organization, so a foreign id changes nothing
+        permissionRepository.revokeFromAllRolesInOrganization(permissionId, organizationId);
+        if (permissionRepository.deletePermissionInOrganization(permissionId, organizationId) == 0) {
             throw new EntityNotFoundException("Permission not found in the specified organization");
         }
-
-        List<Role> rolesWithPermission = roleRepository.findByPermissionsContaining(permission);
-        for (Role role : rolesWithPermission) {
-            role.getPermissions().remove(permission);
-            roleRepository.save(role);
-        }
-
-        permissionRepository.delete(permission);
+        userInvalidationBus.permissionDeleted(permissionId, organizationId);
     }
-}
\ No newline at end of file
+}
@@ -1,34 +1,62 @@
 package com.hsurvey.userservice.service.impl;
 
 import com.hsurvey.userservice.dto.RoleDTO;
+import com.hsurvey.userservice.dto.RoleField;
+import com.hsurvey.userservice.dto.RolePermissionChangeDTO;
+import com.hsurvey.userservice.dto.RolePermissionPatchDTO;
 import com.hsurvey.userservice.entities.Permission;
 import com.hsurvey.userservice.entities.Role;
 import com.hsurvey.userservice.mapper.RoleMapper;
 import com.hsurvey.userservice.repositories.PermissionRepository;
+import com.hsurvey.userservice.repositories.RolePermissionRepository;
+import com.hsurvey.userservice.repositories.RoleReadRepository;
 import com.hsurvey.userservice.repositories.RoleRepository;
+import com.hsurvey.userservice.repositories.UserReadRepository;
 import com.hsurvey.userservice.service.RoleService;
+import com.hsurvey.userservice.service.UserInvalidationBus;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.hsurvey.userservice.annotation.RequireOrganizationAccess;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class RoleServiceImpl implements RoleService {
+    // Bounds the uuid[] parameter of a multi-id permission edit
+    private static final int MAX_PERMISSION_IDS_PER_EDIT = 1000;
+    private static final String UNIQUE_NAME_INDEX = "uq_roles_organization_id_name";
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final RoleMapper roleMapper;
+    private final UserReadRepository userReadRepository;
+    private final UserInvalidationBus userInvalidationBus;
+    private final RoleReadRepository roleReadRepository;
+    private final RolePermissionRepository rolePermissionRepository;
 
     public RoleServiceImpl(RoleRepository roleRepository,
                            PermissionRepository permissionRepository,
-                           RoleMapper roleMapper) {
+                           RoleMapper roleMapper,
+                           UserReadRepository userReadRepository,
+                           UserInvalidationBus userInvalidationBus,
+                           RoleReadRepository roleReadRepository,
+                           RolePermissionRepository rolePermissionRepository) {
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
         this.roleMapper = roleMapper;
+        this.userReadRepository = userReadRepository;
+        this.userInvalidationBus = userInvalidationBus;
+        this.roleReadRepository = roleReadRepository;
+        this.rolePermissionRepository = rolePermissionRepository;
     }
 
     // CREATE METHODS
@@ -62,15 +90,30 @@ public class RoleServiceImpl implements RoleService {
             role.setPermissions(new HashSet<>());
         }
 
-        Role savedRole = roleRepository.save(role);
+        Role savedRole = saveWithUniqueName(role);
+        userInvalidationBus.roleCreated(savedRole.getId(), organizationId);
         return roleMapper.toDto(savedRole);
     }
 
+    // The exists check can race a concurrent request; the unique index from V8 cannot
+    private Role saveWithUniqueName(Role role) {
+        try {
+            return roleRepository.saveAndFlush(role);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && UNIQUE_NAME_INDEX.equalsIgnoreCase(violation.getConstraintName())) {
+                throw new IllegalArgumentException("Role with name '" + role.getName() +
+                        "' already exists in this organization", e);
+            }
+            throw e;
+        }
+    }
+
     // READ METHODS
     @Override
     @Transactional(readOnly = true)
     public List<RoleDTO> getAllRoles() {
-        return roleRepository.findAll().stream()
+        return roleRepository.findAllWithPermissions().stream()
                 .map(roleMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -82,7 +125,7 @@ public class RoleServiceImpl implements RoleService {
             throw new IllegalArgumentException("Organization ID cannot be null");
         }
 
-        return roleRepository.findByOrganizationId(organizationId).stream()
+        return roleRepository.findWithPermissionsByOrganizationId(organizationId).stream()
                 .map(roleMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -94,7 +137,7 @@ public class RoleServiceImpl implements RoleService {
             throw new IllegalArgumentException("Role ID cannot be null");
         }
 
-        Role role = roleRepository.findById(roleId)
+        Role role = roleRepository.findWithPermissionsById(roleId)
                 .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
 
         return roleMapper.toDto(role);
@@ -111,7 +154,7 @@ public class RoleServiceImpl implements RoleService {
             throw new IllegalArgumentException("Organization ID cannot be null");
         }
 
-        Role role = roleRepository.findById(roleId)
+        Role role = roleRepository.findWithPermissionsById(roleId)
                 .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
 
 
@@ -122,6 +165,66 @@ public class RoleServiceImpl implements RoleService {
         return roleMapper.toDto(role);
     }
 
+    // Sparse fieldsets read only the selected columns; permissions still need the entity graph
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllRoles(Set<String> fields) {
+        Set<RoleField> selected = RoleField.parse(fields);
+        if (selected.contains(RoleField.PERMISSIONS)) {
+            return getAllRoles().stream().map(role -> RoleField.select(role, selected)).toList();
+        }
+        return roleReadRepository.findAllFields(selected);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllRolesByOrganization(UUID organizationId, Set<String> fields) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+
+        Set<RoleField> selected = RoleField.parse(fields);
+        if (selected.contains(RoleField.PERMISSIONS)) {
+            return getAllRolesByOrganization(organizationId).stream()
+                    .map(role -> RoleField.select(role, selected)).toList();
+        }
+        return roleReadRepository.findFieldsByOrganizationId(organizationId, selected);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRoleById(UUID roleId, Set<String> fields) {
+        if (roleId == null) {
+            throw new IllegalArgumentException("Role ID cannot be null");
+        }
+
+        Set<RoleField> selected = RoleField.parse(fields);
+        if (selected.contains(RoleField.PERMISSIONS)) {
+            return RoleField.select(getRoleById(roleId), selected);
+        }
+        return roleReadRepository.findFieldsById(roleId, selected)
+                .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public Map<String, Object> getRoleByIdAndOrganization(UUID roleId, UUID organizationId, Set<String> fields) {
+        if (roleId == null) {
+            throw new IllegalArgumentException("Role ID cannot be null");
+        }
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+
+        Set<RoleField> selected = RoleField.parse(fields);
+        if (selected.contains(RoleField.PERMISSIONS)) {
+            return RoleField.select(getRoleByIdAndOrganization(roleId, organizationId), selected);
+        }
+        return roleReadRepository.findFieldsByIdAndOrganizationId(roleId, organizationId, selected)
+                .orElseThrow(() -> new EntityNotFoundException("Role not found in the specified organization"));
+    }
+
     // DELETE METHODS
     @Override
     @Transactional
@@ -133,6 +236,9 @@ public class RoleServiceImpl implements RoleService {
         Role role = roleRepository.findById(roleId)
                 .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
 
+        // Cached users of this role carry its name
+        userInvalidationBus.usersChanged(userReadRepository.findUserIdsByRoleId(roleId), role.getOrganizationId());
+        userInvalidationBus.roleDeleted(roleId, role.getOrganizationId());
         roleRepository.delete(role);
     }
 
@@ -155,6 +261,9 @@ public class RoleServiceImpl implements RoleService {
             throw new EntityNotFoundException("Role not found in the specified organization");
         }
 
+        // Cached users of this role carry its name
+        userInvalidationBus.usersChanged(userReadRepository.findUserIdsByRoleId(roleId), role.getOrganizationId());
+        userInvalidationBus.roleDeleted(roleId, role.getOrganizationId());
         roleRepository.delete(role);
     }
 
@@ -169,21 +278,15 @@ public class RoleServiceImpl implements RoleService {
             throw new IllegalArgumentException("Permission ID cannot be null");
         }
 
-        Role role = roleRepository.findById(roleId)
-                .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
-
-        Permission permission = permissionRepository.findById(permissionId)
-                .orElseThrow(() -> new EntityNotFoundException("Permission not found with id: " + permissionId));
-
-
-        if (role.getPermissions() == null) {
-            role.setPermissions(new HashSet<>());
+        if (!roleRepository.existsById(roleId)) {
+            throw new EntityNotFoundException("Role not found with id: " + roleId);
         }
-
-
-        if (role.getPermissions().add(permission)) {
-            roleRepository.save(role);
+        if (!permissionRepository.existsById(permissionId)) {
+            throw new EntityNotFoundException("Permission not found with id: " + permissionId);
         }
+
+        roleRepository.addPermissionToRole(roleId, permissionId);
+        userInvalidationBus.roleChanged(roleId, null);
     }
 
     @Override
@@ -200,10 +303,10 @@ public class RoleServiceImpl implements RoleService {
             throw new IllegalArgumentException("Organization ID cannot be null");
         }
 
+        // Permissions are LAZY, so neither lookup touches role_permissions
         Role role = roleRepository.findById(roleId)
                 .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
 
-
         if (!role.getOrganizationId().equals(organizationId)) {
             throw new EntityNotFoundException("Role not found in the specified organization");
         }
@@ -215,14 +318,8 @@ public class RoleServiceImpl implements RoleService {
             throw new EntityNotFoundException("Permission not found in the specified organization");
         }
 
-
-        if (role.getPermissions() == null) {
-            role.setPermissions(new HashSet<>());
-        }
-
-        if (role.getPermissions().add(permission)) {
-            roleRepository.save(role);
-        }
+        roleRepository.addPermissionToRole(roleId, permissionId);
+        userInvalidationBus.roleChanged(roleId, organizationId);
     }
 
     @Override
@@ -235,22 +332,15 @@ public class RoleServiceImpl implements RoleService {
             throw new IllegalArgumentException("Permission ID cannot be null");
         }
 
-        Role role = roleRepository.findById(roleId)
-                .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
-
-        if (role.getPermissions() == null || role.getPermissions().isEmpty()) {
-            throw new EntityNotFoundException(
-                    "Permission not found with id: " + permissionId + " in role with id: " + roleId);
+        if (!roleRepository.existsById(roleId)) {
+            throw new EntityNotFoundException("Role not found with id: " + roleId);
         }
 
-        boolean removed = role.getPermissions().removeIf(p -> p.getId().equals(permissionId));
-
-        if (!removed) {
+        if (roleRepository.removePermissionFromRole(roleId, permissionId) == 0) {
             throw new EntityNotFoundException(
                     "Permission not found with id: " + permissionId + " in role with id: " + roleId);
         }
-
-        roleRepository.save(role);
+        userInvalidationBus.roleChanged(roleId, null);
     }
 
     @Override
@@ -270,24 +360,120 @@ public class RoleServiceImpl implements RoleService {
         Role role = roleRepository.findById(roleId)
                 .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
 
-
         if (!role.getOrganizationId().equals(organizationId)) {
             throw new EntityNotFoundException("Role not found in the specified organization");
         }
 
-        if (role.getPermissions() == null || role.getPermissions().isEmpty()) {
+        if (roleRepository.removePermissionFromRole(roleId, permissionId) == 0) {
             throw new EntityNotFoundException(
                     "Permission not found with id: " + permissionId + " in role with id: " + roleId);
         }
+        userInvalidationBus.roleChanged(roleId, organizationId);
+    }
 
-        boolean removed = role.getPermissions().removeIf(p -> p.getId().equals(permissionId));
+    // Multi-id edits are limited to the role's own organization, also for root admins
+    @Override
+    @Transactional
+    public RolePermissionChangeDTO updateRolePermissions(UUID roleId, RolePermissionPatchDTO patch) {
+        return updateRolePermissionsInternal(findRoleForPermissionEdit(roleId, null), patch);
+    }
 
-        if (!removed) {
-            throw new EntityNotFoundException(
-                    "Permission not found with id: " + permissionId + " in role with id: " + roleId);
+    @Override
+    @Transactional
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public RolePermissionChangeDTO updateRolePermissionsInOrganization(UUID roleId, RolePermissionPatchDTO patch, UUID organizationId) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
         }
+        return updateRolePermissionsInternal(findRoleForPermissionEdit(roleId, organizationId), patch);
+    }
 
-        roleRepository.save(role);
+    @Override
+    @Transactional
+    public RolePermissionChangeDTO replaceRolePermissions(UUID roleId, List<UUID> permissionIds) {
+        return replaceRolePermissionsInternal(findRoleForPermissionEdit(roleId, null), permissionIds);
+    }
+
+    @Override
+    @Transactional
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public RolePermissionChangeDTO replaceRolePermissionsInOrganization(UUID roleId, List<UUID> permissionIds, UUID organizationId) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+        return replaceRolePermissionsInternal(findRoleForPermissionEdit(roleId, organizationId), permissionIds);
+    }
+
+    private RolePermissionChangeDTO updateRolePermissionsInternal(Role role, RolePermissionPatchDTO patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Permission changes cannot be null");
+        }
+        Set<UUID> add = permissionIdSet(patch.getAdd());
+        Set<UUID> remove = permissionIdSet(patch.getRemove());
+        if (add.size() + remove.size() > MAX_PERMISSION_IDS_PER_EDIT) {
+            throw new IllegalArgumentException("At most " + MAX_PERMISSION_IDS_PER_EDIT + " permission ids can be changed at once");
+        }
+        if (add.stream().anyMatch(remove::contains)) {
+            throw new IllegalArgumentException("A permission cannot be both added and removed");
+        }
+        requirePermissionsInOrganization(add, role.getOrganizationId());
+
+        List<UUID> removed = remove.isEmpty() ? List.of()
+                : rolePermissionRepository.removePermissions(role.getId(), remove);
+        List<UUID> added = add.isEmpty() ? List.of()
+                : rolePermissionRepository.addPermissions(role.getId(), add, role.getOrganizationId());
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            userInvalidationBus.roleChanged(role.getId(), role.getOrganizationId());
+        }
+        return new RolePermissionChangeDTO(role.getId(), added, removed);
+    }
+
+    private RolePermissionChangeDTO replaceRolePermissionsInternal(Role role, List<UUID> permissionIds) {
+        Set<UUID> target = permissionIdSet(permissionIds);
+        if (target.size() > MAX_PERMISSION_IDS_PER_EDIT) {
+            throw new IllegalArgumentException("A role can be given at most " + MAX_PERMISSION_IDS_PER_EDIT + " permissions at once");
+        }
+        requirePermissionsInOrganization(target, role.getOrganizationId());
+
+        RolePermissionRepository.Diff diff =
+                rolePermissionRepository.replacePermissions(role.getId(), target, role.getOrganizationId());
+        if (!diff.added().isEmpty() || !diff.removed().isEmpty()) {
+            userInvalidationBus.roleChanged(role.getId(), role.getOrganizationId());
+        }
+        return new RolePermissionChangeDTO(role.getId(), diff.added(), diff.removed());
+    }
+
+    private Role findRoleForPermissionEdit(UUID roleId, UUID organizationId) {
+        if (roleId == null) {
+            throw new IllegalArgumentException("Role ID cannot be null");
+        }
+        Role role = roleRepository.findById(roleId)
+                .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
+        if (organizationId != null && !role.getOrganizationId().equals(organizationId)) {
+            throw new EntityNotFoundException("Role not found in the specified organization");
+        }
+        return role;
+    }
+
+    private void requirePermissionsInOrganization(Set<UUID> permissionIds, UUID organizationId) {
+        if (permissionIds.isEmpty()) {
+            return;
+        }
+        Set<UUID> found = rolePermissionRepository.findPermissionIdsInOrganization(permissionIds, organizationId);
+        if (found.size() < permissionIds.size()) {
+            List<UUID> missing = permissionIds.stream().filter(id -> !found.contains(id)).toList();
+            throw new EntityNotFoundException("Permissions not found in the specified organization: " + missing);
+        }
+    }
+
+    private static Set<UUID> permissionIdSet(List<UUID> permissionIds) {
+        if (permissionIds == null) {
+            return Set.of();
+        }
+        if (permissionIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Permission ID cannot be null");
+        }
+        return new LinkedHashSet<>(permissionIds);
     }
 
     // UPDATE METHODS
@@ -301,7 +487,7 @@ public class RoleServiceImpl implements RoleService {
             throw new IllegalArgumentException("Role data cannot be null");
         }
 
-        Role existingRole = roleRepository.findById(roleId)
+        Role existingRole = roleRepository.findWithPermissionsById(roleId)
                 .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
 
         // Prevent changing organizationId
@@ -317,10 +503,15 @@ public class RoleServiceImpl implements RoleService {
                     "' already exists in this organization");
         }
 
+        if (!existingRole.getName().equals(roleDTO.getName())) {
+            // Cached users of this role carry its name
+            userInvalidationBus.usersChanged(userReadRepository.findUserIdsByRoleId(roleId), existingRole.getOrganizationId());
+        }
         existingRole.setName(roleDTO.getName());
         existingRole.setDescription(roleDTO.getDescription());
+        userInvalidationBus.roleChanged(roleId, existingRole.getOrganizationId());
 
-        Role updatedRole = roleRepository.save(existingRole);
+        Role updatedRole = saveWithUniqueName(existingRole);
         return roleMapper.toDto(updatedRole);
     }
 
@@ -338,7 +529,7 @@ public class RoleServiceImpl implements RoleService {
             throw new IllegalArgumentException("Role data cannot be null");
         }
 
-        Role existingRole = roleRepository.findById(roleId)
+        Role existingRole = roleRepository.findWithPermissionsById(roleId)
                 .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
 
         if (!existingRole.getOrganizationId().equals(organizationId)) {
@@ -358,10 +549,15 @@ public class RoleServiceImpl implements RoleService {
                     "' already exists in this organization");
         }
 
+        if (!existingRole.getName().equals(roleDTO.getName())) {
+            // Cached users of this role carry its name
+            userInvalidationBus.usersChanged(userReadRepository.findUserIdsByRoleId(roleId), existingRole.getOrganizationId());
+        }
         existingRole.setName(roleDTO.getName());
         existingRole.setDescription(roleDTO.getDescription());
+        userInvalidationBus.roleChanged(roleId, existingRole.getOrganizationId());
 
-        Role updatedRole = roleRepository.save(existingRole);
+        Role updatedRole = saveWithUniqueName(existingRole);
         return roleMapper.toDto(updatedRole);
     }
 }
\ No newline at end of file
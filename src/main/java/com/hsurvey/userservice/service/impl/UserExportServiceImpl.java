@@ -0,0 +1,125 @@
+package com.hsurvey.userservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.service.UserExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@Slf4j
+public class UserExportServiceImpl implements UserExportService {
+    // Push buffered lines to the client periodically instead of only at the end
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final UserReadRepository userReadRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public UserExportServiceImpl(UserReadRepository userReadRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${user.export.fetch-size:1000}") int fetchSize) {
+        this.userReadRepository = userReadRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrganizationUsers(UUID organizationId, OutputStream out, boolean gzip) throws IOException {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+
+        long startTime = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        OutputStream target = gzip ? new GZIPOutputStream(counted, 64 * 1024) : counted;
+        long[] rows = {0};
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+            // Lines are ended by hand; Jackson's default separator would start each later line with a space
+            generator.setRootValueSeparator(null);
+            try {
+                userReadRepository.streamByOrganizationId(organizationId, fetchSize, rs -> {
+                    try {
+                        generator.writeStartObject();
+                        generator.writeStringField("id", rs.getString("id"));
+                        generator.writeStringField("username", rs.getString("username"));
+                        generator.writeStringField("email", rs.getString("email"));
+                        generator.writeStringField("organizationId", rs.getString("organization_id"));
+                        generator.writeArrayFieldStart("roles");
+                        Array roles = rs.getArray("roles");
+                        if (roles != null) {
+                            for (Object role : (Object[]) roles.getArray()) {
+                                generator.writeString((String) role);
+                            }
+                            roles.free();
+                        }
+                        generator.writeEndArray();
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+
+                        if (++rows[0] % FLUSH_EVERY_ROWS == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.flush();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+        log.info("Exported {} users of organization {} in {}ms ({} rows/s, {} bytes{})",
+                rows[0], organizationId, elapsedMillis,
+                rows[0] * 1000 / elapsedMillis, counted.getCount(), gzip ? " gzip" : "");
+        return rows[0];
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        // The servlet container owns the response stream
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
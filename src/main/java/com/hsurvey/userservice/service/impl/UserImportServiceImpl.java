@@ -0,0 +1,317 @@
+package com.hsurvey.userservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.hsurvey.userservice.annotation.RequireOrganizationAccess;
+import com.hsurvey.userservice.dto.CreateUserDTO;
+import com.hsurvey.userservice.dto.UserImportResultDTO;
+import com.hsurvey.userservice.dto.UserImportRowDTO;
+import com.hsurvey.userservice.repositories.UserImportRepository;
+import com.hsurvey.userservice.repositories.UserImportRepository.Conflict;
+import com.hsurvey.userservice.repositories.UserImportRepository.StagedUser;
+import com.hsurvey.userservice.service.UserImportService;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the upload row by row, validating as it goes, and creates users in batches: passwords
+ * are BCrypt-hashed in parallel across the cores, then the batch is COPYed into a staging table
+ * and resolved against existing users set-based. Each batch commits on its own, so a failure
+ * part way through keeps the users created so far; the report says which.
+ */
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+    private static final List<String> CSV_COLUMNS = List.of("username", "email", "password");
+    // Column width in the users table; CreateUserDTO only bounds the username
+    private static final int MAX_EMAIL_LENGTH = 255;
+
+    private final UserImportRepository userImportRepository;
+    private final UserInvalidationBus userInvalidationBus;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectReader ndjsonReader;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxRows;
+    private final int hashingParallelism = Runtime.getRuntime().availableProcessors();
+
+    public UserImportServiceImpl(UserImportRepository userImportRepository,
+                                 UserInvalidationBus userInvalidationBus,
+                                 PasswordEncoder passwordEncoder,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 AsyncTaskExecutor applicationTaskExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${user.import.batch-size:2000}") int batchSize,
+                                 @Value("${user.import.max-rows:100000}") int maxRows) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("user.import.batch-size must be at least 1");
+        }
+        this.userImportRepository = userImportRepository;
+        this.userInvalidationBus = userInvalidationBus;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.ndjsonReader = objectMapper.readerFor(CreateUserDTO.class);
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public UserImportResultDTO importUsers(UUID organizationId, InputStream in, Format format) throws IOException {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+
+        long startTime = System.nanoTime();
+        List<UserImportRowDTO> results = new ArrayList<>();
+        List<PendingUser> batch = new ArrayList<>(batchSize);
+        // Duplicates within the upload never reach the database
+        Set<String> emails = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        int rows = 0;
+
+        try (RowSource source = format == Format.CSV ? new CsvRowSource(in) : new NdjsonRowSource(in, ndjsonReader)) {
+            for (ParsedRow row = source.next(); row != null; row = source.next()) {
+                if (++rows > maxRows) {
+                    results.add(failed(row.line(), null, "Imports are limited to " + maxRows + " rows; this and later rows were not read"));
+                    break;
+                }
+                CreateUserDTO user = row.user();
+                String error = row.error() != null ? row.error() : validate(user);
+                if (error == null && emails.contains(user.getEmail())) {
+                    error = "Email appears more than once in this import";
+                } else if (error == null && usernames.contains(user.getUsername())) {
+                    error = "Username appears more than once in this import";
+                }
+                if (error != null) {
+                    results.add(failed(row.line(), user, error));
+                    continue;
+                }
+
+                emails.add(user.getEmail());
+                usernames.add(user.getUsername());
+                batch.add(new PendingUser(row.line(), user));
+                if (batch.size() == batchSize) {
+                    results.addAll(createBatch(organizationId, batch));
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            results.addAll(createBatch(organizationId, batch));
+        }
+
+        results.sort(Comparator.comparingLong(UserImportRowDTO::getLine));
+        int created = (int) results.stream().filter(result -> result.getId() != null).count();
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+        log.info("Imported {} of {} users into organization {} in {}ms ({} rows/s)",
+                created, results.size(), organizationId, elapsedMillis, results.size() * 1000L / elapsedMillis);
+        return new UserImportResultDTO(organizationId, created, results.size() - created, results);
+    }
+
+    private List<UserImportRowDTO> createBatch(UUID organizationId, List<PendingUser> batch) {
+        String[] hashes = hashPasswords(batch);
+        List<StagedUser> staged = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            CreateUserDTO user = batch.get(i).user();
+            staged.add(new StagedUser(batch.get(i).line(), UUID.randomUUID(), user.getUsername(), user.getEmail(), hashes[i]));
+        }
+
+        return transactionTemplate.execute(status -> {
+            userImportRepository.stage(staged);
+            Map<Long, Conflict> conflicts = userImportRepository.removeConflicting().stream()
+                    .collect(Collectors.toMap(Conflict::line, conflict -> conflict, (first, second) -> first));
+            Set<UUID> inserted = new HashSet<>(userImportRepository.insertStaged(organizationId));
+            userInvalidationBus.usersCreated(inserted, organizationId);
+
+            List<UserImportRowDTO> results = new ArrayList<>(staged.size());
+            for (StagedUser user : staged) {
+                Conflict conflict = conflicts.get(user.line());
+                if (inserted.contains(user.id())) {
+                    results.add(new UserImportRowDTO(user.line(), user.username(), user.email(), user.id(), null));
+                } else {
+                    String error = conflict == null ? "Conflicts with a user created concurrently"
+                            : conflict.emailTaken() ? "Email already exists" : "Username already exists";
+                    results.add(new UserImportRowDTO(user.line(), user.username(), user.email(), null, error));
+                }
+            }
+            return results;
+        });
+    }
+
+    // BCrypt dominates the import; one slice per core keeps the shared executor from being flooded
+    private String[] hashPasswords(List<PendingUser> batch) {
+        String[] hashes = new String[batch.size()];
+        int slices = Math.min(hashingParallelism, batch.size());
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[slices];
+        for (int s = 0; s < slices; s++) {
+            int slice = s;
+            futures[s] = CompletableFuture.runAsync(() -> {
+                for (int i = slice; i < hashes.length; i += slices) {
+                    hashes[i] = passwordEncoder.encode(batch.get(i).user().getPassword());
+                }
+            }, applicationTaskExecutor);
+        }
+        CompletableFuture.allOf(futures).join();
+        return hashes;
+    }
+
+    private String validate(CreateUserDTO user) {
+        Set<ConstraintViolation<CreateUserDTO>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+        }
+        if (user.getEmail().length() > MAX_EMAIL_LENGTH) {
+            return "Email must be at most " + MAX_EMAIL_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static UserImportRowDTO failed(long line, CreateUserDTO user, String error) {
+        return new UserImportRowDTO(line, user != null ? user.getUsername() : null,
+                user != null ? user.getEmail() : null, null, error);
+    }
+
+    private record PendingUser(long line, CreateUserDTO user) {
+    }
+
+    // Exactly one of user and error is set
+    private record ParsedRow(long line, CreateUserDTO user, String error) {
+    }
+
+    private interface RowSource extends Closeable {
+        // null at the end of the upload
+        ParsedRow next() throws IOException;
+    }
+
+    // One JSON object per line; a malformed line only rejects that row
+    private static final class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+        private final ObjectReader objectReader;
+        private long line;
+
+        NdjsonRowSource(InputStream in, ObjectReader objectReader) {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new ParsedRow(line, objectReader.readValue(text), null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(line, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // Records are numbered from the header, which is record 1; a malformed record ends the upload
+    private static final class CsvRowSource implements RowSource {
+        private static final ObjectReader CSV_READER = new CsvMapper()
+                .enable(CsvParser.Feature.WRAP_AS_ARRAY)
+                .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .readerFor(String[].class);
+
+        private final MappingIterator<String[]> records;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long line = 1;
+        private boolean broken;
+
+        CsvRowSource(InputStream in) throws IOException {
+            this.records = CSV_READER.readValues(new InputStreamReader(in, StandardCharsets.UTF_8));
+            if (!records.hasNextValue()) {
+                throw new IllegalArgumentException("CSV import requires a header line");
+            }
+            String[] header = records.nextValue();
+            for (int i = 0; i < header.length; i++) {
+                String column = header[i].strip().toLowerCase(Locale.ROOT);
+                if (!CSV_COLUMNS.contains(column)) {
+                    throw new IllegalArgumentException("Unknown CSV column: " + header[i]);
+                }
+                columns.put(column, i);
+            }
+            if (columns.size() != CSV_COLUMNS.size()) {
+                throw new IllegalArgumentException("CSV header must name the columns " + CSV_COLUMNS);
+            }
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            if (broken) {
+                return null;
+            }
+            String[] record;
+            try {
+                if (!records.hasNextValue()) {
+                    return null;
+                }
+                record = records.nextValue();
+                line++;
+            } catch (IOException | RuntimeException e) {
+                broken = true;
+                return new ParsedRow(line + 1, null, "Malformed CSV; this and later rows were not read");
+            }
+            if (record.length != CSV_COLUMNS.size()) {
+                return new ParsedRow(line, null, "Expected " + CSV_COLUMNS.size() + " columns but found " + record.length);
+            }
+            return new ParsedRow(line, CreateUserDTO.builder()
+                    .username(record[columns.get("username")])
+                    .email(record[columns.get("email")])
+                    .password(record[columns.get("password")])
+                    .build(), null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            records.close();
+        }
+    }
+}
@@ -1,38 +1,86 @@
 package com.hsurvey.userservice.service.impl;
 
+import com.hsurvey.userservice.dto.BulkUserLookupResponse;
 import com.hsurvey.userservice.dto.CreateUserDTO;
+import com.hsurvey.userservice.dto.CursorPageDTO;
+import com.hsurvey.userservice.dto.RoleAssignmentResultDTO;
+import com.hsurvey.userservice.dto.UserCountsDTO;
 import com.hsurvey.userservice.dto.UserDTO;
+import com.hsurvey.userservice.dto.UserField;
 import com.hsurvey.userservice.entities.User;
 import com.hsurvey.userservice.entities.Role;
 import com.hsurvey.userservice.mapper.UserMapper;
+import com.hsurvey.userservice.repositories.UserCountRepository;
+import com.hsurvey.userservice.repositories.UserReadRepository;
 import com.hsurvey.userservice.repositories.UserRepository;
+import com.hsurvey.userservice.repositories.UserRoleRepository;
 import com.hsurvey.userservice.repositories.RoleRepository;
+import com.hsurvey.userservice.service.UserDtoCache;
+import com.hsurvey.userservice.service.UserIdIndex;
+import com.hsurvey.userservice.service.UserInvalidationBus;
 import com.hsurvey.userservice.service.UserService;
 import com.hsurvey.userservice.annotation.RequireOrganizationAccess;
+import com.hsurvey.userservice.utils.PrimaryReads;
+import com.hsurvey.userservice.utils.KeysetCursor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
+    // Hard cap on keyset page size regardless of what the client asks for
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BULK_LOOKUP_IDS = 50_000;
+    // Ids per lookup statement; bounds the uuid[] parameter and the rows held per round trip
+    private static final int BULK_LOOKUP_CHUNK_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    // Trigram indexes cannot serve shorter terms; they would scan the whole organization
+    private static final int MIN_SEARCH_TERM_LENGTH = 3;
+    // Bounds the uuid[] parameter of a bulk role assignment
+    private static final int MAX_BULK_ASSIGNMENT_IDS = 10_000;
+
     private final UserRepository userRepository;
+    private final UserReadRepository userReadRepository;
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserIdIndex userIdIndex;
+    private final UserDtoCache userDtoCache;
+    private final UserInvalidationBus userInvalidationBus;
+    private final UserCountRepository userCountRepository;
+    private final UserRoleRepository userRoleRepository;
 
     public UserServiceImpl(UserRepository userRepository,
+                           UserReadRepository userReadRepository,
                            RoleRepository roleRepository,
                            UserMapper userMapper,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           UserIdIndex userIdIndex,
+                           UserDtoCache userDtoCache,
+                           UserInvalidationBus userInvalidationBus,
+                           UserCountRepository userCountRepository,
+                           UserRoleRepository userRoleRepository) {
         this.userRepository = userRepository;
+        this.userReadRepository = userReadRepository;
         this.roleRepository = roleRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.userIdIndex = userIdIndex;
+        this.userDtoCache = userDtoCache;
+        this.userInvalidationBus = userInvalidationBus;
+        this.userCountRepository = userCountRepository;
+        this.userRoleRepository = userRoleRepository;
     }
 
     // CREATE METHODS
@@ -72,16 +120,16 @@ public class UserServiceImpl implements UserService {
         user.setRoles(new HashSet<>());
 
         user = userRepository.save(user);
+        userInvalidationBus.userCreated(user.getId(), organizationId);
         return userMapper.toDto(user);
     }
 
     // READ METHODS
+    // Reads go through projections so roles and permissions are never hydrated just to build a UserDTO
     @Override
     @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+        return userReadRepository.findAll();
     }
 
     @Override
@@ -91,9 +139,72 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Organization ID cannot be null");
         }
 
-        return userRepository.findByOrganizationId(organizationId).stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+        return userReadRepository.findByOrganizationId(organizationId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllUsers(Set<String> fields) {
+        return userReadRepository.findAllFields(UserField.parse(fields));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllUsersByOrganization(UUID organizationId, Set<String> fields) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+
+        return userReadRepository.findFieldsByOrganizationId(organizationId, UserField.parse(fields));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserDTO> getUsersPage(String cursor, int limit) {
+        KeysetCursor after = cursor == null ? KeysetCursor.start() : KeysetCursor.decode(cursor);
+        int pageSize = normalizePageSize(limit);
+
+        List<UserDTO> users = userReadRepository.findPage(after.organizationId(), after.id(), pageSize + 1);
+        return toPage(users, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public CursorPageDTO<UserDTO> getUsersPageByOrganization(UUID organizationId, String cursor, int limit) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+
+        KeysetCursor after = cursor == null ? KeysetCursor.startOf(organizationId) : KeysetCursor.decode(cursor);
+        if (!organizationId.equals(after.organizationId())) {
+            throw new IllegalArgumentException("Cursor does not belong to this organization");
+        }
+        int pageSize = normalizePageSize(limit);
+
+        List<UserDTO> users = userReadRepository.findPageByOrganizationId(organizationId, after.id(), pageSize + 1);
+        return toPage(users, pageSize);
+    }
+
+    private int normalizePageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // Callers fetch pageSize + 1 rows; the extra row only signals that another page exists
+    private CursorPageDTO<UserDTO> toPage(List<UserDTO> users, int pageSize) {
+        boolean hasMore = users.size() > pageSize;
+        List<UserDTO> page = hasMore ? List.copyOf(users.subList(0, pageSize)) : users;
+
+        String nextCursor = null;
+        if (hasMore) {
+            UserDTO last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getOrganizationId(), last.getId()).encode();
+        }
+
+        return new CursorPageDTO<>(page, nextCursor);
     }
 
     @Override
@@ -103,17 +214,95 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("User ID cannot be null");
         }
 
-        User user = userRepository.findById(userId)
+        // Cached entries are only invalidated on change, so they must not be loaded from a lagging replica
+        return userDtoCache.get(userId, () -> PrimaryReads.call(() -> userReadRepository.findById(userId)))
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+    }
+    @Override
+    @Transactional(readOnly = true)
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public List<UserDTO> searchUsersInOrganization(UUID organizationId, String query, int limit) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+        String term = query == null ? "" : query.strip();
+        if (term.length() < MIN_SEARCH_TERM_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at least " + MIN_SEARCH_TERM_LENGTH + " characters");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return userReadRepository.searchByOrganizationId(organizationId, term, Math.min(limit, MAX_SEARCH_RESULTS));
+    }
 
-        return userMapper.toDto(user);
+    @Override
+    @Transactional(readOnly = true)
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public UserCountsDTO getUserCounts(UUID organizationId) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+        return new UserCountsDTO(organizationId,
+                userCountRepository.countUsersByOrganizationId(organizationId),
+                userCountRepository.countUsersByRole(organizationId));
     }
+
     // bulk fetch
+    @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> getUsersByIds(List<UUID> userIds) {
-        List<User> users = userRepository.findAllById(userIds);
-        return users.stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+        return userReadRepository.findAllById(userIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BulkUserLookupResponse lookupUsers(List<UUID> userIds, Set<String> fields) {
+        return lookupUsersInternal(userIds, fields, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public BulkUserLookupResponse lookupUsersInOrganization(List<UUID> userIds, Set<String> fields, UUID organizationId) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+        return lookupUsersInternal(userIds, fields, organizationId);
+    }
+
+    private BulkUserLookupResponse lookupUsersInternal(List<UUID> userIds, Set<String> fields, UUID organizationId) {
+        if (userIds == null) {
+            throw new IllegalArgumentException("User IDs cannot be null");
+        }
+        if (userIds.size() > MAX_BULK_LOOKUP_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_LOOKUP_IDS + " ids can be looked up at once");
+        }
+
+        Set<UserField> selected = UserField.parse(fields);
+
+        // Distinct ids in first-seen order; nulls are ignored
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        distinctIds.remove(null);
+
+        Map<Object, Map<String, Object>> found = new HashMap<>(distinctIds.size() * 2);
+        for (int from = 0; from < distinctIds.size(); from += BULK_LOOKUP_CHUNK_SIZE) {
+            List<UUID> chunk = distinctIds.subList(from, Math.min(from + BULK_LOOKUP_CHUNK_SIZE, distinctIds.size()));
+            for (Map<String, Object> row : userReadRepository.findFieldsByIds(chunk, organizationId, selected)) {
+                found.put(row.get(UserField.ID.getJsonName()), row);
+            }
+        }
+
+        List<Map<String, Object>> users = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : distinctIds) {
+            Map<String, Object> row = found.get(id);
+            if (row != null) {
+                users.add(row);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BulkUserLookupResponse(users, missing);
     }
 
     @Override
@@ -127,10 +316,10 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Organization ID cannot be null");
         }
 
-        User user = userRepository.findByIdAndOrganizationId(userId, organizationId)
+        // Cached by id only; the organization check is applied to the cached value
+        return userDtoCache.get(userId, () -> PrimaryReads.call(() -> userReadRepository.findById(userId)))
+                .filter(user -> organizationId.equals(user.getOrganizationId()))
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId + " in organization: " + organizationId));
-
-        return userMapper.toDto(user);
     }
     // CHECK EXISTANCE
     @Override
@@ -139,7 +328,48 @@ public class UserServiceImpl implements UserService {
         if (userId == null) {
             return false;
         }
-        return userRepository.existsById(userId);
+        return userIdIndex.contains(userId) || userRepository.existsById(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BitSet existsByIds(List<UUID> userIds) {
+        if (userIds == null) {
+            throw new IllegalArgumentException("User IDs cannot be null");
+        }
+        if (userIds.size() > MAX_BULK_LOOKUP_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_LOOKUP_IDS + " ids can be checked at once");
+        }
+
+        BitSet exists = new BitSet(userIds.size());
+        List<UUID> misses = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            UUID userId = userIds.get(i);
+            if (userIdIndex.contains(userId)) {
+                exists.set(i);
+            } else if (userId != null) {
+                misses.add(userId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return exists;
+        }
+
+        // Misses are expected to be rare once the index is warm; confirm them in bounded batches
+        List<UUID> distinctMisses = new ArrayList<>(new LinkedHashSet<>(misses));
+        Set<UUID> confirmed = new HashSet<>();
+        for (int from = 0; from < distinctMisses.size(); from += BULK_LOOKUP_CHUNK_SIZE) {
+            confirmed.addAll(userReadRepository.findExistingIds(
+                    distinctMisses.subList(from, Math.min(from + BULK_LOOKUP_CHUNK_SIZE, distinctMisses.size()))));
+        }
+        if (!confirmed.isEmpty()) {
+            for (int i = 0; i < userIds.size(); i++) {
+                if (!exists.get(i) && confirmed.contains(userIds.get(i))) {
+                    exists.set(i);
+                }
+            }
+        }
+        return exists;
     }
 
     // UPDATE METHODS
@@ -150,7 +380,7 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("User ID cannot be null");
         }
 
-        User existingUser = userRepository.findById(id)
+        User existingUser = userRepository.findWithRolesById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
 
         return updateUserInternal(existingUser, userDTO);
@@ -167,7 +397,7 @@ public UserDTO updateUserInOrganization(UUID id, UserDTO userDTO, UUID organizat
         throw new IllegalArgumentException("Organization ID cannot be null");
     }
 
-    User existingUser = userRepository.findByIdAndOrganizationId(id, organizationId)
+    User existingUser = userRepository.findWithRolesByIdAndOrganizationId(id, organizationId)
             .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id + " in organization: " + organizationId));
 
     // Check for username uniqueness within the organization
@@ -200,6 +430,7 @@ public UserDTO updateUserInOrganization(UUID id, UserDTO userDTO, UUID organizat
         }
 
         User updatedUser = userRepository.save(existingUser);
+        userInvalidationBus.userChanged(updatedUser.getId(), updatedUser.getOrganizationId());
         return userMapper.toDto(updatedUser);
     }
 
@@ -215,6 +446,7 @@ public UserDTO updateUserInOrganization(UUID id, UserDTO userDTO, UUID organizat
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
 
         userRepository.delete(user);
+        userInvalidationBus.userDeleted(userId, user.getOrganizationId());
     }
 
     @Override
@@ -232,6 +464,7 @@ public UserDTO updateUserInOrganization(UUID id, UserDTO userDTO, UUID organizat
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId + " in organization: " + organizationId));
 
         userRepository.delete(user);
+        userInvalidationBus.userDeleted(userId, user.getOrganizationId());
     }
 
     // ROLE MANAGEMENT METHODS
@@ -257,13 +490,12 @@ public UserDTO updateUserInOrganization(UUID id, UserDTO userDTO, UUID organizat
         if (!userRepository.hasRole(userId, roleId)) {
 
             userRepository.addRoleToUser(userId, roleId);
+            userInvalidationBus.userChanged(userId, user.getOrganizationId());
         }
 
 
-        User updatedUser = userRepository.findById(userId)
+        return userReadRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
-
-        return userMapper.toDto(updatedUser);
     }
     @Override
     @Transactional
@@ -295,13 +527,12 @@ public UserDTO updateUserInOrganization(UUID id, UserDTO userDTO, UUID organizat
         if (!userRepository.hasRole(userId, roleId)) {
             // Add the role relationship directly in the database
             userRepository.addRoleToUser(userId, roleId);
+            userInvalidationBus.userChanged(userId, user.getOrganizationId());
         }
 
-        // Fetch the updated user with roles
-        User updatedUser = userRepository.findByIdAndOrganizationId(userId, organizationId)
+        // Fetch the updated user with roles; the projection sees the native insert above
+        return userReadRepository.findByIdAndOrganizationId(userId, organizationId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId + " in organization: " + organizationId));
-
-        return userMapper.toDto(updatedUser);
     }
 
     @Override
@@ -325,12 +556,11 @@ public UserDTO updateUserInOrganization(UUID id, UserDTO userDTO, UUID organizat
 
         // Remove the role relationship directly from the database
         userRepository.removeRoleFromUser(userId, roleId);
+        userInvalidationBus.userChanged(userId, user.getOrganizationId());
 
         // Fetch the updated user
-        User updatedUser = userRepository.findById(userId)
+        return userReadRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
-
-        return userMapper.toDto(updatedUser);
     }
 
     @Override
@@ -358,11 +588,158 @@ public UserDTO updateUserInOrganization(UUID id, UserDTO userDTO, UUID organizat
 
         // Remove the role relationship directly from the database
         userRepository.removeRoleFromUser(userId, roleId);
+        userInvalidationBus.userChanged(userId, user.getOrganizationId());
 
         // Fetch the updated user
-        User updatedUser = userRepository.findByIdAndOrganizationId(userId, organizationId)
+        return userReadRepository.findByIdAndOrganizationId(userId, organizationId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId + " in organization: " + organizationId));
+    }
 
-        return userMapper.toDto(updatedUser);
+    // BULK ROLE ASSIGNMENT
+    // One statement each, scoped to the organization in SQL; the entity is only looked up to tell
+    // a missing role or user apart from a no-op when nothing changed
+    @Override
+    @Transactional
+    public RoleAssignmentResultDTO assignRoleToUsers(UUID roleId, List<UUID> userIds) {
+        return assignRoleToUsersInternal(roleId, userIds, findRoleOrganizationId(roleId));
+    }
+
+    @Override
+    @Transactional
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public RoleAssignmentResultDTO assignRoleToUsersInOrganization(UUID roleId, List<UUID> userIds, UUID organizationId) {
+        return assignRoleToUsersInternal(roleId, userIds, organizationId);
+    }
+
+    @Override
+    @Transactional
+    public RoleAssignmentResultDTO revokeRoleFromUsers(UUID roleId, List<UUID> userIds) {
+        return revokeRoleFromUsersInternal(roleId, userIds, findRoleOrganizationId(roleId));
+    }
+
+    @Override
+    @Transactional
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public RoleAssignmentResultDTO revokeRoleFromUsersInOrganization(UUID roleId, List<UUID> userIds, UUID organizationId) {
+        return revokeRoleFromUsersInternal(roleId, userIds, organizationId);
+    }
+
+    @Override
+    @Transactional
+    public RoleAssignmentResultDTO assignRolesToUser(UUID userId, List<UUID> roleIds) {
+        return assignRolesToUserInternal(userId, roleIds, findUserOrganizationId(userId));
+    }
+
+    @Override
+    @Transactional
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public RoleAssignmentResultDTO assignRolesToUserInOrganization(UUID userId, List<UUID> roleIds, UUID organizationId) {
+        return assignRolesToUserInternal(userId, roleIds, organizationId);
+    }
+
+    @Override
+    @Transactional
+    public RoleAssignmentResultDTO revokeRolesFromUser(UUID userId, List<UUID> roleIds) {
+        return revokeRolesFromUserInternal(userId, roleIds, findUserOrganizationId(userId));
+    }
+
+    @Override
+    @Transactional
+    @RequireOrganizationAccess(organizationIdParam = "organizationId")
+    public RoleAssignmentResultDTO revokeRolesFromUserInOrganization(UUID userId, List<UUID> roleIds, UUID organizationId) {
+        return revokeRolesFromUserInternal(userId, roleIds, organizationId);
     }
-}
\ No newline at end of file
+
+    private RoleAssignmentResultDTO assignRoleToUsersInternal(UUID roleId, List<UUID> userIds, UUID organizationId) {
+        Set<UUID> ids = bulkAssignmentIds(roleId, "Role", userIds, "User", organizationId);
+        List<UUID> changed = ids.isEmpty() ? List.of() : userRoleRepository.assignRoleToUsers(roleId, ids, organizationId);
+        if (changed.isEmpty()) {
+            requireRoleInOrganization(roleId, organizationId);
+        }
+        userInvalidationBus.usersChanged(changed, organizationId);
+        return new RoleAssignmentResultDTO(ids.size(), changed.size());
+    }
+
+    private RoleAssignmentResultDTO revokeRoleFromUsersInternal(UUID roleId, List<UUID> userIds, UUID organizationId) {
+        Set<UUID> ids = bulkAssignmentIds(roleId, "Role", userIds, "User", organizationId);
+        List<UUID> changed = ids.isEmpty() ? List.of() : userRoleRepository.revokeRoleFromUsers(roleId, ids, organizationId);
+        if (changed.isEmpty()) {
+            requireRoleInOrganization(roleId, organizationId);
+        }
+        userInvalidationBus.usersChanged(changed, organizationId);
+        return new RoleAssignmentResultDTO(ids.size(), changed.size());
+    }
+
+    private RoleAssignmentResultDTO assignRolesToUserInternal(UUID userId, List<UUID> roleIds, UUID organizationId) {
+        Set<UUID> ids = bulkAssignmentIds(userId, "User", roleIds, "Role", organizationId);
+        List<UUID> changed = ids.isEmpty() ? List.of() : userRoleRepository.assignRolesToUser(userId, ids, organizationId);
+        if (changed.isEmpty()) {
+            requireUserInOrganization(userId, organizationId);
+        } else {
+            userInvalidationBus.userChanged(userId, organizationId);
+        }
+        return new RoleAssignmentResultDTO(ids.size(), changed.size());
+    }
+
+    private RoleAssignmentResultDTO revokeRolesFromUserInternal(UUID userId, List<UUID> roleIds, UUID organizationId) {
+        Set<UUID> ids = bulkAssignmentIds(userId, "User", roleIds, "Role", organizationId);
+        List<UUID> changed = ids.isEmpty() ? List.of() : userRoleRepository.revokeRolesFromUser(userId, ids, organizationId);
+        if (changed.isEmpty()) {
+            requireUserInOrganization(userId, organizationId);
+        } else {
+            userInvalidationBus.userChanged(userId, organizationId);
+        }
+        return new RoleAssignmentResultDTO(ids.size(), changed.size());
+    }
+
+    private static Set<UUID> bulkAssignmentIds(UUID id, String idName, List<UUID> ids, String idsName, UUID organizationId) {
+        if (id == null) {
+            throw new IllegalArgumentException(idName + " ID cannot be null");
+        }
+        if (organizationId == null) {
+            throw new IllegalArgumentException("Organization ID cannot be null");
+        }
+        if (ids == null) {
+            throw new IllegalArgumentException(idsName + " IDs cannot be null");
+        }
+        if (ids.size() > MAX_BULK_ASSIGNMENT_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_ASSIGNMENT_IDS + " ids can be assigned at once");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(idsName + " ID cannot be null");
+        }
+        return new LinkedHashSet<>(ids);
+    }
+
+    private UUID findRoleOrganizationId(UUID roleId) {
+        if (roleId == null) {
+            throw new IllegalArgumentException("Role ID cannot be null");
+        }
+        return roleRepository.findById(roleId)
+                .map(Role::getOrganizationId)
+                .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
+    }
+
+    private UUID findUserOrganizationId(UUID userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        return userRepository.findById(userId)
+                .map(User::getOrganizationId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+    }
+
+    private void requireRoleInOrganization(UUID roleId, UUID organizationId) {
+        Role role = roleRepository.findById(roleId)
+                .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + roleId));
+        if (!role.getOrganizationId().equals(organizationId)) {
+            throw new EntityNotFoundException("Role not found in the specified organization");
+        }
+    }
+
+    private void requireUserInOrganization(UUID userId, UUID organizationId) {
+        if (userRepository.findByIdAndOrganizationId(userId, organizationId).isEmpty()) {
+            throw new EntityNotFoundException("User not found with id: " + userId + " in organization: " + organizationId);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.hsurvey.userservice.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a listing ordered by (organization_id, id), exchanged with clients as an
+ * opaque URL-safe token.
+ */
+public record KeysetCursor(UUID organizationId, UUID id) {
+
+    // Sorts before every UUID in Postgres' unsigned byte ordering
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    public static KeysetCursor start() {
+        return new KeysetCursor(MIN_UUID, MIN_UUID);
+    }
+
+    public static KeysetCursor startOf(UUID organizationId) {
+        return new KeysetCursor(organizationId, MIN_UUID);
+    }
+
+    public String encode() {
+        String raw = organizationId + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new KeysetCursor(
+                    UUID.fromString(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
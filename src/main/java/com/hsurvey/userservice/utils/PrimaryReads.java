@@ -0,0 +1,34 @@
+package com.hsurvey.userservice.utils;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends reads made inside call() to the primary even in read-only transactions, for results
+ * that are cached or tagged with a version read from the primary and so must not lag behind it.
+ * Routing happens when a transaction first touches the database, so call() must wrap that first
+ * statement. A no-op when no read replicas are configured.
+ */
+public final class PrimaryReads {
+    private static final ThreadLocal<Integer> DEPTH = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        Integer depth = DEPTH.get();
+        DEPTH.set(depth == null ? 1 : depth + 1);
+        try {
+            return read.get();
+        } finally {
+            if (depth == null) {
+                DEPTH.remove();
+            } else {
+                DEPTH.set(depth);
+            }
+        }
+    }
+
+    public static boolean isRequired() {
+        return DEPTH.get() != null;
+    }
+}
@@ -0,0 +1,45 @@
+-- Core tables as mapped by the JPA entities. Hibernate (ddl-auto=update) used to be the only
+-- thing creating them, but it runs after Flyway, so later migrations that index these tables
+-- need them to exist first. Unique and foreign key constraints are still added by Hibernate.
+CREATE TABLE IF NOT EXISTS users (
+    id              uuid         NOT NULL PRIMARY KEY,
+    email           varchar(255) NOT NULL,
+    organization_id uuid         NOT NULL,
+    password        varchar(255) NOT NULL,
+    username        varchar(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS roles (
+    id              uuid         NOT NULL PRIMARY KEY,
+    description     varchar(255),
+    name            varchar(255) NOT NULL,
+    organization_id uuid         NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS permissions (
+    id              uuid         NOT NULL PRIMARY KEY,
+    description     varchar(255),
+    name            varchar(255) NOT NULL,
+    organization_id uuid         NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id uuid NOT NULL,
+    role_id uuid NOT NULL,
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE IF NOT EXISTS role_permissions (
+    role_id       uuid NOT NULL,
+    permission_id uuid NOT NULL,
+    PRIMARY KEY (role_id, permission_id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS refresh_token_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS refresh_token (
+    id          bigint                      NOT NULL PRIMARY KEY,
+    expiry_date timestamp(6) with time zone NOT NULL,
+    token       varchar(255)                NOT NULL,
+    user_id     uuid                        NOT NULL
+);
@@ -0,0 +1,2 @@
+-- Supports keyset pagination of GET /api/users ordered by (organization_id, id)
+CREATE INDEX IF NOT EXISTS idx_users_organization_id_id ON users (organization_id, id);
@@ -0,0 +1,8 @@
+-- Substring search on username and email (GET /api/users/search). Trigram GIN indexes serve
+-- LIKE '%term%' for terms of three or more characters; the organization filter is combined
+-- with idx_users_organization_id_id through a bitmap AND.
+-- pg_trgm is a trusted extension (PG13+), so the database owner can create it.
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) public.gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) public.gin_trgm_ops);
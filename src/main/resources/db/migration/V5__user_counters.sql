@@ -0,0 +1,108 @@
+-- Per-organization and per-role user counts, kept current by statement-level triggers so every
+-- write path (JPA, native SQL, bulk statements) is covered and a bulk statement costs one upsert
+-- per affected organization or role instead of one per row. UserCountReconciler checks them.
+CREATE TABLE IF NOT EXISTS organization_user_counts (
+    organization_id uuid   NOT NULL PRIMARY KEY,
+    user_count      bigint NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS role_user_counts (
+    role_id         uuid   NOT NULL PRIMARY KEY,
+    organization_id uuid   NOT NULL,
+    user_count      bigint NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_role_user_counts_organization_id ON role_user_counts (organization_id);
+
+-- Rows are upserted in key order so concurrent bulk statements lock counters in the same order.
+-- SET search_path FROM CURRENT pins the function to this schema regardless of the caller's path.
+CREATE OR REPLACE FUNCTION count_users_inserted() RETURNS trigger
+    LANGUAGE plpgsql SET search_path FROM CURRENT AS $$
+BEGIN
+    INSERT INTO organization_user_counts AS c (organization_id, user_count)
+    SELECT organization_id, count(*) FROM inserted_users GROUP BY organization_id ORDER BY organization_id
+    ON CONFLICT (organization_id) DO UPDATE SET user_count = c.user_count + EXCLUDED.user_count;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION count_users_deleted() RETURNS trigger
+    LANGUAGE plpgsql SET search_path FROM CURRENT AS $$
+BEGIN
+    INSERT INTO organization_user_counts AS c (organization_id, user_count)
+    SELECT organization_id, -count(*) FROM deleted_users GROUP BY organization_id ORDER BY organization_id
+    ON CONFLICT (organization_id) DO UPDATE SET user_count = c.user_count + EXCLUDED.user_count;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION count_user_roles_inserted() RETURNS trigger
+    LANGUAGE plpgsql SET search_path FROM CURRENT AS $$
+BEGIN
+    INSERT INTO role_user_counts AS c (role_id, organization_id, user_count)
+    SELECT i.role_id, r.organization_id, count(*)
+    FROM inserted_user_roles i
+    JOIN roles r ON r.id = i.role_id
+    GROUP BY i.role_id, r.organization_id
+    ORDER BY i.role_id
+    ON CONFLICT (role_id) DO UPDATE SET user_count = c.user_count + EXCLUDED.user_count;
+    RETURN NULL;
+END
+$$;
+
+-- No join to roles: the role may already be gone when its memberships are removed
+CREATE OR REPLACE FUNCTION count_user_roles_deleted() RETURNS trigger
+    LANGUAGE plpgsql SET search_path FROM CURRENT AS $$
+BEGIN
+    UPDATE role_user_counts c
+    SET user_count = c.user_count - d.removed
+    FROM (SELECT role_id, count(*) AS removed FROM deleted_user_roles GROUP BY role_id) d
+    WHERE c.role_id = d.role_id;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION count_roles_deleted() RETURNS trigger
+    LANGUAGE plpgsql SET search_path FROM CURRENT AS $$
+BEGIN
+    DELETE FROM role_user_counts c USING deleted_roles d WHERE c.role_id = d.id;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS trg_users_count_insert ON users;
+CREATE TRIGGER trg_users_count_insert AFTER INSERT ON users
+    REFERENCING NEW TABLE AS inserted_users
+    FOR EACH STATEMENT EXECUTE FUNCTION count_users_inserted();
+
+DROP TRIGGER IF EXISTS trg_users_count_delete ON users;
+CREATE TRIGGER trg_users_count_delete AFTER DELETE ON users
+    REFERENCING OLD TABLE AS deleted_users
+    FOR EACH STATEMENT EXECUTE FUNCTION count_users_deleted();
+
+DROP TRIGGER IF EXISTS trg_user_roles_count_insert ON user_roles;
+CREATE TRIGGER trg_user_roles_count_insert AFTER INSERT ON user_roles
+    REFERENCING NEW TABLE AS inserted_user_roles
+    FOR EACH STATEMENT EXECUTE FUNCTION count_user_roles_inserted();
+
+DROP TRIGGER IF EXISTS trg_user_roles_count_delete ON user_roles;
+CREATE TRIGGER trg_user_roles_count_delete AFTER DELETE ON user_roles
+    REFERENCING OLD TABLE AS deleted_user_roles
+    FOR EACH STATEMENT EXECUTE FUNCTION count_user_roles_deleted();
+
+DROP TRIGGER IF EXISTS trg_roles_count_delete ON roles;
+CREATE TRIGGER trg_roles_count_delete AFTER DELETE ON roles
+    REFERENCING OLD TABLE AS deleted_roles
+    FOR EACH STATEMENT EXECUTE FUNCTION count_roles_deleted();
+
+-- Seed from existing data; the triggers keep the counts from here on
+INSERT INTO organization_user_counts (organization_id, user_count)
+SELECT organization_id, count(*) FROM users GROUP BY organization_id
+ON CONFLICT (organization_id) DO UPDATE SET user_count = EXCLUDED.user_count;
+
+INSERT INTO role_user_counts (role_id, organization_id, user_count)
+SELECT r.id, r.organization_id, count(*)
+FROM user_roles ur
+JOIN roles r ON r.id = ur.role_id
+GROUP BY r.id, r.organization_id
+ON CONFLICT (role_id) DO UPDATE SET user_count = EXCLUDED.user_count;
@@ -0,0 +1,102 @@
+-- Per-organization change counters behind the weak ETags on GET /api/users, /api/roles and
+-- /api/permissions. Bumped by statement-level triggers in the writing transaction, so a client
+-- can never see a new version before the data it covers has committed.
+--   users_version       users, their role assignments, and the names of their roles
+--   roles_version       roles, their permission assignments, and the names of their permissions
+--   permissions_version permissions
+CREATE TABLE IF NOT EXISTS organization_versions (
+    organization_id     uuid   NOT NULL PRIMARY KEY,
+    users_version       bigint NOT NULL DEFAULT 0,
+    roles_version       bigint NOT NULL DEFAULT 0,
+    permissions_version bigint NOT NULL DEFAULT 0
+);
+
+CREATE OR REPLACE FUNCTION bump_organization_versions(organization_ids uuid[], users_increment integer,
+                                                      roles_increment integer, permissions_increment integer)
+    RETURNS void
+    LANGUAGE sql SET search_path FROM CURRENT AS $$
+    INSERT INTO organization_versions AS v (organization_id, users_version, roles_version, permissions_version)
+    SELECT DISTINCT id, users_increment, roles_increment, permissions_increment FROM unnest(organization_ids) AS id
+    WHERE id IS NOT NULL
+    ORDER BY id
+    ON CONFLICT (organization_id) DO UPDATE
+        SET users_version       = v.users_version + EXCLUDED.users_version,
+            roles_version       = v.roles_version + EXCLUDED.roles_version,
+            permissions_version = v.permissions_version + EXCLUDED.permissions_version;
+$$;
+
+-- For tables with an organization_id column; TG_ARGV holds the users/roles/permissions increments
+CREATE OR REPLACE FUNCTION organization_rows_changed() RETURNS trigger
+    LANGUAGE plpgsql SET search_path FROM CURRENT AS $$
+BEGIN
+    PERFORM bump_organization_versions(ARRAY(SELECT DISTINCT organization_id FROM changed_rows),
+                                       TG_ARGV[0]::integer, TG_ARGV[1]::integer, TG_ARGV[2]::integer);
+    RETURN NULL;
+END
+$$;
+
+-- A user deleted in the same transaction bumps its organization through the users trigger
+CREATE OR REPLACE FUNCTION user_roles_changed() RETURNS trigger
+    LANGUAGE plpgsql SET search_path FROM CURRENT AS $$
+BEGIN
+    PERFORM bump_organization_versions(ARRAY(
+            SELECT DISTINCT u.organization_id FROM changed_rows c JOIN users u ON u.id = c.user_id), 1, 0, 0);
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION role_permissions_changed() RETURNS trigger
+    LANGUAGE plpgsql SET search_path FROM CURRENT AS $$
+BEGIN
+    PERFORM bump_organization_versions(ARRAY(
+            SELECT DISTINCT r.organization_id FROM changed_rows c JOIN roles r ON r.id = c.role_id), 0, 1, 0);
+    RETURN NULL;
+END
+$$;
+
+-- Transition tables allow a single event per trigger, hence one trigger per operation
+DROP TRIGGER IF EXISTS trg_users_version_insert ON users;
+CREATE TRIGGER trg_users_version_insert AFTER INSERT ON users REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION organization_rows_changed('1', '0', '0');
+DROP TRIGGER IF EXISTS trg_users_version_update ON users;
+CREATE TRIGGER trg_users_version_update AFTER UPDATE ON users REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION organization_rows_changed('1', '0', '0');
+DROP TRIGGER IF EXISTS trg_users_version_delete ON users;
+CREATE TRIGGER trg_users_version_delete AFTER DELETE ON users REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION organization_rows_changed('1', '0', '0');
+
+-- Users carry role names, so role changes bump both
+DROP TRIGGER IF EXISTS trg_roles_version_insert ON roles;
+CREATE TRIGGER trg_roles_version_insert AFTER INSERT ON roles REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION organization_rows_changed('0', '1', '0');
+DROP TRIGGER IF EXISTS trg_roles_version_update ON roles;
+CREATE TRIGGER trg_roles_version_update AFTER UPDATE ON roles REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION organization_rows_changed('1', '1', '0');
+DROP TRIGGER IF EXISTS trg_roles_version_delete ON roles;
+CREATE TRIGGER trg_roles_version_delete AFTER DELETE ON roles REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION organization_rows_changed('1', '1', '0');
+
+-- Roles carry permission names, so permission changes bump both
+DROP TRIGGER IF EXISTS trg_permissions_version_insert ON permissions;
+CREATE TRIGGER trg_permissions_version_insert AFTER INSERT ON permissions REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION organization_rows_changed('0', '0', '1');
+DROP TRIGGER IF EXISTS trg_permissions_version_update ON permissions;
+CREATE TRIGGER trg_permissions_version_update AFTER UPDATE ON permissions REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION organization_rows_changed('0', '1', '1');
+DROP TRIGGER IF EXISTS trg_permissions_version_delete ON permissions;
+CREATE TRIGGER trg_permissions_version_delete AFTER DELETE ON permissions REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION organization_rows_changed('0', '1', '1');
+
+DROP TRIGGER IF EXISTS trg_user_roles_version_insert ON user_roles;
+CREATE TRIGGER trg_user_roles_version_insert AFTER INSERT ON user_roles REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION user_roles_changed();
+DROP TRIGGER IF EXISTS trg_user_roles_version_delete ON user_roles;
+CREATE TRIGGER trg_user_roles_version_delete AFTER DELETE ON user_roles REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION user_roles_changed();
+
+DROP TRIGGER IF EXISTS trg_role_permissions_version_insert ON role_permissions;
+CREATE TRIGGER trg_role_permissions_version_insert AFTER INSERT ON role_permissions REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION role_permissions_changed();
+DROP TRIGGER IF EXISTS trg_role_permissions_version_delete ON role_permissions;
+CREATE TRIGGER trg_role_permissions_version_delete AFTER DELETE ON role_permissions REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION role_permissions_changed();
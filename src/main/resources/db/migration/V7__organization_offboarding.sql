@@ -0,0 +1,23 @@
+-- Progress of organization offboarding jobs, one row per organization. phase is the next table
+-- to empty; every batch locks the row, deletes, and records its progress in one transaction,
+-- so a job resumes exactly where it stopped after a crash.
+CREATE TABLE IF NOT EXISTS organization_offboarding_jobs (
+    organization_id uuid        NOT NULL PRIMARY KEY,
+    status          varchar(16) NOT NULL,
+    phase           varchar(32) NOT NULL,
+    deleted_rows    bigint      NOT NULL DEFAULT 0,
+    started_at      timestamptz NOT NULL,
+    updated_at      timestamptz NOT NULL,
+    finished_at     timestamptz,
+    error           text
+);
+
+CREATE INDEX IF NOT EXISTS idx_organization_offboarding_jobs_running
+    ON organization_offboarding_jobs (organization_id) WHERE status = 'RUNNING';
+
+-- The batched deletes find rows by these columns; without them every batch scans the table
+CREATE INDEX IF NOT EXISTS idx_refresh_token_user_id ON refresh_token (user_id);
+CREATE INDEX IF NOT EXISTS idx_user_roles_role_id ON user_roles (role_id);
+CREATE INDEX IF NOT EXISTS idx_role_permissions_permission_id ON role_permissions (permission_id);
+CREATE INDEX IF NOT EXISTS idx_roles_organization_id ON roles (organization_id);
+CREATE INDEX IF NOT EXISTS idx_permissions_organization_id ON permissions (organization_id);
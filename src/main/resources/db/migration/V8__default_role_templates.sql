@@ -0,0 +1,201 @@
+-- Default roles and permissions every organization starts with, as data. OrganizationRoleService
+-- copies them into an organization with a few INSERT ... SELECT statements; changing a default
+-- is a new migration, and only organizations provisioned afterwards pick it up.
+CREATE TABLE IF NOT EXISTS default_permission_templates (
+    name        varchar(255) NOT NULL PRIMARY KEY,
+    description varchar(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS default_role_templates (
+    name        varchar(255) NOT NULL PRIMARY KEY,
+    description varchar(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS default_role_template_permissions (
+    role_name       varchar(255) NOT NULL REFERENCES default_role_templates (name),
+    permission_name varchar(255) NOT NULL REFERENCES default_permission_templates (name),
+    PRIMARY KEY (role_name, permission_name)
+);
+
+INSERT INTO default_permission_templates (name, description) VALUES
+    ('ORG_MANAGER', 'Default org manager permission'),
+    ('DEPARTMENT_MANAGER', 'Default department manager permission'),
+    ('TEAM_MANAGER', 'Default team manager permission'),
+    ('PERMISSION_CREATE', 'Default permission create permission'),
+    ('PERMISSION_READ', 'Default permission read permission'),
+    ('PERMISSION_UPDATE', 'Default permission update permission'),
+    ('PERMISSION_DELETE', 'Default permission delete permission'),
+    ('ROLE_CREATE', 'Default role create permission'),
+    ('ROLE_READ', 'Default role read permission'),
+    ('ROLE_UPDATE', 'Default role update permission'),
+    ('ROLE_DELETE', 'Default role delete permission'),
+    ('USER_CREATE', 'Default user create permission'),
+    ('USER_READ', 'Default user read permission'),
+    ('USER_UPDATE', 'Default user update permission'),
+    ('USER_DELETE', 'Default user delete permission'),
+    ('SURVEY_READ', 'Default survey read permission'),
+    ('SURVEY_CREATE', 'Default survey create permission'),
+    ('SURVEY_UPDATE', 'Default survey update permission'),
+    ('SURVEY_DELETE', 'Default survey delete permission'),
+    ('SURVEY_LOCK', 'Default survey lock permission'),
+    ('SURVEY_UNLOCK', 'Default survey unlock permission'),
+    ('OPTION_CREATE', 'Default option create permission'),
+    ('OPTION_READ', 'Default option read permission'),
+    ('OPTION_UPDATE', 'Default option update permission'),
+    ('OPTION_DELETE', 'Default option delete permission'),
+    ('OPTION_LOCK', 'Default option lock permission'),
+    ('OPTION_UNLOCK', 'Default option unlock permission'),
+    ('QUESTION_CREATE', 'Default question create permission'),
+    ('QUESTION_READ', 'Default question read permission'),
+    ('QUESTION_UPDATE', 'Default question update permission'),
+    ('QUESTION_DELETE', 'Default question delete permission'),
+    ('QUESTION_LOCK', 'Default question lock permission'),
+    ('QUESTION_UNLOCK', 'Default question unlock permission'),
+    ('ORGANIZATION_READ', 'Default organization read permission'),
+    ('ORGANIZATION_UPDATE', 'Default organization update permission'),
+    ('ORGANIZATION_DELETE', 'Default organization delete permission'),
+    ('DEPARTMENT_CREATE', 'Default department create permission'),
+    ('DEPARTMENT_READ', 'Default department read permission'),
+    ('DEPARTMENT_UPDATE', 'Default department update permission'),
+    ('DEPARTMENT_DELETE', 'Default department delete permission'),
+    ('TEAM_CREATE', 'Default team create permission'),
+    ('TEAM_READ', 'Default team read permission'),
+    ('TEAM_UPDATE', 'Default team update permission'),
+    ('TEAM_DELETE', 'Default team delete permission')
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO default_role_templates (name, description) VALUES
+    ('USER', 'Default user role with no permissions'),
+    ('ORGANIZATION MANAGER', 'Organization manager role with all permissions except department and team management'),
+    ('DEPARTMENT MANAGER', 'Department manager role with survey, option, question, team, and department permissions'),
+    ('TEAM MANAGER', 'Team manager role with survey, option, question, and team permissions')
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO default_role_template_permissions (role_name, permission_name)
+SELECT 'ORGANIZATION MANAGER', name FROM default_permission_templates
+WHERE name NOT IN ('DEPARTMENT_MANAGER', 'TEAM_MANAGER')
+ON CONFLICT DO NOTHING;
+
+INSERT INTO default_role_template_permissions (role_name, permission_name) VALUES
+    ('DEPARTMENT MANAGER', 'DEPARTMENT_MANAGER'),
+    ('DEPARTMENT MANAGER', 'SURVEY_READ'),
+    ('DEPARTMENT MANAGER', 'SURVEY_CREATE'),
+    ('DEPARTMENT MANAGER', 'SURVEY_UPDATE'),
+    ('DEPARTMENT MANAGER', 'SURVEY_DELETE'),
+    ('DEPARTMENT MANAGER', 'SURVEY_LOCK'),
+    ('DEPARTMENT MANAGER', 'SURVEY_UNLOCK'),
+    ('DEPARTMENT MANAGER', 'OPTION_CREATE'),
+    ('DEPARTMENT MANAGER', 'OPTION_READ'),
+    ('DEPARTMENT MANAGER', 'OPTION_UPDATE'),
+    ('DEPARTMENT MANAGER', 'OPTION_DELETE'),
+    ('DEPARTMENT MANAGER', 'OPTION_LOCK'),
+    ('DEPARTMENT MANAGER', 'OPTION_UNLOCK'),
+    ('DEPARTMENT MANAGER', 'QUESTION_CREATE'),
+    ('DEPARTMENT MANAGER', 'QUESTION_READ'),
+    ('DEPARTMENT MANAGER', 'QUESTION_UPDATE'),
+    ('DEPARTMENT MANAGER', 'QUESTION_DELETE'),
+    ('DEPARTMENT MANAGER', 'QUESTION_LOCK'),
+    ('DEPARTMENT MANAGER', 'QUESTION_UNLOCK'),
+    ('DEPARTMENT MANAGER', 'TEAM_CREATE'),
+    ('DEPARTMENT MANAGER', 'TEAM_READ'),
+    ('DEPARTMENT MANAGER', 'TEAM_UPDATE'),
+    ('DEPARTMENT MANAGER', 'TEAM_DELETE'),
+    ('DEPARTMENT MANAGER', 'DEPARTMENT_READ'),
+    ('DEPARTMENT MANAGER', 'DEPARTMENT_UPDATE'),
+    ('TEAM MANAGER', 'TEAM_MANAGER'),
+    ('TEAM MANAGER', 'SURVEY_READ'),
+    ('TEAM MANAGER', 'SURVEY_CREATE'),
+    ('TEAM MANAGER', 'SURVEY_UPDATE'),
+    ('TEAM MANAGER', 'SURVEY_DELETE'),
+    ('TEAM MANAGER', 'SURVEY_LOCK'),
+    ('TEAM MANAGER', 'SURVEY_UNLOCK'),
+    ('TEAM MANAGER', 'OPTION_CREATE'),
+    ('TEAM MANAGER', 'OPTION_READ'),
+    ('TEAM MANAGER', 'OPTION_UPDATE'),
+    ('TEAM MANAGER', 'OPTION_DELETE'),
+    ('TEAM MANAGER', 'OPTION_LOCK'),
+    ('TEAM MANAGER', 'OPTION_UNLOCK'),
+    ('TEAM MANAGER', 'QUESTION_CREATE'),
+    ('TEAM MANAGER', 'QUESTION_READ'),
+    ('TEAM MANAGER', 'QUESTION_UPDATE'),
+    ('TEAM MANAGER', 'QUESTION_DELETE'),
+    ('TEAM MANAGER', 'QUESTION_LOCK'),
+    ('TEAM MANAGER', 'QUESTION_UNLOCK'),
+    ('TEAM MANAGER', 'TEAM_READ'),
+    ('TEAM MANAGER', 'TEAM_UPDATE')
+ON CONFLICT DO NOTHING;
+
+-- Names were only unique per organization by convention: the services check before saving, which
+-- concurrent requests could race. Duplicates are folded into the row with the lowest id before the
+-- indexes provisioning uses as ON CONFLICT targets. Same-name permissions are the same authority,
+-- so their grants move over. Same-name roles are merged only when they grant the same permissions;
+-- otherwise merging would widen what some holders may do, and the migration stops for an operator.
+CREATE TEMPORARY TABLE duplicate_permissions ON COMMIT DROP AS
+SELECT id, survivor_id, organization_id, name
+FROM (SELECT id, organization_id, name,
+             first_value(id) OVER (PARTITION BY organization_id, name ORDER BY id) AS survivor_id
+      FROM permissions) p
+WHERE id <> survivor_id;
+
+INSERT INTO role_permissions (role_id, permission_id)
+SELECT rp.role_id, d.survivor_id
+FROM role_permissions rp
+JOIN duplicate_permissions d ON d.id = rp.permission_id
+ON CONFLICT DO NOTHING;
+
+DELETE FROM role_permissions rp USING duplicate_permissions d WHERE rp.permission_id = d.id;
+DELETE FROM permissions p USING duplicate_permissions d WHERE p.id = d.id;
+
+CREATE TEMPORARY TABLE duplicate_roles ON COMMIT DROP AS
+SELECT id, survivor_id, organization_id, name
+FROM (SELECT id, organization_id, name,
+             first_value(id) OVER (PARTITION BY organization_id, name ORDER BY id) AS survivor_id
+      FROM roles) r
+WHERE id <> survivor_id;
+
+DO $$
+DECLARE
+    conflicts text;
+    merged record;
+BEGIN
+    SELECT string_agg(format('organization %s, role %L: %s', organization_id, name, role_ids), '; ')
+    INTO conflicts
+    FROM (SELECT r.organization_id, r.name, string_agg(r.id::text, ', ' ORDER BY r.id) AS role_ids
+          FROM (SELECT r.id, r.organization_id, r.name,
+                       array(SELECT rp.permission_id FROM role_permissions rp
+                             WHERE rp.role_id = r.id ORDER BY rp.permission_id) AS grants
+                FROM roles r
+                WHERE EXISTS (SELECT 1 FROM duplicate_roles d
+                              WHERE d.organization_id IS NOT DISTINCT FROM r.organization_id AND d.name = r.name)) r
+          GROUP BY r.organization_id, r.name
+          HAVING count(DISTINCT r.grants) > 1) c;
+
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Roles sharing a name grant different permissions; rename or reconcile them, then rerun: %',
+            conflicts;
+    END IF;
+
+    FOR merged IN SELECT * FROM duplicate_permissions ORDER BY organization_id, name, id LOOP
+        RAISE NOTICE 'Merged permission % (%) of organization % into %',
+            merged.id, merged.name, merged.organization_id, merged.survivor_id;
+    END LOOP;
+    FOR merged IN SELECT * FROM duplicate_roles ORDER BY organization_id, name, id LOOP
+        RAISE NOTICE 'Merged role % (%) of organization % into %',
+            merged.id, merged.name, merged.organization_id, merged.survivor_id;
+    END LOOP;
+END
+$$;
+
+-- Only memberships move: the survivor already grants exactly what the duplicate did
+INSERT INTO user_roles (user_id, role_id)
+SELECT ur.user_id, d.survivor_id
+FROM user_roles ur
+JOIN duplicate_roles d ON d.id = ur.role_id
+ON CONFLICT DO NOTHING;
+
+DELETE FROM role_permissions rp USING duplicate_roles d WHERE rp.role_id = d.id;
+DELETE FROM user_roles ur USING duplicate_roles d WHERE ur.role_id = d.id;
+DELETE FROM roles r USING duplicate_roles d WHERE r.id = d.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_roles_organization_id_name ON roles (organization_id, name);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_permissions_organization_id_name ON permissions (organization_id, name);
@@ -0,0 +1,61 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.AdminRegisterRequest;
+import com.hsurvey.userservice.entities.Role;
+import com.hsurvey.userservice.exception.OrganizationManagerAlreadyExistsException;
+import com.hsurvey.userservice.repositories.UserRepository;
+import com.hsurvey.userservice.service.OrganizationRoleService;
+import com.hsurvey.userservice.service.clients.OrganizationClient;
+import com.hsurvey.userservice.service.impl.AuthServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceRegisterAdminTest {
+
+    @Mock
+    private OrganizationClient organizationClient;
+
+    @Mock
+    private OrganizationRoleService organizationRoleService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private AuthServiceImpl authService;
+
+    @Test
+    void testManagerCheckRunsUnderTheProvisioningLock() {
+        UUID organizationId = UUID.randomUUID();
+        Role managerRole = Role.builder().name("ORGANIZATION MANAGER").organizationId(organizationId).build();
+        when(organizationClient.organizationExists(organizationId)).thenReturn(ResponseEntity.ok(true));
+        when(organizationRoleService.getDefaultOrganizationManagerRole(organizationId)).thenReturn(managerRole);
+        when(userRepository.existsByOrganizationIdAndRolesContaining(organizationId, managerRole)).thenReturn(true);
+        AdminRegisterRequest request = new AdminRegisterRequest();
+        request.setUsername("alice");
+        request.setEmail("alice@example.com");
+        request.setPassword("secret1");
+
+        assertThrows(OrganizationManagerAlreadyExistsException.class,
+                () -> authService.registerAdmin(request, organizationId, new MockHttpServletResponse()));
+
+        // createDefaultRolesForOrganization takes the lock; the check must come after it
+        InOrder inOrder = inOrder(organizationRoleService, userRepository);
+        inOrder.verify(organizationRoleService).createDefaultRolesForOrganization(organizationId);
+        inOrder.verify(userRepository).existsByOrganizationIdAndRolesContaining(organizationId, managerRole);
+        verify(userRepository, never()).save(any());
+    }
+}
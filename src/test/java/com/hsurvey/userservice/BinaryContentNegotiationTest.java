@@ -0,0 +1,121 @@
+package com.hsurvey.userservice;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsurvey.userservice.config.ContentNegotiationConfig;
+import com.hsurvey.userservice.dto.UserDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Converter ordering and payload size for the binary formats. The encode/decode CPU comparison
+ * for a 10k-user batch is a benchmark and only runs with -Duserservice.perf=true.
+ */
+class BinaryContentNegotiationTest {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private Map<String, ObjectMapper> mappers;
+    private List<UserDTO> batch;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<Jackson2ObjectMapperBuilder> builders = mock(ObjectProvider.class);
+        when(builders.getObject()).thenAnswer(invocation -> Jackson2ObjectMapperBuilder.json());
+
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2HttpMessageConverter());
+        converters.add(new MappingJackson2SmileHttpMessageConverter());
+        new ContentNegotiationConfig(builders).extendMessageConverters(converters);
+
+        assertInstanceOf(MappingJackson2HttpMessageConverter.class, converters.get(0));
+        assertEquals(3, converters.size());
+
+        mappers = new LinkedHashMap<>();
+        mappers.put("json", new ObjectMapper());
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2SmileHttpMessageConverter smile) {
+                assertTrue(smile.canWrite(UserDTO.class, MediaType.parseMediaType("application/x-jackson-smile")));
+                mappers.put("smile", smile.getObjectMapper());
+            } else if (converter instanceof MappingJackson2CborHttpMessageConverter cbor) {
+                assertTrue(cbor.canWrite(UserDTO.class, MediaType.parseMediaType("application/cbor")));
+                mappers.put("cbor", cbor.getObjectMapper());
+            }
+        }
+
+        UUID organizationId = UUID.randomUUID();
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            UserDTO user = new UserDTO();
+            user.setId(UUID.randomUUID());
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setOrganizationId(organizationId);
+            user.setRoles(Set.of("USER"));
+            batch.add(user);
+        }
+    }
+
+    @Test
+    void testBinaryFormatsRoundTripAndAreSmallerThanJson() throws Exception {
+        JavaType listType = mappers.get("json").getTypeFactory().constructCollectionType(List.class, UserDTO.class);
+        int jsonSize = mappers.get("json").writeValueAsBytes(batch).length;
+
+        for (String format : List.of("smile", "cbor")) {
+            ObjectMapper mapper = mappers.get(format);
+            byte[] encoded = mapper.writeValueAsBytes(batch);
+
+            assertEquals(batch, mapper.readValue(encoded, listType), format);
+            assertTrue(encoded.length < jsonSize, format + " " + encoded.length + " bytes vs json " + jsonSize);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "userservice.perf", matches = "true")
+    void benchmarkEncodeAndDecode() throws Exception {
+        JavaType listType = mappers.get("json").getTypeFactory().constructCollectionType(List.class, UserDTO.class);
+        int iterations = 200;
+
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] encoded = mapper.writeValueAsBytes(batch);
+            // Warm up
+            for (int i = 0; i < iterations; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(batch), listType);
+            }
+
+            long encodeNanos = 0;
+            long decodeNanos = 0;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                encoded = mapper.writeValueAsBytes(batch);
+                long encodedAt = System.nanoTime();
+                mapper.readValue(encoded, listType);
+                decodeNanos += System.nanoTime() - encodedAt;
+                encodeNanos += encodedAt - start;
+            }
+            System.out.printf("%-5s %,9d bytes  encode %6.2f ms  decode %6.2f ms  (%d users)%n",
+                    entry.getKey(), encoded.length, encodeNanos / 1e6 / iterations,
+                    decodeNanos / 1e6 / iterations, BATCH_SIZE);
+        }
+    }
+}
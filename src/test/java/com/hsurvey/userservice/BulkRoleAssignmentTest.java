@@ -0,0 +1,110 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.RoleAssignmentResultDTO;
+import com.hsurvey.userservice.entities.Role;
+import com.hsurvey.userservice.entities.User;
+import com.hsurvey.userservice.mapper.UserMapper;
+import com.hsurvey.userservice.repositories.RoleRepository;
+import com.hsurvey.userservice.repositories.UserCountRepository;
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.repositories.UserRepository;
+import com.hsurvey.userservice.repositories.UserRoleRepository;
+import com.hsurvey.userservice.service.UserDtoCache;
+import com.hsurvey.userservice.service.UserIdIndex;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import com.hsurvey.userservice.service.impl.UserServiceImpl;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkRoleAssignmentTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private UserReadRepository userReadRepository;
+    @Mock private RoleRepository roleRepository;
+    @Mock private UserMapper userMapper;
+    @Mock private PasswordEncoder passwordEncoder;
+    @Mock private UserIdIndex userIdIndex;
+    @Mock private UserDtoCache userDtoCache;
+    @Mock private UserInvalidationBus userInvalidationBus;
+    @Mock private UserCountRepository userCountRepository;
+    @Mock private UserRoleRepository userRoleRepository;
+
+    private UserServiceImpl userService;
+    private UUID organizationId;
+    private UUID roleId;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserServiceImpl(userRepository, userReadRepository, roleRepository, userMapper,
+                passwordEncoder, userIdIndex, userDtoCache, userInvalidationBus, userCountRepository, userRoleRepository);
+        organizationId = UUID.randomUUID();
+        roleId = UUID.randomUUID();
+    }
+
+    @Test
+    void testAssignsDistinctUsersInOneStatementAndInvalidatesOnlyChangedOnes() {
+        UUID newlyAssigned = UUID.randomUUID();
+        UUID alreadyAssigned = UUID.randomUUID();
+        when(userRoleRepository.assignRoleToUsers(roleId, Set.of(newlyAssigned, alreadyAssigned), organizationId))
+                .thenReturn(List.of(newlyAssigned));
+
+        RoleAssignmentResultDTO result = userService.assignRoleToUsersInOrganization(
+                roleId, List.of(newlyAssigned, alreadyAssigned, newlyAssigned), organizationId);
+
+        assertEquals(2, result.getRequested());
+        assertEquals(1, result.getChanged());
+        verify(userInvalidationBus).usersChanged(List.of(newlyAssigned), organizationId);
+        verifyNoInteractions(roleRepository, userRepository);
+    }
+
+    @Test
+    void testNoChangeForRoleOfAnotherOrganizationIsNotFound() {
+        UUID userId = UUID.randomUUID();
+        when(userRoleRepository.revokeRoleFromUsers(roleId, Set.of(userId), organizationId)).thenReturn(List.of());
+        when(roleRepository.findById(roleId)).thenReturn(Optional.of(
+                Role.builder().id(roleId).name("ADMIN").organizationId(UUID.randomUUID()).build()));
+
+        assertThrows(EntityNotFoundException.class, () ->
+                userService.revokeRoleFromUsersInOrganization(roleId, List.of(userId), organizationId));
+    }
+
+    @Test
+    void testRootAdminAssignmentIsScopedToTheUsersOrganization() {
+        UUID userId = UUID.randomUUID();
+        User user = User.builder()
+                .id(userId).username("alice").email("alice@example.com").password("x")
+                .organizationId(organizationId).build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRoleRepository.assignRolesToUser(userId, Set.of(roleId), organizationId)).thenReturn(List.of(roleId));
+
+        RoleAssignmentResultDTO result = userService.assignRolesToUser(userId, List.of(roleId));
+
+        assertEquals(1, result.getChanged());
+        verify(userInvalidationBus).userChanged(userId, organizationId);
+    }
+
+    @Test
+    void testRejectsOversizedRequests() {
+        List<UUID> userIds = Stream.generate(UUID::randomUUID).limit(10_001).toList();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                userService.assignRoleToUsersInOrganization(roleId, userIds, organizationId));
+        verifyNoInteractions(userRoleRepository);
+    }
+}
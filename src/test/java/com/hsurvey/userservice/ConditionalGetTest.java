@@ -0,0 +1,119 @@
+package com.hsurvey.userservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsurvey.userservice.controller.RoleController;
+import com.hsurvey.userservice.dto.RoleDTO;
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository;
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository.Scope;
+import com.hsurvey.userservice.service.OrganizationPayloadCache;
+import com.hsurvey.userservice.service.OrganizationVersionService;
+import com.hsurvey.userservice.service.RoleService;
+import com.hsurvey.userservice.utils.OrganizationContextUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalGetTest {
+
+    @Mock
+    private RoleService roleService;
+
+    @Mock
+    private OrganizationContextUtil organizationContextUtil;
+
+    @Mock
+    private OrganizationVersionRepository organizationVersionRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RoleController roleController;
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() {
+        roleController = new RoleController(roleService, organizationContextUtil,
+                new OrganizationVersionService(organizationVersionRepository),
+                new OrganizationPayloadCache(objectMapper, new SimpleMeterRegistry(), 1 << 20, Duration.ofMinutes(30)));
+        organizationId = UUID.randomUUID();
+        when(organizationContextUtil.isRootAdmin()).thenReturn(false);
+        when(organizationContextUtil.getCurrentOrganizationId()).thenReturn(organizationId);
+    }
+
+    @Test
+    void testMatchingIfNoneMatchReturns304WithoutLoadingRoles() {
+        when(organizationVersionRepository.findVersion(organizationId, Scope.ROLES)).thenReturn(7L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roles");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"roles-" + organizationId + "-7\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<?> result = roleController.getAllRoles(null, new ServletWebRequest(request, response));
+
+        assertNull(result);
+        assertEquals(304, response.getStatus());
+        verifyNoInteractions(roleService);
+    }
+
+    @Test
+    void testChangedVersionReturnsRolesWithNewETag() throws Exception {
+        when(organizationVersionRepository.findVersion(organizationId, Scope.ROLES)).thenReturn(8L);
+        when(roleService.getAllRolesByOrganization(organizationId)).thenReturn(List.of(new RoleDTO()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roles");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"roles-" + organizationId + "-7\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<?> result = roleController.getAllRoles(null, new ServletWebRequest(request, response));
+
+        assertEquals(1, objectMapper.readTree((byte[]) result.getBody()).size());
+        assertEquals("W/\"roles-" + organizationId + "-8\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testSerializedPayloadIsReusedUntilTheVersionChanges() {
+        when(organizationVersionRepository.findVersion(organizationId, Scope.ROLES)).thenReturn(3L, 3L, 4L);
+        when(roleService.getAllRolesByOrganization(organizationId)).thenReturn(List.of(new RoleDTO()));
+
+        byte[] first = getRoles("*/*");
+        byte[] second = getRoles("application/json");
+        getRoles(null);
+
+        assertSame(first, second);
+        verify(roleService, times(2)).getAllRolesByOrganization(organizationId);
+    }
+
+    @Test
+    void testBinaryAcceptBypassesThePayloadCache() {
+        when(organizationVersionRepository.findVersion(organizationId, Scope.ROLES)).thenReturn(3L);
+        when(roleService.getAllRolesByOrganization(organizationId)).thenReturn(List.of(new RoleDTO()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roles");
+        request.addHeader(HttpHeaders.ACCEPT, "application/x-jackson-smile, */*;q=0.1");
+
+        ResponseEntity<?> result = roleController.getAllRoles(null,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertInstanceOf(List.class, result.getBody());
+    }
+
+    private byte[] getRoles(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roles");
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return (byte[]) roleController.getAllRoles(null,
+                new ServletWebRequest(request, new MockHttpServletResponse())).getBody();
+    }
+}
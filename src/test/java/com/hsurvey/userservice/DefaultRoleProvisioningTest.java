@@ -0,0 +1,197 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.repositories.DefaultRoleTemplateRepository;
+import com.hsurvey.userservice.repositories.RoleRepository;
+import com.hsurvey.userservice.service.OrganizationRoleService;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks the V8 role templates against the grants the Java provisioning used to hard-code, and
+ * how V8 handles duplicate role and permission names left behind by racing check-then-insert.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class DefaultRoleProvisioningTest {
+
+    private static final List<String> ALL_PERMISSIONS = List.of(
+            "ORG_MANAGER", "DEPARTMENT_MANAGER", "TEAM_MANAGER",
+            "PERMISSION_CREATE", "PERMISSION_READ", "PERMISSION_UPDATE", "PERMISSION_DELETE",
+            "ROLE_CREATE", "ROLE_READ", "ROLE_UPDATE", "ROLE_DELETE",
+            "USER_CREATE", "USER_READ", "USER_UPDATE", "USER_DELETE",
+            "SURVEY_READ", "SURVEY_CREATE", "SURVEY_UPDATE", "SURVEY_DELETE", "SURVEY_LOCK", "SURVEY_UNLOCK",
+            "OPTION_CREATE", "OPTION_READ", "OPTION_UPDATE", "OPTION_DELETE", "OPTION_LOCK", "OPTION_UNLOCK",
+            "QUESTION_CREATE", "QUESTION_READ", "QUESTION_UPDATE", "QUESTION_DELETE", "QUESTION_LOCK", "QUESTION_UNLOCK",
+            "ORGANIZATION_READ", "ORGANIZATION_UPDATE", "ORGANIZATION_DELETE",
+            "DEPARTMENT_CREATE", "DEPARTMENT_READ", "DEPARTMENT_UPDATE", "DEPARTMENT_DELETE",
+            "TEAM_CREATE", "TEAM_READ", "TEAM_UPDATE", "TEAM_DELETE");
+
+    private static final List<String> SURVEY_CONTENT = List.of(
+            "SURVEY_READ", "SURVEY_CREATE", "SURVEY_UPDATE", "SURVEY_DELETE", "SURVEY_LOCK", "SURVEY_UNLOCK",
+            "OPTION_CREATE", "OPTION_READ", "OPTION_UPDATE", "OPTION_DELETE", "OPTION_LOCK", "OPTION_UNLOCK",
+            "QUESTION_CREATE", "QUESTION_READ", "QUESTION_UPDATE", "QUESTION_DELETE", "QUESTION_LOCK", "QUESTION_UNLOCK");
+
+    private static final UUID DUPLICATED_ORGANIZATION = UUID.fromString("00000000-0000-0000-0000-0000000000d1");
+    private static final UUID FIRST_ROLE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND_ROLE = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID FIRST_PERMISSION = UUID.fromString("00000000-0000-0000-0000-000000000011");
+    private static final UUID SECOND_PERMISSION = UUID.fromString("00000000-0000-0000-0000-000000000012");
+    private static final UUID USER = UUID.fromString("00000000-0000-0000-0000-000000000021");
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static DefaultRoleTemplateRepository templateRepository;
+    private static OrganizationRoleService organizationRoleService;
+
+    @BeforeAll
+    static void migrate() {
+        String url = POSTGRES.getJdbcUrl() + "&currentSchema=user_service";
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        // Duplicates as the old check-then-insert provisioning could leave them, seeded before V8 runs
+        flyway(url, MigrationVersion.fromVersion("7")).migrate();
+        jdbcTemplate.update("""
+                INSERT INTO permissions (id, name, description, organization_id) VALUES (?, 'SURVEY_READ', '', ?), (?, 'SURVEY_READ', '', ?)""",
+                FIRST_PERMISSION, DUPLICATED_ORGANIZATION, SECOND_PERMISSION, DUPLICATED_ORGANIZATION);
+        jdbcTemplate.update("""
+                INSERT INTO roles (id, name, description, organization_id) VALUES (?, 'USER', '', ?), (?, 'USER', '', ?)""",
+                FIRST_ROLE, DUPLICATED_ORGANIZATION, SECOND_ROLE, DUPLICATED_ORGANIZATION);
+        // Once the permission duplicates are merged, both roles grant the same thing
+        jdbcTemplate.update("INSERT INTO role_permissions (role_id, permission_id) VALUES (?, ?), (?, ?)",
+                FIRST_ROLE, FIRST_PERMISSION, SECOND_ROLE, SECOND_PERMISSION);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, organization_id, password) VALUES (?, 'alice', 'alice@example.com', ?, 'x')""",
+                USER, DUPLICATED_ORGANIZATION);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", USER, SECOND_ROLE);
+        flyway(url, MigrationVersion.LATEST).migrate();
+
+        templateRepository = new DefaultRoleTemplateRepository(jdbcTemplate);
+        organizationRoleService = new OrganizationRoleService(mock(RoleRepository.class), templateRepository);
+    }
+
+    @Test
+    void testProvisionedGrantsMatchTheFormerJavaDefaults() {
+        UUID organizationId = UUID.randomUUID();
+
+        transactionTemplate.executeWithoutResult(status -> organizationRoleService.createDefaultRolesForOrganization(organizationId));
+
+        Set<String> organizationManager = new HashSet<>(ALL_PERMISSIONS);
+        organizationManager.removeAll(Set.of("DEPARTMENT_MANAGER", "TEAM_MANAGER"));
+        Set<String> departmentManager = new HashSet<>(SURVEY_CONTENT);
+        departmentManager.addAll(List.of("DEPARTMENT_MANAGER", "TEAM_CREATE", "TEAM_READ", "TEAM_UPDATE", "TEAM_DELETE",
+                "DEPARTMENT_READ", "DEPARTMENT_UPDATE"));
+        Set<String> teamManager = new HashSet<>(SURVEY_CONTENT);
+        teamManager.addAll(List.of("TEAM_MANAGER", "TEAM_READ", "TEAM_UPDATE"));
+
+        assertEquals(Set.copyOf(ALL_PERMISSIONS), Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT name FROM permissions WHERE organization_id = ?", String.class, organizationId)));
+        assertEquals(Map.of(
+                "USER", Set.of(),
+                "ORGANIZATION MANAGER", organizationManager,
+                "DEPARTMENT MANAGER", departmentManager,
+                "TEAM MANAGER", teamManager), grants(organizationId));
+    }
+
+    @Test
+    void testProvisioningTwiceIsANoOp() {
+        UUID organizationId = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(status -> organizationRoleService.createDefaultRolesForOrganization(organizationId));
+        Map<String, Set<String>> first = grants(organizationId);
+
+        int[] created = transactionTemplate.execute(status -> new int[]{
+                templateRepository.provisionPermissions(organizationId), templateRepository.provisionRoles(organizationId)});
+
+        assertArrayEquals(new int[]{0, 0}, created);
+        assertEquals(first, grants(organizationId));
+    }
+
+    @Test
+    void testMigrationMergedDuplicatesWithTheSameGrantsIntoTheLowestId() {
+        assertEquals(List.of(FIRST_ROLE), jdbcTemplate.queryForList(
+                "SELECT id FROM roles WHERE organization_id = ?", UUID.class, DUPLICATED_ORGANIZATION));
+        assertEquals(List.of(FIRST_PERMISSION), jdbcTemplate.queryForList(
+                "SELECT id FROM permissions WHERE organization_id = ?", UUID.class, DUPLICATED_ORGANIZATION));
+        assertEquals(List.of(FIRST_PERMISSION), jdbcTemplate.queryForList(
+                "SELECT permission_id FROM role_permissions WHERE role_id = ?", UUID.class, FIRST_ROLE));
+        assertEquals(List.of(FIRST_ROLE), jdbcTemplate.queryForList(
+                "SELECT role_id FROM user_roles WHERE user_id = ?", UUID.class, USER));
+    }
+
+    @Test
+    void testMigrationStopsOnSameNameRolesWithDifferentGrants() {
+        // V8 has already run on the shared database, so this one gets its own
+        jdbcTemplate.execute("CREATE DATABASE conflicting_roles");
+        String url = POSTGRES.getJdbcUrl().replace("/" + POSTGRES.getDatabaseName() + "?", "/conflicting_roles?")
+                + "&currentSchema=user_service";
+        JdbcTemplate conflicting = new JdbcTemplate(new DriverManagerDataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword()));
+        flyway(url, MigrationVersion.fromVersion("7")).migrate();
+        UUID organizationId = UUID.randomUUID();
+        UUID reader = UUID.randomUUID();
+        UUID admin = UUID.randomUUID();
+        UUID permission = UUID.randomUUID();
+        conflicting.update("INSERT INTO roles (id, name, description, organization_id) VALUES (?, 'EDITOR', '', ?), (?, 'EDITOR', '', ?)",
+                reader, organizationId, admin, organizationId);
+        conflicting.update("INSERT INTO permissions (id, name, description, organization_id) VALUES (?, 'USER_DELETE', '', ?)",
+                permission, organizationId);
+        conflicting.update("INSERT INTO role_permissions (role_id, permission_id) VALUES (?, ?)", admin, permission);
+
+        FlywayException e = assertThrows(FlywayException.class, () -> flyway(url, MigrationVersion.LATEST).migrate());
+
+        // Postgres orders uuids like their text form
+        String duplicates = Stream.of(reader, admin).map(UUID::toString).sorted().collect(Collectors.joining(", "));
+        assertTrue(e.getMessage().contains(duplicates), e.getMessage());
+        assertEquals(2, conflicting.queryForObject("SELECT count(*) FROM roles WHERE organization_id = ?",
+                Integer.class, organizationId));
+    }
+
+    private static Map<String, Set<String>> grants(UUID organizationId) {
+        Map<String, Set<String>> grants = new HashMap<>();
+        jdbcTemplate.query("""
+                        SELECT r.name AS role_name, p.name AS permission_name
+                        FROM roles r
+                        LEFT JOIN role_permissions rp ON rp.role_id = r.id
+                        LEFT JOIN permissions p ON p.id = rp.permission_id
+                        WHERE r.organization_id = ?""",
+                rs -> {
+                    Set<String> permissions = grants.computeIfAbsent(rs.getString("role_name"), name -> new HashSet<>());
+                    if (rs.getString("permission_name") != null) {
+                        permissions.add(rs.getString("permission_name"));
+                    }
+                }, organizationId);
+        return grants;
+    }
+
+    private static Flyway flyway(String url, MigrationVersion target) {
+        return Flyway.configure()
+                .dataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword())
+                .schemas("user_service").defaultSchema("user_service").createSchemas(true)
+                .target(target)
+                .load();
+    }
+}
@@ -0,0 +1,43 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.utils.KeysetCursor;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor(UUID.randomUUID(), UUID.randomUUID());
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void testEncodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor(UUID.randomUUID(), UUID.randomUUID()).encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void testStartOfOrganizationKeepsOrganization() {
+        UUID organizationId = UUID.randomUUID();
+
+        KeysetCursor cursor = KeysetCursor.startOf(organizationId);
+
+        assertEquals(organizationId, cursor.organizationId());
+        assertEquals(new UUID(0L, 0L), cursor.id());
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("%%%"));
+    }
+}
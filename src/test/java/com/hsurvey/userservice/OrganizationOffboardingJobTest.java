@@ -0,0 +1,151 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.repositories.OrganizationOffboardingRepository;
+import com.hsurvey.userservice.repositories.OrganizationOffboardingRepository.Phase;
+import com.hsurvey.userservice.service.OrganizationOffboardingService;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs offboarding against Postgres with the foreign keys Hibernate adds, while rows keep being
+ * created in tables whose phase has already passed.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OrganizationOffboardingJobTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static DataSourceTransactionManager transactionManager;
+
+    @BeforeAll
+    static void migrate() {
+        String url = POSTGRES.getJdbcUrl() + "&currentSchema=user_service";
+        Flyway.configure()
+                .dataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword())
+                .schemas("user_service").defaultSchema("user_service").createSchemas(true)
+                .load().migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        // Flyway leaves the foreign keys to Hibernate (see V2); they are what a late row trips over
+        jdbcTemplate.execute("""
+                ALTER TABLE refresh_token ADD FOREIGN KEY (user_id) REFERENCES users (id);
+                ALTER TABLE user_roles ADD FOREIGN KEY (user_id) REFERENCES users (id);
+                ALTER TABLE user_roles ADD FOREIGN KEY (role_id) REFERENCES roles (id);
+                ALTER TABLE role_permissions ADD FOREIGN KEY (role_id) REFERENCES roles (id);
+                ALTER TABLE role_permissions ADD FOREIGN KEY (permission_id) REFERENCES permissions (id)""");
+    }
+
+    @Test
+    void testRowsCreatedAfterTheirPhaseDoNotFailTheJob() {
+        UUID organizationId = UUID.randomUUID();
+        UUID userId = seedUser(organizationId, "alice");
+        UUID roleId = seedRole(organizationId, "USER");
+        UUID permissionId = seedPermission(organizationId, "SURVEY_READ");
+        AtomicBoolean lateGrantCreated = new AtomicBoolean();
+        // A login and a role assignment land once their tables were emptied, a grant once its table was
+        OrganizationOffboardingRepository repository = new OrganizationOffboardingRepository(jdbcTemplate) {
+            @Override
+            public int deleteBatch(Phase phase, UUID organization, int limit) {
+                int deleted = super.deleteBatch(phase, organization, limit);
+                if (phase == Phase.USER_ROLES) {
+                    seedRefreshToken(userId);
+                    jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", userId, roleId);
+                } else if (phase == Phase.ROLE_PERMISSIONS && lateGrantCreated.compareAndSet(false, true)) {
+                    jdbcTemplate.update("INSERT INTO role_permissions (role_id, permission_id) VALUES (?, ?)", roleId, permissionId);
+                }
+                return deleted;
+            }
+        };
+
+        service(repository).start(organizationId);
+
+        assertTrue(lateGrantCreated.get());
+        assertEquals("COMPLETED", jobStatus(organizationId));
+        assertEquals(0, count("SELECT count(*) FROM users WHERE organization_id = ?", organizationId));
+        assertEquals(0, count("SELECT count(*) FROM roles WHERE organization_id = ?", organizationId));
+        assertEquals(0, count("SELECT count(*) FROM permissions WHERE organization_id = ?", organizationId));
+        assertEquals(0, count("SELECT count(*) FROM refresh_token WHERE user_id = ?", userId));
+    }
+
+    @Test
+    void testFailedJobRestartsFromTheFirstPhase() {
+        UUID organizationId = UUID.randomUUID();
+        UUID userId = seedUser(organizationId, "bob");
+        seedRefreshToken(userId);
+        OrganizationOffboardingRepository repository = new OrganizationOffboardingRepository(jdbcTemplate);
+        jdbcTemplate.update("""
+                INSERT INTO organization_offboarding_jobs (organization_id, status, phase, deleted_rows, started_at, updated_at, error)
+                VALUES (?, 'FAILED', 'USERS', 7, now(), now(), 'foreign key violation')""", organizationId);
+
+        assertEquals(Phase.REFRESH_TOKENS, repository.startJob(organizationId).phase());
+        repository.markFailed(organizationId, "stopped");
+        service(repository).start(organizationId);
+
+        assertEquals("COMPLETED", jobStatus(organizationId));
+        assertEquals(0, count("SELECT count(*) FROM users WHERE organization_id = ?", organizationId));
+        assertTrue(count("SELECT deleted_rows FROM organization_offboarding_jobs WHERE organization_id = ?", organizationId) > 7);
+    }
+
+    private static OrganizationOffboardingService service(OrganizationOffboardingRepository repository) {
+        return new OrganizationOffboardingService(repository, mock(UserInvalidationBus.class),
+                new TaskExecutorAdapter(Runnable::run), transactionManager, 1, Duration.ZERO);
+    }
+
+    private static UUID seedUser(UUID organizationId, String username) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, organization_id, password) VALUES (?, ?, ?, ?, 'x')",
+                id, username + "-" + id, username + "-" + id + "@example.com", organizationId);
+        return id;
+    }
+
+    private static UUID seedRole(UUID organizationId, String name) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO roles (id, name, description, organization_id) VALUES (?, ?, '', ?)",
+                id, name, organizationId);
+        return id;
+    }
+
+    private static UUID seedPermission(UUID organizationId, String name) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO permissions (id, name, description, organization_id) VALUES (?, ?, '', ?)",
+                id, name, organizationId);
+        return id;
+    }
+
+    private static void seedRefreshToken(UUID userId) {
+        jdbcTemplate.update("""
+                        INSERT INTO refresh_token (id, expiry_date, token, user_id)
+                        VALUES (nextval('refresh_token_seq'), ?, ?, ?)""",
+                Timestamp.from(Instant.now().plus(Duration.ofDays(1))), UUID.randomUUID().toString(), userId);
+    }
+
+    private static String jobStatus(UUID organizationId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM organization_offboarding_jobs WHERE organization_id = ?",
+                String.class, organizationId);
+    }
+
+    private static long count(String sql, UUID organizationId) {
+        return jdbcTemplate.queryForObject(sql, Long.class, organizationId);
+    }
+}
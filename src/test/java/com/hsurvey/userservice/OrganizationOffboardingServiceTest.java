@@ -0,0 +1,123 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.OffboardingJobDTO;
+import com.hsurvey.userservice.repositories.OrganizationOffboardingRepository;
+import com.hsurvey.userservice.repositories.OrganizationOffboardingRepository.Job;
+import com.hsurvey.userservice.repositories.OrganizationOffboardingRepository.Phase;
+import com.hsurvey.userservice.repositories.OrganizationOffboardingRepository.Status;
+import com.hsurvey.userservice.service.OrganizationOffboardingService;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrganizationOffboardingServiceTest {
+
+    @Mock
+    private OrganizationOffboardingRepository offboardingRepository;
+
+    @Mock
+    private UserInvalidationBus userInvalidationBus;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicReference<Phase> phase = new AtomicReference<>(Phase.REFRESH_TOKENS);
+    private UUID organizationId;
+    private OrganizationOffboardingService service;
+
+    @BeforeEach
+    void setUp() {
+        organizationId = UUID.randomUUID();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(offboardingRepository.startJob(organizationId)).thenReturn(
+                new Job(organizationId, Status.RUNNING, Phase.REFRESH_TOKENS, 0, Instant.now(), Instant.now(), null, null));
+        // The mocked job row follows recorded progress, as the real one does
+        lenient().when(offboardingRepository.lockRunningJob(organizationId))
+                .thenAnswer(invocation -> phase.get() == Phase.DONE ? Optional.empty() : Optional.of(phase.get()));
+        lenient().doAnswer(invocation -> {
+            phase.set(invocation.getArgument(1));
+            return null;
+        }).when(offboardingRepository).recordProgress(eq(organizationId), any(), anyLong());
+        service = new OrganizationOffboardingService(offboardingRepository, userInvalidationBus,
+                new TaskExecutorAdapter(Runnable::run), transactionManager, 2, Duration.ZERO);
+    }
+
+    @Test
+    void testDeletesEveryTableInBatchesUntilDone() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID carol = UUID.randomUUID();
+        when(offboardingRepository.deleteBatch(any(), eq(organizationId), eq(2)))
+                .thenAnswer(invocation -> invocation.getArgument(0) == Phase.ROLES ? 1 : 0);
+        when(offboardingRepository.deleteUsers(organizationId, 2))
+                .thenReturn(List.of(alice, bob), List.of(carol));
+
+        OffboardingJobDTO started = service.start(organizationId);
+
+        assertEquals("RUNNING", started.getStatus());
+        assertEquals(Phase.DONE, phase.get());
+        InOrder inOrder = inOrder(offboardingRepository, userInvalidationBus);
+        inOrder.verify(offboardingRepository).deleteBatch(Phase.REFRESH_TOKENS, organizationId, 2);
+        inOrder.verify(offboardingRepository).deleteBatch(Phase.USER_ROLES, organizationId, 2);
+        inOrder.verify(userInvalidationBus).usersDeleted(List.of(alice, bob), organizationId);
+        inOrder.verify(offboardingRepository).recordProgress(organizationId, Phase.USERS, 2);
+        inOrder.verify(userInvalidationBus).usersDeleted(List.of(carol), organizationId);
+        inOrder.verify(offboardingRepository).recordProgress(organizationId, Phase.ROLE_PERMISSIONS, 1);
+        inOrder.verify(offboardingRepository).deleteBatch(Phase.ROLE_PERMISSIONS, organizationId, 2);
+        inOrder.verify(offboardingRepository).deleteBatch(Phase.ROLES, organizationId, 2);
+        inOrder.verify(offboardingRepository).deleteBatch(Phase.PERMISSIONS, organizationId, 2);
+        inOrder.verify(offboardingRepository).deleteCounters(organizationId);
+        inOrder.verify(offboardingRepository).recordProgress(organizationId, Phase.DONE, 0);
+        verify(offboardingRepository, never()).markFailed(any(), any());
+    }
+
+    @Test
+    void testFailedBatchMarksJobFailedAndRestartRunsEveryPhaseAgain() {
+        phase.set(Phase.ROLES);
+        when(offboardingRepository.deleteBatch(any(), eq(organizationId), eq(2)))
+                .thenThrow(new IllegalStateException("lock timeout"))
+                .thenReturn(0);
+
+        service.start(organizationId);
+
+        verify(offboardingRepository).markFailed(organizationId, "lock timeout");
+        assertEquals(Phase.ROLES, phase.get());
+
+        // The job row sends a failed job back to the first phase, as startJob does
+        phase.set(Phase.REFRESH_TOKENS);
+        service.start(organizationId);
+
+        verify(offboardingRepository).deleteBatch(Phase.REFRESH_TOKENS, organizationId, 2);
+        verify(offboardingRepository, times(2)).deleteBatch(Phase.ROLES, organizationId, 2);
+        assertEquals(Phase.DONE, phase.get());
+    }
+
+    @Test
+    void testStopsWhenAnotherWorkerHoldsTheJob() {
+        when(offboardingRepository.lockRunningJob(organizationId)).thenReturn(Optional.empty());
+
+        service.start(organizationId);
+
+        verify(offboardingRepository, never()).deleteBatch(any(), any(), anyInt());
+        verify(offboardingRepository, never()).recordProgress(any(), any(), anyLong());
+    }
+}
@@ -0,0 +1,147 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.AdminRegisterRequest;
+import com.hsurvey.userservice.dto.OrganizationOnboardingRequest.Organization;
+import com.hsurvey.userservice.dto.OrganizationOnboardingResultDTO;
+import com.hsurvey.userservice.entities.Role;
+import com.hsurvey.userservice.entities.User;
+import com.hsurvey.userservice.repositories.UserRepository;
+import com.hsurvey.userservice.service.OrganizationOnboardingService;
+import com.hsurvey.userservice.service.OrganizationRoleService;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import com.hsurvey.userservice.service.clients.OrganizationClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrganizationOnboardingServiceTest {
+
+    @Mock
+    private OrganizationClient organizationClient;
+
+    @Mock
+    private OrganizationRoleService organizationRoleService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserInvalidationBus userInvalidationBus;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger submittedWorkers = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(organizationClient.organizationExists(any())).thenReturn(ResponseEntity.ok(true));
+        lenient().when(organizationRoleService.getDefaultOrganizationManagerRole(any()))
+                .thenAnswer(invocation -> Role.builder().id(UUID.randomUUID()).name("ORGANIZATION MANAGER")
+                        .organizationId(invocation.getArgument(0)).build());
+        lenient().when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(UUID.randomUUID());
+            return user;
+        });
+    }
+
+    @Test
+    void testReportsOneOutcomePerOrganizationInRequestOrder() {
+        Organization fresh = organization("alice");
+        Organization onboarded = organization("bob");
+        Organization missing = organization("carol");
+        Organization repeated = new Organization(fresh.getOrganizationId(), manager("dave"));
+        Organization takenEmail = organization("erin");
+        when(userRepository.existsByOrganizationIdAndRolesContaining(any(), any()))
+                .thenAnswer(invocation -> onboarded.getOrganizationId().equals(invocation.getArgument(0)));
+        when(organizationClient.organizationExists(missing.getOrganizationId())).thenReturn(ResponseEntity.ok(false));
+        when(userRepository.existsByEmail(any()))
+                .thenAnswer(invocation -> "erin@example.com".equals(invocation.getArgument(0)));
+
+        List<OrganizationOnboardingResultDTO> results =
+                service(4).onboard(List.of(fresh, onboarded, missing, repeated, takenEmail));
+
+        assertEquals(List.of(OrganizationOnboardingService.ONBOARDED, OrganizationOnboardingService.ALREADY_ONBOARDED,
+                        OrganizationOnboardingService.FAILED, OrganizationOnboardingService.FAILED,
+                        OrganizationOnboardingService.FAILED),
+                results.stream().map(OrganizationOnboardingResultDTO::getOutcome).toList());
+        assertNotNull(results.get(0).getManagerId());
+        assertEquals("Organization not found", results.get(2).getError());
+        assertEquals("Organization appears more than once in this request", results.get(3).getError());
+        assertEquals("Email already exists", results.get(4).getError());
+
+        verify(organizationRoleService, never()).createDefaultRolesForOrganization(missing.getOrganizationId());
+        verify(userRepository).save(argThat(user -> user.getUsername().equals("alice")
+                && user.getPassword().equals("secret-alice")
+                && user.getRoles().stream().allMatch(role -> role.getName().equals("ORGANIZATION MANAGER"))));
+        verify(userInvalidationBus).userCreated(results.get(0).getManagerId(), fresh.getOrganizationId());
+        verify(userRepository, times(1)).save(any(User.class));
+    }
+
+    @Test
+    void testRunsAtMostParallelismWorkers() {
+        List<Organization> organizations = new ArrayList<>();
+        IntStream.range(0, 10).forEach(i -> organizations.add(organization("user" + i)));
+
+        List<OrganizationOnboardingResultDTO> results = service(3).onboard(organizations);
+
+        assertEquals(3, submittedWorkers.get());
+        assertTrue(results.stream().allMatch(r -> OrganizationOnboardingService.ONBOARDED.equals(r.getOutcome())));
+        verify(organizationRoleService, times(10)).createDefaultRolesForOrganization(any());
+    }
+
+    @Test
+    void testUnexpectedFailureOnlyFailsThatOrganization() {
+        Organization broken = organization("alice");
+        Organization healthy = organization("bob");
+        doThrow(new IllegalStateException("connection reset"))
+                .when(organizationRoleService).createDefaultRolesForOrganization(broken.getOrganizationId());
+
+        List<OrganizationOnboardingResultDTO> results = service(1).onboard(List.of(broken, healthy));
+
+        assertEquals("connection reset", results.get(0).getError());
+        assertEquals(OrganizationOnboardingService.ONBOARDED, results.get(1).getOutcome());
+        verify(transactionManager).rollback(any());
+    }
+
+    private OrganizationOnboardingService service(int parallelism) {
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(task -> {
+            submittedWorkers.incrementAndGet();
+            task.run();
+        });
+        return new OrganizationOnboardingService(organizationClient, organizationRoleService, userRepository,
+                NoOpPasswordEncoder.getInstance(), userInvalidationBus, executor, transactionManager, parallelism);
+    }
+
+    private static Organization organization(String username) {
+        return new Organization(UUID.randomUUID(), manager(username));
+    }
+
+    private static AdminRegisterRequest manager(String username) {
+        AdminRegisterRequest manager = new AdminRegisterRequest();
+        manager.setUsername(username);
+        manager.setEmail(username + "@example.com");
+        manager.setPassword("secret-" + username);
+        return manager;
+    }
+}
@@ -1,13 +1,13 @@
 package com.hsurvey.userservice;
 
-import com.hsurvey.userservice.entities.Permission;
 import com.hsurvey.userservice.entities.Role;
-import com.hsurvey.userservice.repositories.PermissionRepository;
+import com.hsurvey.userservice.repositories.DefaultRoleTemplateRepository;
 import com.hsurvey.userservice.repositories.RoleRepository;
 import com.hsurvey.userservice.service.OrganizationRoleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,8 +15,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,7 +24,7 @@ class OrganizationRoleServiceTest {
     private RoleRepository roleRepository;
 
     @Mock
-    private PermissionRepository permissionRepository;
+    private DefaultRoleTemplateRepository defaultRoleTemplateRepository;
 
     @InjectMocks
     private OrganizationRoleService organizationRoleService;
@@ -40,38 +38,17 @@ class OrganizationRoleServiceTest {
 
     @Test
     void testCreateDefaultRolesForOrganization() {
-        // Mock existing permissions
-        Set<Permission> mockPermissions = createMockPermissions();
-        when(permissionRepository.findByNameAndOrganizationId(anyString(), eq(organizationId)))
-                .thenReturn(Optional.empty());
-        when(permissionRepository.save(any(Permission.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
-        // Mock role repository methods
-        when(roleRepository.existsByNameAndOrganizationId("USER", organizationId)).thenReturn(false);
-        when(roleRepository.existsByNameAndOrganizationId("ORGANIZATION MANAGER", organizationId)).thenReturn(false);
-        when(roleRepository.existsByNameAndOrganizationId("DEPARTMENT MANAGER", organizationId)).thenReturn(false);
-        when(roleRepository.existsByNameAndOrganizationId("TEAM MANAGER", organizationId)).thenReturn(false);
-
-        // Execute the method
+        when(defaultRoleTemplateRepository.provisionPermissions(organizationId)).thenReturn(44);
+        when(defaultRoleTemplateRepository.provisionRoles(organizationId)).thenReturn(4);
+
         organizationRoleService.createDefaultRolesForOrganization(organizationId);
 
-        // Verify that all 4 roles were saved
-        verify(roleRepository, times(1)).save(argThat(role -> 
-            role.getName().equals("USER") && 
-            role.getPermissions().isEmpty()));
-        
-        verify(roleRepository, times(1)).save(argThat(role -> 
-            role.getName().equals("ORGANIZATION MANAGER") && 
-            !role.getPermissions().isEmpty()));
-        
-        verify(roleRepository, times(1)).save(argThat(role -> 
-            role.getName().equals("DEPARTMENT MANAGER") && 
-            !role.getPermissions().isEmpty()));
-        
-        verify(roleRepository, times(1)).save(argThat(role -> 
-            role.getName().equals("TEAM MANAGER") && 
-            !role.getPermissions().isEmpty()));
+        // Permissions first: role grants join on the organization's permissions by name
+        InOrder inOrder = inOrder(defaultRoleTemplateRepository);
+        inOrder.verify(defaultRoleTemplateRepository).lockOrganization(organizationId);
+        inOrder.verify(defaultRoleTemplateRepository).provisionPermissions(organizationId);
+        inOrder.verify(defaultRoleTemplateRepository).provisionRoles(organizationId);
+        verifyNoInteractions(roleRepository);
     }
 
     @Test
@@ -164,27 +141,4 @@ class OrganizationRoleServiceTest {
         assertNotNull(result);
         assertEquals("ORGANIZATION MANAGER", result.getName());
     }
-
-    private Set<Permission> createMockPermissions() {
-        Set<Permission> permissions = new HashSet<>();
-        List<String> permissionNames = Arrays.asList(
-                "ORG_MANAGER", "DEPARTMENT_MANAGER", "TEAM_MANAGER",
-                "SURVEY_READ", "SURVEY_CREATE", "SURVEY_UPDATE", "SURVEY_DELETE",
-                "OPTION_READ", "OPTION_CREATE", "OPTION_UPDATE", "OPTION_DELETE",
-                "QUESTION_READ", "QUESTION_CREATE", "QUESTION_UPDATE", "QUESTION_DELETE",
-                "TEAM_READ", "TEAM_CREATE", "TEAM_UPDATE", "TEAM_DELETE",
-                "DEPARTMENT_READ", "DEPARTMENT_CREATE", "DEPARTMENT_UPDATE", "DEPARTMENT_DELETE"
-        );
-
-        for (String name : permissionNames) {
-            Permission permission = Permission.builder()
-                    .name(name)
-                    .organizationId(organizationId)
-                    .description("Mock permission: " + name)
-                    .build();
-            permissions.add(permission);
-        }
-
-        return permissions;
-    }
-} 
\ No newline at end of file
+}
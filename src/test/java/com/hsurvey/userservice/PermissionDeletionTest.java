@@ -0,0 +1,65 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.mapper.PermissionMapper;
+import com.hsurvey.userservice.repositories.PermissionRepository;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import com.hsurvey.userservice.service.impl.PermissionServiceImpl;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionDeletionTest {
+
+    @Mock
+    private PermissionRepository permissionRepository;
+
+    @Mock
+    private PermissionMapper permissionMapper;
+
+    @Mock
+    private UserInvalidationBus userInvalidationBus;
+
+    private PermissionServiceImpl permissionService;
+    private UUID permissionId;
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() {
+        permissionService = new PermissionServiceImpl(permissionRepository, permissionMapper, userInvalidationBus);
+        permissionId = UUID.randomUUID();
+        organizationId = UUID.randomUUID();
+    }
+
+    @Test
+    void testRevokesFromAllRolesThenDeletesWithoutLoadingEntities() {
+        when(permissionRepository.revokeFromAllRolesInOrganization(permissionId, organizationId)).thenReturn(1200);
+        when(permissionRepository.deletePermissionInOrganization(permissionId, organizationId)).thenReturn(1);
+
+        permissionService.deletePermissionByIdAndOrganization(permissionId, organizationId);
+
+        InOrder inOrder = inOrder(permissionRepository);
+        inOrder.verify(permissionRepository).revokeFromAllRolesInOrganization(permissionId, organizationId);
+        inOrder.verify(permissionRepository).deletePermissionInOrganization(permissionId, organizationId);
+        verifyNoMoreInteractions(permissionRepository);
+        verify(userInvalidationBus).permissionDeleted(permissionId, organizationId);
+    }
+
+    @Test
+    void testPermissionOfAnotherOrganizationIsNotFound() {
+        when(permissionRepository.deletePermissionInOrganization(permissionId, organizationId)).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> permissionService.deletePermissionByIdAndOrganization(permissionId, organizationId));
+        verifyNoInteractions(userInvalidationBus);
+    }
+}
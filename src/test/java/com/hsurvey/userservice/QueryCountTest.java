@@ -0,0 +1,722 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.BulkUserLookupResponse;
+import com.hsurvey.userservice.dto.CreateUserDTO;
+import com.hsurvey.userservice.dto.CursorPageDTO;
+import com.hsurvey.userservice.dto.PermissionDTO;
+import com.hsurvey.userservice.dto.RoleAssignmentResultDTO;
+import com.hsurvey.userservice.dto.RoleDTO;
+import com.hsurvey.userservice.dto.RolePermissionChangeDTO;
+import com.hsurvey.userservice.dto.RolePermissionPatchDTO;
+import com.hsurvey.userservice.dto.UserCountsDTO;
+import com.hsurvey.userservice.dto.UserDTO;
+import com.hsurvey.userservice.entities.Permission;
+import com.hsurvey.userservice.entities.RefreshToken;
+import com.hsurvey.userservice.entities.Role;
+import com.hsurvey.userservice.entities.User;
+import com.hsurvey.userservice.mapper.PermissionMapperImpl;
+import com.hsurvey.userservice.mapper.RoleMapperImpl;
+import com.hsurvey.userservice.mapper.UserMapperImpl;
+import com.hsurvey.userservice.repositories.PermissionRepository;
+import com.hsurvey.userservice.repositories.RefreshTokenRepository;
+import com.hsurvey.userservice.repositories.RolePermissionRepository;
+import com.hsurvey.userservice.repositories.RoleReadRepository;
+import com.hsurvey.userservice.repositories.RoleRepository;
+import com.hsurvey.userservice.repositories.UserCountRepository;
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.repositories.UserRepository;
+import com.hsurvey.userservice.repositories.UserRoleRepository;
+import com.hsurvey.userservice.service.CustomUserDetailsService;
+import com.hsurvey.userservice.service.UserDtoCache;
+import com.hsurvey.userservice.service.UserIdIndex;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import com.hsurvey.userservice.service.impl.PermissionServiceImpl;
+import com.hsurvey.userservice.service.impl.RoleServiceImpl;
+import com.hsurvey.userservice.service.impl.UserServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pins the number of SQL statements executed by every public UserService, RoleService and
+ * PermissionService method, so an association that silently goes back to per-row loading (N+1)
+ * fails the build. Statements are counted on the DataSource, so Hibernate and the JdbcTemplate
+ * repositories are both seen. The fixture has several roles with several permissions each;
+ * every expected count is independent of those sizes. Only statements executed before the test
+ * transaction would flush are counted.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserServiceImpl.class, RoleServiceImpl.class, PermissionServiceImpl.class, CustomUserDetailsService.class,
+        UserReadRepository.class, UserCountRepository.class, UserRoleRepository.class, RoleReadRepository.class, RolePermissionRepository.class, UserMapperImpl.class, RoleMapperImpl.class, PermissionMapperImpl.class,
+        QueryCountTest.PasswordEncoderConfig.class, QueryCountTest.StatementCountingConfig.class})
+@Testcontainers(disabledWithoutDocker = true)
+class QueryCountTest {
+
+    private static final int ROLE_COUNT = 5;
+    private static final int PERMISSIONS_PER_ROLE = 3;
+    private static final AtomicLong EXECUTED_STATEMENTS = new AtomicLong();
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @TestConfiguration
+    static class PasswordEncoderConfig {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource, DataSource.class) : bean;
+                }
+            };
+        }
+
+        // Wraps every connection and statement handed out, counting each execute* call as one statement
+        private static <T> T counting(T target, Class<T> type) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (target instanceof Statement && method.getName().startsWith("execute")) {
+                    EXECUTED_STATEMENTS.incrementAndGet();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                Class<?> returned = method.getReturnType();
+                if (returned == Connection.class && result != null) {
+                    return counting((Connection) result, Connection.class);
+                }
+                if (returned == CallableStatement.class && result != null) {
+                    return counting((CallableStatement) result, CallableStatement.class);
+                }
+                if (returned == PreparedStatement.class && result != null) {
+                    return counting((PreparedStatement) result, PreparedStatement.class);
+                }
+                if (returned == Statement.class && result != null) {
+                    return counting((Statement) result, Statement.class);
+                }
+                return result;
+            }));
+        }
+    }
+
+    @MockitoBean private UserIdIndex userIdIndex;
+    @MockitoBean private UserDtoCache userDtoCache;
+    @MockitoBean private UserInvalidationBus userInvalidationBus;
+    @Autowired private EntityManager entityManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PermissionRepository permissionRepository;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private UserServiceImpl userService;
+    @Autowired private RoleServiceImpl roleService;
+    @Autowired private PermissionServiceImpl permissionService;
+    @Autowired private CustomUserDetailsService userDetailsService;
+
+    private UUID organizationId;
+    private User user;
+    private Role role;
+    private Role unassignedRole;
+    private Permission permission;
+    private Permission ungrantedPermission;
+    private String refreshToken;
+
+    @BeforeEach
+    void setUp() {
+        organizationId = UUID.randomUUID();
+
+        Set<Role> roles = new HashSet<>();
+        for (int r = 0; r < ROLE_COUNT; r++) {
+            Set<Permission> permissions = new HashSet<>();
+            for (int p = 0; p < PERMISSIONS_PER_ROLE; p++) {
+                permissions.add(permissionRepository.save(Permission.builder()
+                        .name("PERM_" + r + "_" + p).organizationId(organizationId).build()));
+            }
+            roles.add(roleRepository.save(Role.builder()
+                    .name("ROLE_" + r).organizationId(organizationId).permissions(permissions).build()));
+        }
+        role = roles.iterator().next();
+        permission = role.getPermissions().iterator().next();
+        unassignedRole = roleRepository.save(Role.builder()
+                .name("UNASSIGNED").organizationId(organizationId).build());
+        ungrantedPermission = permissionRepository.save(Permission.builder()
+                .name("UNGRANTED").organizationId(organizationId).build());
+
+        user = userRepository.save(User.builder()
+                .username("alice").email("alice@example.com").password("{noop}secret")
+                .organizationId(organizationId).roles(roles).build());
+
+        refreshToken = UUID.randomUUID().toString();
+        refreshTokenRepository.save(new RefreshToken(refreshToken, Instant.now().plusSeconds(60), user));
+
+        entityManager.flush();
+        entityManager.clear();
+        // The cache is a mock; it always loads, so every read reaches the database
+        when(userDtoCache.get(any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<Optional<UserDTO>>>getArgument(1).get());
+    }
+
+    @Test
+    void testLoadUserByUsernameIsOneStatement() {
+        UserDetails details = assertStatements(1, () -> userDetailsService.loadUserByUsername("alice@example.com"));
+
+        assertEquals(ROLE_COUNT * PERMISSIONS_PER_ROLE, details.getAuthorities().size());
+    }
+
+    @Test
+    void testRefreshTokenLookupFetchesUserAndRolesInOneStatement() {
+        List<String> roleNames = assertStatements(1, () -> refreshTokenRepository.findWithUserByToken(refreshToken)
+                .orElseThrow().getUser().getRoles().stream().map(Role::getName).toList());
+
+        assertEquals(ROLE_COUNT, roleNames.size());
+    }
+
+    @Test
+    void testExistsByOrganizationAndRoleDoesNotLoadGraph() {
+        assertTrue(assertStatements(1, () -> userRepository.existsByOrganizationIdAndRolesContaining(organizationId, role)));
+    }
+
+    @Test
+    void testGetAllRolesByOrganizationIsOneStatement() {
+        List<RoleDTO> roles = assertStatements(1, () -> roleService.getAllRolesByOrganization(organizationId));
+
+        assertEquals(ROLE_COUNT + 1, roles.size());
+        assertTrue(roles.stream().allMatch(r -> r.getPermissions() != null));
+    }
+
+    @Test
+    void testGetRoleByIdAndOrganizationIsOneStatement() {
+        RoleDTO dto = assertStatements(1, () -> roleService.getRoleByIdAndOrganization(role.getId(), organizationId));
+
+        assertEquals(PERMISSIONS_PER_ROLE, dto.getPermissions().size());
+    }
+
+    @Test
+    void testUpdateUserInOrganizationLoadsUserAndRolesOnce() {
+        UserDTO update = new UserDTO();
+        update.setUsername("alice");
+        update.setEmail("alice@example.com");
+
+        UserDTO dto = assertStatements(1, () -> userService.updateUserInOrganization(user.getId(), update, organizationId));
+
+        assertEquals(ROLE_COUNT, dto.getRoles().size());
+    }
+
+    @Test
+    void testGetAllUsersIsOneStatement() {
+        assertEquals(1, assertStatements(1, () -> userService.getAllUsers()).size());
+    }
+
+    @Test
+    void testGetAllUsersByOrganizationIsOneStatement() {
+        List<UserDTO> users = assertStatements(1, () -> userService.getAllUsersByOrganization(organizationId));
+
+        assertEquals(ROLE_COUNT, users.get(0).getRoles().size());
+    }
+
+    @Test
+    void testGetAllUsersWithFieldsIsOneStatement() {
+        List<Map<String, Object>> users = assertStatements(1, () -> userService.getAllUsers(Set.of("username")));
+
+        assertEquals(List.of(Map.of("username", "alice")), users);
+    }
+
+    @Test
+    void testGetAllUsersByOrganizationWithFieldsIsOneStatement() {
+        List<Map<String, Object>> users = assertStatements(1,
+                () -> userService.getAllUsersByOrganization(organizationId, Set.of("username", "roles")));
+
+        assertEquals(ROLE_COUNT, ((Collection<?>) users.get(0).get("roles")).size());
+    }
+
+    @Test
+    void testGetUserByIdIsOneStatement() {
+        UserDTO dto = assertStatements(1, () -> userService.getUserById(user.getId()));
+
+        assertEquals(ROLE_COUNT, dto.getRoles().size());
+    }
+
+    @Test
+    void testGetUserByIdAndOrganizationIsOneStatement() {
+        UserDTO dto = assertStatements(1, () -> userService.getUserByIdAndOrganization(user.getId(), organizationId));
+
+        assertEquals(ROLE_COUNT, dto.getRoles().size());
+    }
+
+    @Test
+    void testGetUsersPageIsOneStatement() {
+        CursorPageDTO<UserDTO> page = assertStatements(1, () -> userService.getUsersPage(null, 10));
+
+        assertEquals(1, page.getItems().size());
+    }
+
+    @Test
+    void testGetUsersPageByOrganizationIsOneStatement() {
+        CursorPageDTO<UserDTO> page = assertStatements(1, () -> userService.getUsersPageByOrganization(organizationId, null, 10));
+
+        assertEquals(1, page.getItems().size());
+    }
+
+    @Test
+    void testSearchUsersInOrganizationIsOneStatement() {
+        List<UserDTO> users = assertStatements(1, () -> userService.searchUsersInOrganization(organizationId, "alice", 10));
+
+        assertEquals(1, users.size());
+    }
+
+    @Test
+    void testGetUserCountsReadsBothCountersOnly() {
+        // organization counter, then every role with its counter
+        UserCountsDTO counts = assertStatements(2, () -> userService.getUserCounts(organizationId));
+
+        assertEquals(ROLE_COUNT + 1, counts.getRoles().size());
+    }
+
+    @Test
+    void testGetUsersByIdsIsOneStatement() {
+        assertEquals(1, assertStatements(1, () -> userService.getUsersByIds(List.of(user.getId(), UUID.randomUUID()))).size());
+        assertStatements(0, () -> userService.getUsersByIds(List.of()));
+    }
+
+    @Test
+    void testLookupUsersIsOneStatementPerChunk() {
+        BulkUserLookupResponse response = assertStatements(1,
+                () -> userService.lookupUsers(List.of(user.getId(), UUID.randomUUID()), Set.of("username")));
+
+        assertEquals(1, response.getUsers().size());
+        assertEquals(1, response.getMissing().size());
+    }
+
+    @Test
+    void testLookupUsersInOrganizationIsOneStatementPerChunk() {
+        BulkUserLookupResponse response = assertStatements(1,
+                () -> userService.lookupUsersInOrganization(List.of(user.getId()), Set.of("email"), organizationId));
+
+        assertEquals(1, response.getUsers().size());
+    }
+
+    @Test
+    void testExistsByIdFallsBackToOneStatementOnIndexMiss() {
+        assertTrue(assertStatements(1, () -> userService.existsById(user.getId())));
+    }
+
+    @Test
+    void testExistsByIdsConfirmsIndexMissesInOneStatement() {
+        BitSet exists = assertStatements(1, () -> userService.existsByIds(List.of(user.getId(), UUID.randomUUID())));
+
+        assertTrue(exists.get(0));
+        assertFalse(exists.get(1));
+    }
+
+    @Test
+    void testAddRoleToUserDoesNotLoadPermissions() {
+        // user lookup, role lookup, membership check, insert, then the returned DTO's projection
+        assertStatements(5, () -> userService.addRoleToUserInOrganization(user.getId(), unassignedRole.getId(), organizationId));
+    }
+
+    @Test
+    void testAddPermissionToRoleDoesNotLoadPermissions() {
+        Permission other = permissionRepository.save(Permission.builder()
+                .name("OTHER").organizationId(organizationId).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // role lookup, permission lookup, insert
+        assertStatements(3, () -> {
+            roleService.addPermissionToRoleInOrganization(unassignedRole.getId(), other.getId(), organizationId);
+            return null;
+        });
+    }
+
+    @Test
+    void testDeletePermissionIsTwoStatementsWithoutLoadingRoles() {
+        // revoke from every role holding it, then delete it
+        assertStatements(2, () -> {
+            permissionService.deletePermissionByIdAndOrganization(permission.getId(), organizationId);
+            return null;
+        });
+
+        assertFalse(permissionRepository.existsById(permission.getId()));
+        assertEquals(PERMISSIONS_PER_ROLE - 1,
+                roleRepository.findWithPermissionsById(role.getId()).orElseThrow().getPermissions().size());
+    }
+
+    // UserService writes. Inserts and updates of managed entities wait for the flush, which never
+    // comes before the test transaction rolls back; native and JdbcTemplate writes run at once.
+
+    @Test
+    void testCreateUserOnlyChecksUniqueness() {
+        // email check, username check
+        assertStatements(2, () -> userService.createUser(newUser("bob", organizationId)));
+    }
+
+    @Test
+    void testCreateUserForOrganizationOnlyChecksUniqueness() {
+        assertStatements(2, () -> userService.createUserForOrganization(newUser("bob", null), organizationId));
+    }
+
+    @Test
+    void testUpdateUserLoadsUserAndRolesOnce() {
+        UserDTO update = new UserDTO();
+        update.setUsername("alice");
+        update.setEmail("alice@example.com");
+
+        assertEquals(ROLE_COUNT, assertStatements(1, () -> userService.updateUser(user.getId(), update)).getRoles().size());
+    }
+
+    @Test
+    void testDeleteUserByIdIsOneLookup() {
+        assertStatements(1, () -> {
+            userService.deleteUserById(user.getId());
+            return null;
+        });
+    }
+
+    @Test
+    void testDeleteUserByIdAndOrganizationIsOneLookup() {
+        assertStatements(1, () -> {
+            userService.deleteUserByIdAndOrganization(user.getId(), organizationId);
+            return null;
+        });
+    }
+
+    @Test
+    void testAddRoleToUserWithoutOrganizationDoesNotLoadPermissions() {
+        // user lookup, role lookup, membership check, insert, projection
+        assertStatements(5, () -> userService.addRoleToUser(user.getId(), unassignedRole.getId()));
+    }
+
+    @Test
+    void testRemoveRoleFromUserDoesNotLoadRoles() {
+        // user lookup, membership check, delete, projection
+        UserDTO dto = assertStatements(4, () -> userService.removeRoleFromUser(user.getId(), role.getId()));
+
+        assertEquals(ROLE_COUNT - 1, dto.getRoles().size());
+    }
+
+    @Test
+    void testRemoveRoleFromUserInOrganizationDoesNotLoadRoles() {
+        UserDTO dto = assertStatements(4,
+                () -> userService.removeRoleFromUserInOrganization(user.getId(), role.getId(), organizationId));
+
+        assertEquals(ROLE_COUNT - 1, dto.getRoles().size());
+    }
+
+    @Test
+    void testAssignRoleToUsersIsRoleLookupAndOneStatement() {
+        RoleAssignmentResultDTO result = assertStatements(2,
+                () -> userService.assignRoleToUsers(unassignedRole.getId(), List.of(user.getId())));
+
+        assertEquals(1, result.getChanged());
+    }
+
+    @Test
+    void testAssignRoleToUsersInOrganizationIsOneStatement() {
+        RoleAssignmentResultDTO result = assertStatements(1,
+                () -> userService.assignRoleToUsersInOrganization(unassignedRole.getId(), List.of(user.getId()), organizationId));
+
+        assertEquals(1, result.getChanged());
+    }
+
+    @Test
+    void testRevokeRoleFromUsersIsRoleLookupAndOneStatement() {
+        RoleAssignmentResultDTO result = assertStatements(2,
+                () -> userService.revokeRoleFromUsers(role.getId(), List.of(user.getId())));
+
+        assertEquals(1, result.getChanged());
+    }
+
+    @Test
+    void testRevokeRoleFromUsersInOrganizationIsOneStatement() {
+        RoleAssignmentResultDTO result = assertStatements(1,
+                () -> userService.revokeRoleFromUsersInOrganization(role.getId(), List.of(user.getId()), organizationId));
+
+        assertEquals(1, result.getChanged());
+    }
+
+    @Test
+    void testAssignRolesToUserIsUserLookupAndOneStatement() {
+        RoleAssignmentResultDTO result = assertStatements(2,
+                () -> userService.assignRolesToUser(user.getId(), List.of(unassignedRole.getId())));
+
+        assertEquals(1, result.getChanged());
+    }
+
+    @Test
+    void testAssignRolesToUserInOrganizationIsOneStatement() {
+        RoleAssignmentResultDTO result = assertStatements(1,
+                () -> userService.assignRolesToUserInOrganization(user.getId(), List.of(unassignedRole.getId()), organizationId));
+
+        assertEquals(1, result.getChanged());
+    }
+
+    @Test
+    void testRevokeRolesFromUserIsUserLookupAndOneStatement() {
+        RoleAssignmentResultDTO result = assertStatements(2,
+                () -> userService.revokeRolesFromUser(user.getId(), List.of(role.getId())));
+
+        assertEquals(1, result.getChanged());
+    }
+
+    @Test
+    void testRevokeRolesFromUserInOrganizationIsOneStatement() {
+        RoleAssignmentResultDTO result = assertStatements(1,
+                () -> userService.revokeRolesFromUserInOrganization(user.getId(), List.of(role.getId()), organizationId));
+
+        assertEquals(1, result.getChanged());
+    }
+
+    // RoleService
+
+    @Test
+    void testCreateRoleChecksTheNameAndInserts() {
+        RoleDTO dto = RoleDTO.builder().name("NEW").organizationId(organizationId).build();
+
+        // name check, insert flushed so the unique index can reject a racing duplicate
+        assertStatements(2, () -> roleService.createRole(dto));
+    }
+
+    @Test
+    void testCreateRoleForOrganizationChecksTheNameAndInserts() {
+        assertStatements(2, () -> roleService.createRoleForOrganization(RoleDTO.builder().name("NEW").build(), organizationId));
+    }
+
+    @Test
+    void testGetAllRolesIsOneStatement() {
+        List<RoleDTO> roles = assertStatements(1, () -> roleService.getAllRoles());
+
+        assertEquals(ROLE_COUNT + 1, roles.size());
+    }
+
+    @Test
+    void testGetRoleByIdIsOneStatement() {
+        assertEquals(PERMISSIONS_PER_ROLE, assertStatements(1, () -> roleService.getRoleById(role.getId())).getPermissions().size());
+    }
+
+    @Test
+    void testRoleFieldReadsAreOneStatement() {
+        Set<String> fields = Set.of("name");
+
+        assertEquals(ROLE_COUNT + 1, assertStatements(1, () -> roleService.getAllRoles(fields)).size());
+        assertEquals(ROLE_COUNT + 1, assertStatements(1, () -> roleService.getAllRolesByOrganization(organizationId, fields)).size());
+        assertEquals(role.getName(), assertStatements(1, () -> roleService.getRoleById(role.getId(), fields)).get("name"));
+        assertEquals(role.getName(), assertStatements(1,
+                () -> roleService.getRoleByIdAndOrganization(role.getId(), organizationId, fields)).get("name"));
+    }
+
+    @Test
+    void testRoleFieldReadsWithPermissionsAreOneStatement() {
+        Set<String> fields = Set.of("name", "permissions");
+
+        assertEquals(ROLE_COUNT + 1, assertStatements(1, () -> roleService.getAllRoles(fields)).size());
+        entityManager.clear();
+        assertEquals(ROLE_COUNT + 1, assertStatements(1, () -> roleService.getAllRolesByOrganization(organizationId, fields)).size());
+        entityManager.clear();
+        assertStatements(1, () -> roleService.getRoleById(role.getId(), fields));
+        entityManager.clear();
+        assertStatements(1, () -> roleService.getRoleByIdAndOrganization(role.getId(), organizationId, fields));
+    }
+
+    @Test
+    void testUpdateRoleRenameInvalidatesHoldersInOneStatement() {
+        // role with permissions, name check, holders of the role, update
+        RoleDTO dto = assertStatements(4, () -> roleService.updateRole(role.getId(), RoleDTO.builder().name("RENAMED").build()));
+
+        assertEquals(PERMISSIONS_PER_ROLE, dto.getPermissions().size());
+    }
+
+    @Test
+    void testUpdateRoleInOrganizationRenameInvalidatesHoldersInOneStatement() {
+        assertStatements(4, () -> roleService.updateRoleInOrganization(role.getId(),
+                RoleDTO.builder().name("RENAMED").build(), organizationId));
+    }
+
+    @Test
+    void testDeleteRoleByIdDoesNotLoadPermissionsOrUsers() {
+        // role lookup, holders of the role
+        assertStatements(2, () -> {
+            roleService.deleteRoleById(role.getId());
+            return null;
+        });
+    }
+
+    @Test
+    void testDeleteRoleByIdAndOrganizationDoesNotLoadPermissionsOrUsers() {
+        assertStatements(2, () -> {
+            roleService.deleteRoleByIdAndOrganization(role.getId(), organizationId);
+            return null;
+        });
+    }
+
+    @Test
+    void testAddPermissionToRoleWithoutOrganizationIsTwoExistenceChecksAndInsert() {
+        assertStatements(3, () -> {
+            roleService.addPermissionToRole(unassignedRole.getId(), ungrantedPermission.getId());
+            return null;
+        });
+    }
+
+    @Test
+    void testRemovePermissionFromRoleIsExistenceCheckAndDelete() {
+        assertStatements(2, () -> {
+            roleService.removePermissionFromRole(role.getId(), permission.getId());
+            return null;
+        });
+    }
+
+    @Test
+    void testRemovePermissionFromRoleInOrganizationIsLookupAndDelete() {
+        assertStatements(2, () -> {
+            roleService.removePermissionFromRoleInOrganization(role.getId(), permission.getId(), organizationId);
+            return null;
+        });
+    }
+
+    @Test
+    void testUpdateRolePermissionsIsOneStatementPerStep() {
+        RolePermissionPatchDTO patch = new RolePermissionPatchDTO(List.of(ungrantedPermission.getId()), List.of(permission.getId()));
+
+        // role lookup, added ids checked, revoke, grant
+        RolePermissionChangeDTO change = assertStatements(4, () -> roleService.updateRolePermissions(role.getId(), patch));
+
+        assertEquals(List.of(ungrantedPermission.getId()), change.getAdded());
+        assertEquals(List.of(permission.getId()), change.getRemoved());
+    }
+
+    @Test
+    void testUpdateRolePermissionsInOrganizationIsOneStatementPerStep() {
+        RolePermissionPatchDTO patch = new RolePermissionPatchDTO(List.of(ungrantedPermission.getId()), List.of(permission.getId()));
+
+        assertStatements(4, () -> roleService.updateRolePermissionsInOrganization(role.getId(), patch, organizationId));
+    }
+
+    @Test
+    void testReplaceRolePermissionsIsLookupCheckAndOneStatement() {
+        // role lookup, ids checked, revoke and grant in one statement
+        RolePermissionChangeDTO change = assertStatements(3,
+                () -> roleService.replaceRolePermissions(role.getId(), List.of(ungrantedPermission.getId())));
+
+        assertEquals(List.of(ungrantedPermission.getId()), change.getAdded());
+        assertEquals(PERMISSIONS_PER_ROLE, change.getRemoved().size());
+    }
+
+    @Test
+    void testReplaceRolePermissionsInOrganizationIsLookupCheckAndOneStatement() {
+        assertStatements(3, () -> roleService.replaceRolePermissionsInOrganization(role.getId(),
+                List.of(ungrantedPermission.getId()), organizationId));
+    }
+
+    // PermissionService
+
+    @Test
+    void testCreatePermissionOnlyChecksTheName() {
+        assertStatements(1, () -> permissionService.createPermission(
+                PermissionDTO.builder().name("NEW").organizationId(organizationId).build()));
+    }
+
+    @Test
+    void testCreatePermissionForOrganizationOnlyChecksTheName() {
+        assertStatements(1, () -> permissionService.createPermissionForOrganization(
+                PermissionDTO.builder().name("NEW").build(), organizationId));
+    }
+
+    @Test
+    void testPermissionReadsAreOneStatement() {
+        assertStatements(1, () -> permissionService.getAllPermissions());
+        assertEquals(ROLE_COUNT * PERMISSIONS_PER_ROLE + 1,
+                assertStatements(1, () -> permissionService.getAllPermissionsByOrganization(organizationId)).size());
+        entityManager.clear();
+        assertStatements(1, () -> permissionService.getPermissionById(permission.getId()));
+        entityManager.clear();
+        assertStatements(1, () -> permissionService.getPermissionByIdAndOrganization(permission.getId(), organizationId));
+    }
+
+    @Test
+    void testUpdatePermissionRenameIsLookupAndNameCheck() {
+        assertStatements(2, () -> permissionService.updatePermission(permission.getId(),
+                PermissionDTO.builder().name("RENAMED").build()));
+    }
+
+    @Test
+    void testUpdatePermissionInOrganizationRenameIsLookupAndNameCheck() {
+        assertStatements(2, () -> permissionService.updatePermissionInOrganization(permission.getId(),
+                PermissionDTO.builder().name("RENAMED").build(), organizationId));
+    }
+
+    @Test
+    void testDeletePermissionByIdIsTwoStatements() {
+        assertStatements(2, () -> {
+            permissionService.deletePermissionById(permission.getId());
+            return null;
+        });
+    }
+
+    private static CreateUserDTO newUser(String username, UUID organizationId) {
+        return CreateUserDTO.builder()
+                .username(username).email(username + "@example.com").password("secret")
+                .organizationId(organizationId).build();
+    }
+
+    private <T> T assertStatements(long expected, Supplier<T> call) {
+        EXECUTED_STATEMENTS.set(0);
+        T result = call.get();
+        assertEquals(expected, EXECUTED_STATEMENTS.get(), "executed SQL statements");
+        return result;
+    }
+}
@@ -0,0 +1,172 @@
+package com.hsurvey.userservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsurvey.userservice.config.ReadYourWritesDataSource;
+import com.hsurvey.userservice.config.ReadYourWritesPins;
+import com.hsurvey.userservice.config.ReplicaRoutingDataSource;
+import com.hsurvey.userservice.controller.PermissionController;
+import com.hsurvey.userservice.controller.RoleController;
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository;
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository.Scope;
+import com.hsurvey.userservice.service.OrganizationPayloadCache;
+import com.hsurvey.userservice.service.OrganizationVersionService;
+import com.hsurvey.userservice.service.PermissionService;
+import com.hsurvey.userservice.service.RoleService;
+import com.hsurvey.userservice.utils.OrganizationContextUtil;
+import com.hsurvey.userservice.utils.PrimaryReads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReadReplicaRoutingTest {
+
+    private final ReadYourWritesPins pins = new ReadYourWritesPins(Duration.ofMinutes(1));
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("alice", null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRoutesToReplicasUnlessPrimaryReadIsRequiredOrPrincipalIsPinned() throws Exception {
+        DataSource primary = dataSourceWith(mock(Connection.class));
+        Connection replicaConnection = mock(Connection.class);
+        DataSource replica = dataSourceWith(replicaConnection);
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(primary, List.of(replica), pins, new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+
+        assertSame(replicaConnection, routing.getConnection());
+        PrimaryReads.call(() -> {
+            assertDoesNotThrow(() -> routing.getConnection());
+            return null;
+        });
+        pins.pin("alice");
+        routing.getConnection();
+
+        verify(primary, times(2)).getConnection();
+        verify(replica, times(1)).getConnection();
+        assertFalse(PrimaryReads.isRequired());
+    }
+
+    @Test
+    void testOnlyOtherPrincipalsReadFromReplicaAfterAWrite() throws Exception {
+        pins.pin("alice");
+
+        assertTrue(pins.isCurrentPrincipalPinned());
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("bob", null, List.of()));
+        assertFalse(pins.isCurrentPrincipalPinned());
+    }
+
+    @Test
+    void testVersionedListsBypassingThePayloadCacheReadFromPrimary() {
+        UUID organizationId = UUID.randomUUID();
+        OrganizationContextUtil organizationContextUtil = mock(OrganizationContextUtil.class);
+        when(organizationContextUtil.getCurrentOrganizationId()).thenReturn(organizationId);
+        OrganizationVersionRepository versionRepository = mock(OrganizationVersionRepository.class);
+        when(versionRepository.findVersion(eq(organizationId), any(Scope.class))).thenReturn(1L);
+        OrganizationVersionService versionService = new OrganizationVersionService(versionRepository);
+        OrganizationPayloadCache payloadCache = new OrganizationPayloadCache(
+                new ObjectMapper(), new SimpleMeterRegistry(), 1 << 20, Duration.ofMinutes(30));
+        // Each load reports whether it would have been routed to the primary
+        RoleService roleService = mock(RoleService.class);
+        when(roleService.getAllRolesByOrganization(organizationId))
+                .thenAnswer(invocation -> { assertTrue(PrimaryReads.isRequired()); return List.of(); });
+        when(roleService.getAllRolesByOrganization(eq(organizationId), any()))
+                .thenAnswer(invocation -> { assertTrue(PrimaryReads.isRequired()); return List.of(); });
+        PermissionService permissionService = mock(PermissionService.class);
+        when(permissionService.getAllPermissionsByOrganization(organizationId))
+                .thenAnswer(invocation -> { assertTrue(PrimaryReads.isRequired()); return List.of(); });
+        RoleController roleController =
+                new RoleController(roleService, organizationContextUtil, versionService, payloadCache);
+        PermissionController permissionController =
+                new PermissionController(permissionService, organizationContextUtil, versionService, payloadCache);
+
+        roleController.getAllRoles(Set.of("name"), webRequest("application/json"));
+        roleController.getAllRoles(null, webRequest("application/x-jackson-smile"));
+        permissionController.getAllPermissions(webRequest("application/x-jackson-smile"));
+
+        verify(roleService).getAllRolesByOrganization(organizationId, Set.of("name"));
+        verify(roleService).getAllRolesByOrganization(organizationId);
+        verify(permissionService).getAllPermissionsByOrganization(organizationId);
+    }
+
+    @Test
+    void testReadOnlyTransactionsReachReplicaAndWritesPinTheWriter() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is required for the replica routing test");
+
+        try (PostgreSQLContainer<?> primaryDb = new PostgreSQLContainer<>("postgres:16-alpine").withDatabaseName("primary");
+             PostgreSQLContainer<?> replicaDb = new PostgreSQLContainer<>("postgres:16-alpine").withDatabaseName("replica")) {
+            primaryDb.start();
+            replicaDb.start();
+            DataSource primary = new DriverManagerDataSource(primaryDb.getJdbcUrl(), primaryDb.getUsername(), primaryDb.getPassword());
+            DataSource replica = new DriverManagerDataSource(replicaDb.getJdbcUrl(), replicaDb.getUsername(), replicaDb.getPassword());
+            ReplicaRoutingDataSource routing =
+                    new ReplicaRoutingDataSource(primary, List.of(replica), pins, new SimpleMeterRegistry());
+            routing.afterPropertiesSet();
+            LazyConnectionDataSourceProxy dataSource =
+                    new LazyConnectionDataSourceProxy(new ReadYourWritesDataSource(primary, pins));
+            dataSource.setReadOnlyDataSource(routing);
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            TransactionTemplate write = new TransactionTemplate(transactionManager);
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            String currentDatabase = "SELECT current_database()";
+
+            assertEquals("replica", readOnly.execute(status -> jdbcTemplate.queryForObject(currentDatabase, String.class)));
+            assertEquals("primary", write.execute(status -> jdbcTemplate.queryForObject(currentDatabase, String.class)));
+            assertEquals("primary", readOnly.execute(status -> jdbcTemplate.queryForObject(currentDatabase, String.class)));
+
+            SecurityContextHolder.getContext().setAuthentication(
+                    UsernamePasswordAuthenticationToken.authenticated("bob", null, List.of()));
+            assertEquals("replica", readOnly.execute(status -> jdbcTemplate.queryForObject(currentDatabase, String.class)));
+        }
+    }
+
+    private static ServletWebRequest webRequest(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roles");
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private static DataSource dataSourceWith(Connection connection) throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,99 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.RoleDTO;
+import com.hsurvey.userservice.entities.Role;
+import com.hsurvey.userservice.mapper.RoleMapper;
+import com.hsurvey.userservice.repositories.PermissionRepository;
+import com.hsurvey.userservice.repositories.RolePermissionRepository;
+import com.hsurvey.userservice.repositories.RoleReadRepository;
+import com.hsurvey.userservice.repositories.RoleRepository;
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import com.hsurvey.userservice.service.impl.RoleServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * A concurrent request can create the same role name between the exists check and the insert;
+ * the unique index then rejects the flush, which must surface like the check itself.
+ */
+@ExtendWith(MockitoExtension.class)
+class RoleNameConflictTest {
+
+    @Mock private RoleRepository roleRepository;
+    @Mock private PermissionRepository permissionRepository;
+    @Mock private RoleMapper roleMapper;
+    @Mock private UserReadRepository userReadRepository;
+    @Mock private UserInvalidationBus userInvalidationBus;
+    @Mock private RoleReadRepository roleReadRepository;
+    @Mock private RolePermissionRepository rolePermissionRepository;
+
+    private RoleServiceImpl roleService;
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() {
+        roleService = new RoleServiceImpl(roleRepository, permissionRepository, roleMapper,
+                userReadRepository, userInvalidationBus, roleReadRepository, rolePermissionRepository);
+        organizationId = UUID.randomUUID();
+    }
+
+    @Test
+    void testCreateLosingTheRaceReportsTheNameAsTaken() {
+        RoleDTO dto = RoleDTO.builder().name("EDITOR").build();
+        when(roleMapper.toEntity(dto)).thenReturn(Role.builder().name("EDITOR").organizationId(organizationId).build());
+        when(roleRepository.saveAndFlush(any())).thenThrow(uniqueViolation("uq_roles_organization_id_name"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> roleService.createRoleForOrganization(dto, organizationId));
+
+        assertEquals("Role with name 'EDITOR' already exists in this organization", e.getMessage());
+        verifyNoInteractions(userInvalidationBus);
+    }
+
+    @Test
+    void testRenameLosingTheRaceReportsTheNameAsTaken() {
+        Role role = Role.builder().id(UUID.randomUUID()).name("EDITOR").organizationId(organizationId)
+                .permissions(new HashSet<>()).build();
+        when(roleRepository.findWithPermissionsById(role.getId())).thenReturn(Optional.of(role));
+        when(userReadRepository.findUserIdsByRoleId(role.getId())).thenReturn(List.of());
+        when(roleRepository.saveAndFlush(role)).thenThrow(uniqueViolation("uq_roles_organization_id_name"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> roleService.updateRoleInOrganization(role.getId(), RoleDTO.builder().name("REVIEWER").build(), organizationId));
+
+        assertEquals("Role with name 'REVIEWER' already exists in this organization", e.getMessage());
+    }
+
+    @Test
+    void testOtherIntegrityViolationsAreNotReportedAsDuplicates() {
+        RoleDTO dto = RoleDTO.builder().name("EDITOR").build();
+        DataIntegrityViolationException violation = uniqueViolation("roles_pkey");
+        when(roleMapper.toEntity(dto)).thenReturn(Role.builder().name("EDITOR").organizationId(organizationId).build());
+        when(roleRepository.saveAndFlush(any())).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> roleService.createRoleForOrganization(dto, organizationId)));
+    }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key value", new SQLException("duplicate key value", "23505"),
+                        constraintName));
+    }
+}
@@ -0,0 +1,110 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.RolePermissionChangeDTO;
+import com.hsurvey.userservice.dto.RolePermissionPatchDTO;
+import com.hsurvey.userservice.entities.Role;
+import com.hsurvey.userservice.mapper.RoleMapper;
+import com.hsurvey.userservice.repositories.PermissionRepository;
+import com.hsurvey.userservice.repositories.RolePermissionRepository;
+import com.hsurvey.userservice.repositories.RoleReadRepository;
+import com.hsurvey.userservice.repositories.RoleRepository;
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import com.hsurvey.userservice.service.impl.RoleServiceImpl;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RolePermissionEditTest {
+
+    @Mock private RoleRepository roleRepository;
+    @Mock private PermissionRepository permissionRepository;
+    @Mock private RoleMapper roleMapper;
+    @Mock private UserReadRepository userReadRepository;
+    @Mock private UserInvalidationBus userInvalidationBus;
+    @Mock private RoleReadRepository roleReadRepository;
+    @Mock private RolePermissionRepository rolePermissionRepository;
+
+    private RoleServiceImpl roleService;
+    private UUID organizationId;
+    private Role role;
+
+    @BeforeEach
+    void setUp() {
+        roleService = new RoleServiceImpl(roleRepository, permissionRepository, roleMapper,
+                userReadRepository, userInvalidationBus, roleReadRepository, rolePermissionRepository);
+        organizationId = UUID.randomUUID();
+        role = Role.builder().id(UUID.randomUUID()).name("EDITOR").organizationId(organizationId).build();
+        when(roleRepository.findById(role.getId())).thenReturn(Optional.of(role));
+    }
+
+    @Test
+    void testPatchRevokesThenGrantsAndReportsOnlyChanges() {
+        UUID granted = UUID.randomUUID();
+        UUID alreadyHeld = UUID.randomUUID();
+        UUID revoked = UUID.randomUUID();
+        when(rolePermissionRepository.findPermissionIdsInOrganization(Set.of(granted, alreadyHeld), organizationId))
+                .thenReturn(Set.of(granted, alreadyHeld));
+        when(rolePermissionRepository.removePermissions(role.getId(), Set.of(revoked))).thenReturn(List.of(revoked));
+        when(rolePermissionRepository.addPermissions(role.getId(), Set.of(granted, alreadyHeld), organizationId))
+                .thenReturn(List.of(granted));
+
+        RolePermissionChangeDTO change = roleService.updateRolePermissionsInOrganization(role.getId(),
+                new RolePermissionPatchDTO(List.of(granted, alreadyHeld, granted), List.of(revoked)), organizationId);
+
+        assertEquals(List.of(granted), change.getAdded());
+        assertEquals(List.of(revoked), change.getRemoved());
+        verify(userInvalidationBus).roleChanged(role.getId(), organizationId);
+    }
+
+    @Test
+    void testReplaceRejectsPermissionsOfAnotherOrganizationBeforeWriting() {
+        UUID own = UUID.randomUUID();
+        UUID foreign = UUID.randomUUID();
+        when(rolePermissionRepository.findPermissionIdsInOrganization(Set.of(own, foreign), organizationId))
+                .thenReturn(Set.of(own));
+
+        EntityNotFoundException e = assertThrows(EntityNotFoundException.class, () ->
+                roleService.replaceRolePermissionsInOrganization(role.getId(), List.of(own, foreign), organizationId));
+
+        assertTrue(e.getMessage().contains(foreign.toString()));
+        verify(rolePermissionRepository, never()).replacePermissions(any(), any(), any());
+        verifyNoInteractions(userInvalidationBus);
+    }
+
+    @Test
+    void testReplaceWithEmptyListRevokesEverything() {
+        UUID held = UUID.randomUUID();
+        when(rolePermissionRepository.replacePermissions(eq(role.getId()), eq(Set.of()), eq(organizationId)))
+                .thenReturn(new RolePermissionRepository.Diff(List.of(), List.of(held)));
+
+        RolePermissionChangeDTO change = roleService.replaceRolePermissions(role.getId(), List.of());
+
+        assertEquals(List.of(held), change.getRemoved());
+        verify(rolePermissionRepository, never()).findPermissionIdsInOrganization(any(), any());
+    }
+
+    @Test
+    void testRemoveMissingGrantIsNotFoundWithoutLoadingPermissions() {
+        UUID permissionId = UUID.randomUUID();
+        when(roleRepository.removePermissionFromRole(role.getId(), permissionId)).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () ->
+                roleService.removePermissionFromRoleInOrganization(role.getId(), permissionId, organizationId));
+        verify(roleRepository, never()).findWithPermissionsById(any());
+    }
+}
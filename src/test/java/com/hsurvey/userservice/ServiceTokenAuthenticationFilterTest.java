@@ -0,0 +1,54 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.filter.ServiceTokenAuthenticationFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceTokenAuthenticationFilterTest {
+
+    @Test
+    void testValidTokenPassesThrough() throws Exception {
+        ServiceTokenAuthenticationFilter filter = new ServiceTokenAuthenticationFilter("secret-token");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/users/bulk");
+        request.addHeader(ServiceTokenAuthenticationFilter.SERVICE_TOKEN_HEADER, "secret-token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testWrongTokenIsRejected() throws Exception {
+        ServiceTokenAuthenticationFilter filter = new ServiceTokenAuthenticationFilter("secret-token");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/users/bulk");
+        request.addHeader(ServiceTokenAuthenticationFilter.SERVICE_TOKEN_HEADER, "other-token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testUnconfiguredTokenRejectsEverything() throws Exception {
+        ServiceTokenAuthenticationFilter filter = new ServiceTokenAuthenticationFilter("");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/users/bulk");
+        request.addHeader(ServiceTokenAuthenticationFilter.SERVICE_TOKEN_HEADER, "");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(401, response.getStatus());
+    }
+}
@@ -0,0 +1,114 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.RoleDTO;
+import com.hsurvey.userservice.dto.RoleField;
+import com.hsurvey.userservice.dto.UserField;
+import com.hsurvey.userservice.entities.Role;
+import com.hsurvey.userservice.mapper.RoleMapper;
+import com.hsurvey.userservice.repositories.PermissionRepository;
+import com.hsurvey.userservice.repositories.RolePermissionRepository;
+import com.hsurvey.userservice.repositories.RoleReadRepository;
+import com.hsurvey.userservice.repositories.RoleRepository;
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import com.hsurvey.userservice.service.impl.RoleServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SparseFieldsetTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PermissionRepository permissionRepository;
+
+    @Mock
+    private RoleMapper roleMapper;
+
+    @Mock
+    private UserReadRepository userReadRepository;
+
+    @Mock
+    private UserInvalidationBus userInvalidationBus;
+
+    @Mock
+    private RoleReadRepository roleReadRepository;
+
+    @Mock
+    private RolePermissionRepository rolePermissionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private RoleServiceImpl roleService;
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() {
+        roleService = new RoleServiceImpl(roleRepository, permissionRepository, roleMapper,
+                userReadRepository, userInvalidationBus, roleReadRepository, rolePermissionRepository);
+        organizationId = UUID.randomUUID();
+    }
+
+    @Test
+    void testRoleFieldsWithoutPermissionsSkipTheEntityGraph() {
+        when(roleReadRepository.findFieldsByOrganizationId(organizationId, EnumSet.of(RoleField.ID, RoleField.NAME)))
+                .thenReturn(List.of(Map.of("id", UUID.randomUUID(), "name", "ADMIN")));
+
+        List<Map<String, Object>> roles = roleService.getAllRolesByOrganization(organizationId, Set.of("id", "name"));
+
+        assertEquals("ADMIN", roles.get(0).get("name"));
+        verifyNoInteractions(roleRepository, roleMapper);
+    }
+
+    @Test
+    void testRoleFieldsWithPermissionsUseTheEntityGraph() {
+        when(roleRepository.findWithPermissionsByOrganizationId(organizationId)).thenReturn(List.of(new Role()));
+        when(roleMapper.toDto(any(Role.class))).thenReturn(new RoleDTO());
+
+        List<Map<String, Object>> roles = roleService.getAllRolesByOrganization(organizationId, Set.of("permissions"));
+
+        assertEquals(Set.of("permissions"), roles.get(0).keySet());
+        verifyNoInteractions(roleReadRepository);
+    }
+
+    @Test
+    void testUnknownFieldIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> roleService.getAllRolesByOrganization(organizationId, Set.of("id", "password")));
+        assertThrows(IllegalArgumentException.class, () -> UserField.parse(List.of("password")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUserProjectionSelectsOnlyRequestedColumns() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        when(jdbcTemplate.query(sql.capture(), any(RowMapper.class), eq(organizationId))).thenReturn(List.of());
+
+        new UserReadRepository(jdbcTemplate)
+                .findFieldsByOrganizationId(organizationId, UserField.parse(List.of("username")));
+
+        // Lists are ordered by id without returning it; only requested keys reach the JSON
+        assertTrue(sql.getValue().startsWith("SELECT u.username FROM users u"));
+        assertFalse(sql.getValue().contains("user_roles"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.BulkUserLookupResponse;
+import com.hsurvey.userservice.dto.UserField;
+import com.hsurvey.userservice.mapper.UserMapper;
+import com.hsurvey.userservice.repositories.RoleRepository;
+import com.hsurvey.userservice.repositories.UserCountRepository;
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.repositories.UserRepository;
+import com.hsurvey.userservice.repositories.UserRoleRepository;
+import com.hsurvey.userservice.service.UserDtoCache;
+import com.hsurvey.userservice.service.UserIdIndex;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import com.hsurvey.userservice.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserBulkLookupTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserReadRepository userReadRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserIdIndex userIdIndex;
+
+    @Mock
+    private UserDtoCache userDtoCache;
+
+    @Mock
+    private UserInvalidationBus userInvalidationBus;
+
+    @Mock
+    private UserCountRepository userCountRepository;
+
+    @Mock
+    private UserRoleRepository userRoleRepository;
+
+    private UserServiceImpl userService;
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserServiceImpl(userRepository, userReadRepository, roleRepository, userMapper,
+                passwordEncoder, userIdIndex, userDtoCache, userInvalidationBus, userCountRepository, userRoleRepository);
+        organizationId = UUID.randomUUID();
+    }
+
+    @Test
+    void testLookupPreservesRequestOrderAndReportsMissing() {
+        UUID first = UUID.randomUUID();
+        UUID absent = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        // The database returns rows in its own order
+        when(userReadRepository.findFieldsByIds(eq(List.of(first, absent, second)), eq(organizationId), anySet()))
+                .thenReturn(List.of(row(second), row(first)));
+
+        BulkUserLookupResponse response = userService.lookupUsersInOrganization(
+                List.of(first, absent, second, first), null, organizationId);
+
+        assertEquals(List.of(first, second), response.getUsers().stream().map(u -> u.get("id")).toList());
+        assertEquals(List.of(absent), response.getMissing());
+    }
+
+    @Test
+    void testLookupSplitsIdsIntoFixedChunks() {
+        List<UUID> ids = IntStream.range(0, 2500).mapToObj(i -> UUID.randomUUID()).toList();
+        when(userReadRepository.findFieldsByIds(anyList(), isNull(), anySet())).thenReturn(List.of());
+
+        BulkUserLookupResponse response = userService.lookupUsers(ids, null);
+
+        verify(userReadRepository, times(2)).findFieldsByIds(argThat(chunk -> chunk.size() == 1000), isNull(), anySet());
+        verify(userReadRepository, times(1)).findFieldsByIds(argThat(chunk -> chunk.size() == 500), isNull(), anySet());
+        assertEquals(ids, response.getMissing());
+    }
+
+    @Test
+    void testLookupSelectsOnlyRequestedFields() {
+        UUID id = UUID.randomUUID();
+        when(userReadRepository.findFieldsByIds(anyList(), eq(organizationId), anySet())).thenReturn(List.of());
+
+        userService.lookupUsersInOrganization(List.of(id), Set.of("email"), organizationId);
+
+        verify(userReadRepository).findFieldsByIds(List.of(id), organizationId, EnumSet.of(UserField.EMAIL));
+    }
+
+    @Test
+    void testLookupRejectsUnknownFieldsAndOversizedRequests() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.lookupUsers(List.of(UUID.randomUUID()), Set.of("password")));
+
+        List<UUID> tooMany = IntStream.range(0, 50_001).mapToObj(i -> UUID.randomUUID()).toList();
+        assertThrows(IllegalArgumentException.class, () -> userService.lookupUsers(tooMany, null));
+
+        verifyNoInteractions(userReadRepository);
+    }
+
+    private Map<String, Object> row(UUID id) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("organizationId", organizationId);
+        return row;
+    }
+}
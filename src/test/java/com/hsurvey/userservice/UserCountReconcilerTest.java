@@ -0,0 +1,85 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.repositories.UserCountRepository;
+import com.hsurvey.userservice.repositories.UserCountRepository.Drift;
+import com.hsurvey.userservice.service.UserCountReconciler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCountReconcilerTest {
+
+    @Mock
+    private UserCountRepository userCountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCountReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new UserCountReconciler(userCountRepository, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void testAppliesDriftAsDeltasInOneSnapshot() {
+        UUID organizationId = UUID.randomUUID();
+        UUID roleId = UUID.randomUUID();
+        when(userCountRepository.tryLockForReconcile()).thenReturn(true);
+        when(userCountRepository.findOrganizationDrift())
+                .thenReturn(List.of(new Drift(organizationId, organizationId, 10, 12)));
+        when(userCountRepository.findRoleDrift())
+                .thenReturn(List.of(new Drift(roleId, organizationId, 5, 0)));
+
+        List<Drift> corrected = reconciler.reconcile();
+
+        assertEquals(2, corrected.size());
+        verify(userCountRepository).adjustOrganizationCount(organizationId, 2);
+        verify(userCountRepository).adjustRoleCount(roleId, organizationId, -5);
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+        assertEquals(2.0, meterRegistry.get("userservice.counters.drift").counter().count());
+    }
+
+    @Test
+    void testDropsCountersOfDeletedRolesInsteadOfZeroingThem() {
+        UUID organizationId = UUID.randomUUID();
+        Drift orphaned = new Drift(UUID.randomUUID(), organizationId, 3, 0);
+        when(userCountRepository.tryLockForReconcile()).thenReturn(true);
+        when(userCountRepository.deleteOrphanedRoleCounts()).thenReturn(List.of(orphaned));
+
+        assertEquals(List.of(orphaned), reconciler.reconcile());
+
+        verify(userCountRepository, never()).adjustRoleCount(any(), any(), anyLong());
+        assertEquals(1.0, meterRegistry.get("userservice.counters.drift").counter().count());
+    }
+
+    @Test
+    void testSkipsWhenAnotherReplicaHoldsTheLock() {
+        when(userCountRepository.tryLockForReconcile()).thenReturn(false);
+
+        assertTrue(reconciler.reconcile().isEmpty());
+
+        verify(userCountRepository, never()).findOrganizationDrift();
+        verify(userCountRepository, never()).deleteOrphanedRoleCounts();
+        verify(userCountRepository, never()).adjustOrganizationCount(any(), anyLong());
+    }
+}
@@ -0,0 +1,179 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.repositories.UserCountRepository;
+import com.hsurvey.userservice.service.UserCountReconciler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the V5 counter triggers and the reconcile job against Postgres: after bulk inserts and
+ * deletes on users, user_roles and roles, every counter must equal the COUNT(*) it stands for.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserCountTriggerTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static UserCountReconciler reconciler;
+
+    private final UUID firstOrganization = UUID.randomUUID();
+    private final UUID secondOrganization = UUID.randomUUID();
+
+    @BeforeAll
+    static void migrate() {
+        String url = POSTGRES.getJdbcUrl() + "&currentSchema=user_service";
+        Flyway.configure()
+                .dataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword())
+                .schemas("user_service").defaultSchema("user_service").createSchemas(true)
+                .load().migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        reconciler = new UserCountReconciler(new UserCountRepository(jdbcTemplate),
+                new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry());
+    }
+
+    @BeforeEach
+    void clear() {
+        // TRUNCATE fires no DELETE triggers, so counters are emptied with the rows
+        jdbcTemplate.execute("TRUNCATE users, roles, user_roles, organization_user_counts, role_user_counts");
+    }
+
+    @Test
+    void testBulkUserInsertsAndDeletesKeepOrganizationCounts() {
+        insertUsers(firstOrganization, 50);
+        insertUsers(secondOrganization, 30);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, organization_id, password)
+                VALUES (gen_random_uuid(), 'x1', 'x1@example.com', ?, 'x'), (gen_random_uuid(), 'x2', 'x2@example.com', ?, 'x')""",
+                firstOrganization, secondOrganization);
+
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (SELECT id FROM users WHERE organization_id = ? LIMIT 20)",
+                firstOrganization);
+        jdbcTemplate.update("DELETE FROM users WHERE organization_id = ?", secondOrganization);
+
+        assertEquals(Map.of(firstOrganization, 31L), organizationCounters());
+        assertCountersMatchRows();
+    }
+
+    @Test
+    void testBulkMembershipChangesKeepRoleCounts() {
+        insertUsers(firstOrganization, 40);
+        List<UUID> roles = insertRoles(firstOrganization, 3);
+        jdbcTemplate.update("""
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT u.id, r.id FROM users u CROSS JOIN roles r WHERE u.organization_id = ? AND r.organization_id = ?""",
+                firstOrganization, firstOrganization);
+        assertEquals(Map.of(roles.get(0), 40L, roles.get(1), 40L, roles.get(2), 40L), roleCounters());
+
+        jdbcTemplate.update("DELETE FROM user_roles WHERE role_id = ? AND user_id IN (SELECT id FROM users LIMIT 15)", roles.get(0));
+        jdbcTemplate.update("DELETE FROM user_roles WHERE role_id = ?", roles.get(1));
+
+        assertCountersMatchRows();
+        assertEquals(25L, roleCounters().get(roles.get(0)));
+    }
+
+    @Test
+    void testDeletedRolesTakeTheirCountersAlong() {
+        insertUsers(firstOrganization, 10);
+        List<UUID> roles = insertRoles(firstOrganization, 2);
+        jdbcTemplate.update("""
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT u.id, r.id FROM users u CROSS JOIN roles r WHERE u.organization_id = ?""", firstOrganization);
+
+        jdbcTemplate.update("DELETE FROM roles WHERE id = ?", roles.get(0));
+        // Memberships of a role that is already gone must not bring its counter back
+        jdbcTemplate.update("DELETE FROM user_roles WHERE role_id = ?", roles.get(0));
+
+        assertEquals(Map.of(roles.get(1), 10L), roleCounters());
+        assertEquals(0, orphanedRoleCounters());
+        assertCountersMatchRows();
+    }
+
+    @Test
+    void testReconcileRepairsDriftAndDropsCountersOfMissingRoles() {
+        insertUsers(firstOrganization, 5);
+        List<UUID> roles = insertRoles(firstOrganization, 1);
+        jdbcTemplate.execute("ALTER TABLE users DISABLE TRIGGER trg_users_count_insert");
+        jdbcTemplate.execute("ALTER TABLE user_roles DISABLE TRIGGER trg_user_roles_count_insert");
+        try {
+            insertUsers(secondOrganization, 7);
+            jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) SELECT id, ? FROM users WHERE organization_id = ?",
+                    roles.get(0), firstOrganization);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE users ENABLE TRIGGER trg_users_count_insert");
+            jdbcTemplate.execute("ALTER TABLE user_roles ENABLE TRIGGER trg_user_roles_count_insert");
+        }
+        jdbcTemplate.update("INSERT INTO role_user_counts (role_id, organization_id, user_count) VALUES (?, ?, 4), (?, ?, 0)",
+                UUID.randomUUID(), firstOrganization, UUID.randomUUID(), firstOrganization);
+
+        assertEquals(4, reconciler.reconcile().size());
+
+        assertEquals(0, orphanedRoleCounters());
+        assertCountersMatchRows();
+        assertTrue(reconciler.reconcile().isEmpty());
+    }
+
+    private static void insertUsers(UUID organizationId, int count) {
+        jdbcTemplate.update("""
+                        INSERT INTO users (id, username, email, organization_id, password)
+                        SELECT gen_random_uuid(), 'user' || g || '-' || ?, 'user' || g || '-' || ? || '@example.com', ?, 'x'
+                        FROM generate_series(1, ?) g""",
+                organizationId.toString(), organizationId.toString(), organizationId, count);
+    }
+
+    private static List<UUID> insertRoles(UUID organizationId, int count) {
+        return jdbcTemplate.queryForList("""
+                        INSERT INTO roles (id, name, description, organization_id)
+                        SELECT gen_random_uuid(), 'ROLE_' || g, '', ? FROM generate_series(1, ?) g
+                        RETURNING id""",
+                UUID.class, organizationId, count);
+    }
+
+    // Counters and the COUNT(*) they stand for; a counter at zero and a missing one are the same
+    private static void assertCountersMatchRows() {
+        assertEquals(counts("SELECT organization_id, count(*) FROM users GROUP BY organization_id"), organizationCounters());
+        assertEquals(counts("""
+                SELECT ur.role_id, count(*) FROM user_roles ur JOIN roles r ON r.id = ur.role_id GROUP BY ur.role_id"""),
+                roleCounters());
+    }
+
+    private static Map<UUID, Long> organizationCounters() {
+        return counts("SELECT organization_id, user_count FROM organization_user_counts WHERE user_count <> 0");
+    }
+
+    private static Map<UUID, Long> roleCounters() {
+        return counts("SELECT role_id, user_count FROM role_user_counts WHERE user_count <> 0");
+    }
+
+    private static long orphanedRoleCounters() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM role_user_counts c WHERE NOT EXISTS (SELECT 1 FROM roles r WHERE r.id = c.role_id)",
+                Long.class);
+    }
+
+    private static Map<UUID, Long> counts(String sql) {
+        Map<UUID, Long> counts = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(rs.getObject(1, UUID.class), rs.getLong(2));
+        });
+        return counts;
+    }
+}
@@ -0,0 +1,73 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.UserDTO;
+import com.hsurvey.userservice.service.UserDtoCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDtoCacheTest {
+
+    private UserDtoCache userDtoCache;
+    private UUID userId;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        userDtoCache = new UserDtoCache(new SimpleMeterRegistry(), 1 << 20, Duration.ofMinutes(10));
+        userId = UUID.randomUUID();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testSecondReadIsServedFromCacheAsACopy() {
+        UserDTO first = userDtoCache.get(userId, this::load).orElseThrow();
+        first.setUsername("mutated");
+
+        UserDTO second = userDtoCache.get(userId, this::load).orElseThrow();
+
+        assertEquals(1, loads.get());
+        assertEquals("alice", second.getUsername());
+    }
+
+    @Test
+    void testLoadRacingWithInvalidationIsNotCached() {
+        userDtoCache.get(userId, () -> {
+            // A writer commits and invalidates while this stale value is being read
+            userDtoCache.invalidate(List.of(userId));
+            return load();
+        });
+
+        userDtoCache.get(userId, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidateAllDropsEveryEntry() {
+        userDtoCache.get(userId, this::load);
+
+        userDtoCache.invalidateAll();
+        userDtoCache.get(userId, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<UserDTO> load() {
+        loads.incrementAndGet();
+        UserDTO user = new UserDTO();
+        user.setId(userId);
+        user.setUsername("alice");
+        user.setRoles(Set.of("USER"));
+        return Optional.of(user);
+    }
+}
@@ -0,0 +1,89 @@
+package com.hsurvey.userservice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.service.impl.UserExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private UserReadRepository userReadRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserExportServiceImpl userExportService;
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userExportService = new UserExportServiceImpl(userReadRepository, objectMapper, 500);
+        organizationId = UUID.randomUUID();
+
+        ResultSet rs = mock(ResultSet.class);
+        Array aliceRoles = mock(Array.class);
+        Array bobRoles = mock(Array.class);
+        when(rs.getString("id")).thenReturn("a1", "a2");
+        when(rs.getString("username")).thenReturn("alice", "bob");
+        when(rs.getString("email")).thenReturn("alice@example.com", "bob@example.com");
+        when(rs.getString("organization_id")).thenReturn(organizationId.toString());
+        when(rs.getArray("roles")).thenReturn(aliceRoles, bobRoles);
+        when(aliceRoles.getArray()).thenReturn(new String[]{"USER"});
+        when(bobRoles.getArray()).thenReturn(new String[0]);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(userReadRepository).streamByOrganizationId(eq(organizationId), eq(500), any());
+    }
+
+    @Test
+    void testWritesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = userExportService.exportOrganizationUsers(organizationId, out, false);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("{"), "NDJSON lines must not carry a separator");
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("alice", first.get("username").asText());
+        assertEquals("USER", first.get("roles").get(0).asText());
+        assertEquals(0, objectMapper.readTree(lines[1]).get("roles").size());
+    }
+
+    @Test
+    void testGzipOutputDecompressesToNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExportService.exportOrganizationUsers(organizationId, out, true);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String[] lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+            assertEquals(2, lines.length);
+            assertEquals("bob", objectMapper.readTree(lines[1]).get("username").asText());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.service.UserIdIndex;
+import com.hsurvey.userservice.utils.PrimaryReads;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdIndexTest {
+
+    @Mock
+    private UserReadRepository userReadRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    private UserIdIndex userIdIndex;
+
+    @BeforeEach
+    void setUp() {
+        userIdIndex = new UserIdIndex(userReadRepository, transactionManager, applicationTaskExecutor);
+    }
+
+    @Test
+    void testAddContainsAndRemoveAcrossResizes() {
+        List<UUID> ids = IntStream.range(0, 200_000).mapToObj(i -> UUID.randomUUID()).toList();
+        ids.forEach(userIdIndex::add);
+        ids.forEach(userIdIndex::add);
+
+        assertEquals(ids.size(), userIdIndex.size());
+        assertTrue(ids.stream().allMatch(userIdIndex::contains));
+
+        // Removing every other id must keep the rest reachable despite shifted probe runs
+        List<UUID> kept = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (i % 2 == 0) {
+                userIdIndex.remove(ids.get(i));
+            } else {
+                kept.add(ids.get(i));
+            }
+        }
+
+        assertEquals(kept.size(), userIdIndex.size());
+        assertTrue(kept.stream().allMatch(userIdIndex::contains));
+        assertTrue(IntStream.range(0, ids.size()).filter(i -> i % 2 == 0)
+                .noneMatch(i -> userIdIndex.contains(ids.get(i))));
+    }
+
+    @Test
+    void testNullAndNilIdsAreNeverContained() {
+        userIdIndex.add(null);
+        userIdIndex.add(new UUID(0L, 0L));
+
+        assertFalse(userIdIndex.contains(null));
+        assertFalse(userIdIndex.contains(new UUID(0L, 0L)));
+        assertEquals(0, userIdIndex.size());
+    }
+
+    @Test
+    void testRemovalDuringLoadWinsOverLoadedRow() throws Exception {
+        UUID kept = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject(1, UUID.class)).thenReturn(kept, deleted);
+        doAnswer(invocation -> {
+            assertTrue(PrimaryReads.isRequired(), "the index must load from the primary");
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            // A delete commits after the load read the row
+            userIdIndex.remove(deleted);
+            handler.processRow(rs);
+            return null;
+        }).when(userReadRepository).streamAllIds(anyInt(), any());
+
+        assertFalse(userIdIndex.isReady());
+        userIdIndex.load();
+
+        assertTrue(userIdIndex.isReady());
+        assertTrue(userIdIndex.contains(kept));
+        assertFalse(userIdIndex.contains(deleted));
+    }
+
+    @Test
+    void testFailedLoadForgetsWarmingRemovalsAndIsRetried() throws Exception {
+        UUID recreated = UUID.randomUUID();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject(1, UUID.class)).thenReturn(recreated);
+        doAnswer(invocation -> {
+            userIdIndex.remove(recreated);
+            throw new IllegalStateException("connection refused");
+        }).doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            return null;
+        }).when(userReadRepository).streamAllIds(anyInt(), any());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(applicationTaskExecutor).execute(any(Runnable.class));
+
+        userIdIndex.loadInBackground();
+
+        // The removal was seen by the failed attempt only; the retry read the row afresh
+        assertTrue(userIdIndex.isReady());
+        assertTrue(userIdIndex.contains(recreated));
+        verify(userReadRepository, times(2)).streamAllIds(anyInt(), any());
+    }
+}
@@ -0,0 +1,130 @@
+package com.hsurvey.userservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsurvey.userservice.dto.UserImportResultDTO;
+import com.hsurvey.userservice.dto.UserImportRowDTO;
+import com.hsurvey.userservice.repositories.UserImportRepository;
+import com.hsurvey.userservice.repositories.UserImportRepository.Conflict;
+import com.hsurvey.userservice.repositories.UserImportRepository.StagedUser;
+import com.hsurvey.userservice.service.UserImportService.Format;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import com.hsurvey.userservice.service.impl.UserImportServiceImpl;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserImportRepository userImportRepository;
+
+    @Mock
+    private UserInvalidationBus userInvalidationBus;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final List<List<StagedUser>> stagedBatches = new ArrayList<>();
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() {
+        organizationId = UUID.randomUUID();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().doAnswer(invocation -> stagedBatches.add(List.copyOf(invocation.getArgument(0))))
+                .when(userImportRepository).stage(any());
+    }
+
+    @Test
+    void testReportsEveryCsvRowAndCreatesValidOnesInBatches() throws Exception {
+        // taken@example.com exists already; line 5 repeats line 2's email
+        when(userImportRepository.removeConflicting())
+                .thenAnswer(invocation -> stagedBatches.size() == 1 ? List.of(new Conflict(3, true, false)) : List.of());
+        when(userImportRepository.insertStaged(organizationId)).thenAnswer(invocation ->
+                stagedBatches.get(stagedBatches.size() - 1).stream()
+                        .filter(user -> user.line() != 3).map(StagedUser::id).toList());
+        String csv = """
+                username,email,password
+                alice,alice@example.com,secret1
+                bob,taken@example.com,secret2
+                x,short@example.com,secret3
+                carol,alice@example.com,secret4
+                "dave, jr",dave@example.com,"pa""ss1"
+                """;
+
+        UserImportResultDTO result = service(2).importUsers(organizationId, stream(csv), Format.CSV);
+
+        List<UserImportRowDTO> rows = result.getRows();
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), rows.stream().map(UserImportRowDTO::getLine).toList());
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertNotNull(rows.get(0).getId());
+        assertEquals("Email already exists", rows.get(1).getError());
+        assertEquals("Username must be between 3 and 50 characters", rows.get(2).getError());
+        assertEquals("Email appears more than once in this import", rows.get(3).getError());
+        assertEquals("dave, jr", rows.get(4).getUsername());
+
+        assertEquals(List.of(2, 1), stagedBatches.stream().map(List::size).toList());
+        StagedUser dave = stagedBatches.get(1).get(0);
+        assertTrue(passwordEncoder.matches("pa\"ss1", dave.passwordHash()));
+        verify(userInvalidationBus).usersCreated(argThat((Collection<UUID> ids) -> ids.contains(dave.id())), eq(organizationId));
+    }
+
+    @Test
+    void testMalformedNdjsonLineOnlyRejectsThatRow() throws Exception {
+        when(userImportRepository.insertStaged(organizationId)).thenReturn(List.of());
+        String ndjson = """
+                {"username":"alice","email":"alice@example.com","password":"secret1"}
+                {"username":"bob",
+
+                {"username":"carol","email":"carol@example.com","password":"secret3"}
+                """;
+
+        UserImportResultDTO result = service(100).importUsers(organizationId, stream(ndjson), Format.NDJSON);
+
+        assertEquals(List.of(1L, 2L, 4L), result.getRows().stream().map(UserImportRowDTO::getLine).toList());
+        assertTrue(result.getRows().get(1).getError().startsWith("Malformed JSON"));
+        // Neither row was inserted by the (mocked) database, as if both lost a race
+        assertEquals("Conflicts with a user created concurrently", result.getRows().get(2).getError());
+        assertEquals(1, stagedBatches.size());
+        assertEquals(2, stagedBatches.get(0).size());
+    }
+
+    @Test
+    void testRejectsCsvWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () ->
+                service(100).importUsers(organizationId, stream("username,email\nalice,alice@example.com\n"), Format.CSV));
+        verifyNoInteractions(userImportRepository);
+    }
+
+    private UserImportServiceImpl service(int batchSize) {
+        return new UserImportServiceImpl(userImportRepository, userInvalidationBus, passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                new SimpleAsyncTaskExecutor(), transactionManager, batchSize, 100_000);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,185 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.repositories.OrganizationVersionRepository.Scope;
+import com.hsurvey.userservice.service.OrganizationPayloadCache;
+import com.hsurvey.userservice.service.UserDtoCache;
+import com.hsurvey.userservice.service.UserIdIndex;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserInvalidationBusTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserDtoCache userDtoCache;
+
+    @Mock
+    private UserIdIndex userIdIndex;
+
+    @Mock
+    private OrganizationPayloadCache organizationPayloadCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserInvalidationBus userInvalidationBus;
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userInvalidationBus = new UserInvalidationBus(jdbcTemplate, new DataSourceProperties(),
+                userDtoCache, userIdIndex, organizationPayloadCache, meterRegistry);
+        organizationId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testPublishNotifiesInTransactionAndAppliesLocallyAfterCommit() {
+        UUID userId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        userInvalidationBus.userChanged(userId, organizationId);
+
+        verify(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class),
+                eq(UserInvalidationBus.CHANNEL), anyString(), anyString());
+        verifyNoInteractions(userDtoCache);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(userDtoCache).invalidate(List.of(userId));
+    }
+
+    @Test
+    void testLargeChangeSetsAreSplitAcrossNotifications() {
+        List<UUID> userIds = IntStream.range(0, 400).mapToObj(i -> UUID.randomUUID()).toList();
+
+        userInvalidationBus.usersChanged(userIds, organizationId);
+
+        verify(jdbcTemplate, times(3)).query(anyString(), any(ResultSetExtractor.class),
+                eq(UserInvalidationBus.CHANNEL), anyString(), anyString());
+    }
+
+    @Test
+    void testMessageFromAnotherReplicaIsAppliedAndLagRecorded() {
+        UUID deleted = UUID.randomUUID();
+        String payload = "other-replica|USER|DELETED|" + organizationId + "|42|" +
+                (System.currentTimeMillis() - 5) + "|" + deleted;
+
+        userInvalidationBus.handle(payload);
+
+        verify(userIdIndex).remove(deleted);
+        verify(userDtoCache).invalidate(List.of(deleted));
+        assertEquals(1, meterRegistry.get("userservice.invalidation.lag").timer().count());
+    }
+
+    @Test
+    void testRoleChangePublishesRoleMessageAndEvictsRolePayloadsAfterCommit() {
+        UUID roleId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        userInvalidationBus.roleChanged(roleId, organizationId);
+
+        verify(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), eq(UserInvalidationBus.CHANNEL),
+                endsWith("|ROLE|CHANGED|" + organizationId + "|"), endsWith("|" + roleId));
+        verifyNoInteractions(organizationPayloadCache);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(organizationPayloadCache).invalidate(organizationId, Scope.ROLES);
+        verifyNoInteractions(userDtoCache, userIdIndex);
+    }
+
+    @Test
+    void testPermissionMessagesEvictPermissionAndRolePayloadsOnOtherReplicas() {
+        UUID changed = UUID.randomUUID();
+        UUID created = UUID.randomUUID();
+
+        userInvalidationBus.handle("other|PERMISSION|CHANGED||3|0|" + changed);
+        verify(organizationPayloadCache).invalidate(null, Scope.PERMISSIONS);
+        verify(organizationPayloadCache).invalidate(null, Scope.ROLES);
+
+        // A new permission is in no role yet
+        userInvalidationBus.handle("other|PERMISSION|CREATED|" + organizationId + "|4|0|" + created);
+        verify(organizationPayloadCache).invalidate(organizationId, Scope.PERMISSIONS);
+        verify(organizationPayloadCache, never()).invalidate(organizationId, Scope.ROLES);
+        verifyNoInteractions(userDtoCache, userIdIndex);
+    }
+
+    @Test
+    void testMessageParsing() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        UserInvalidationBus.Message message = UserInvalidationBus.Message.parse(
+                "origin|USER|CHANGED|" + organizationId + "|7|1000|" + first + "," + second);
+
+        assertEquals(UserInvalidationBus.Action.CHANGED, message.action());
+        assertEquals(organizationId, message.organizationId());
+        assertEquals(7, message.version());
+        assertEquals(List.of(first, second), message.ids());
+    }
+
+    @Test
+    void testMalformedMessageIsIgnored() {
+        userInvalidationBus.handle("garbage");
+
+        verifyNoInteractions(userDtoCache, userIdIndex);
+    }
+
+    @Test
+    void testEmptyPollOnDeadConnectionThrowsSoTheListenerReconnects() throws Exception {
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getNotifications(anyInt())).thenReturn(new PGNotification[0]);
+        when(connection.isValid(anyInt())).thenReturn(true, false);
+
+        userInvalidationBus.poll(connection);
+        assertThrows(SQLException.class, () -> userInvalidationBus.poll(connection));
+    }
+
+    @Test
+    void testPollWithNotificationsSkipsTheLivenessCheck() throws Exception {
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        PGNotification notification = mock(PGNotification.class);
+        UUID userId = UUID.randomUUID();
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getNotifications(anyInt())).thenReturn(new PGNotification[]{notification});
+        when(notification.getParameter()).thenReturn("other|USER|CHANGED|" + organizationId + "|1|0|" + userId);
+
+        userInvalidationBus.poll(connection);
+
+        verify(userDtoCache).invalidate(List.of(userId));
+        verify(connection, never()).isValid(anyInt());
+    }
+}
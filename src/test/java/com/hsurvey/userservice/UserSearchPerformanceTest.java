@@ -0,0 +1,93 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.UserDTO;
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency check for GET /api/users/search against 1M generated users spread over 100
+ * organizations. Slow to seed, so it only runs with -Duserservice.perf=true.
+ */
+@EnabledIfSystemProperty(named = "userservice.perf", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+class UserSearchPerformanceTest {
+
+    private static final int USERS = 1_000_000;
+    private static final int ORGANIZATIONS = 100;
+    private static final int RUNS = 200;
+    private static final long P95_TARGET_MILLIS = 50;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static UserReadRepository userReadRepository;
+    private static UUID organizationId;
+
+    @BeforeAll
+    static void seed() {
+        String url = POSTGRES.getJdbcUrl() + "&currentSchema=user_service";
+        Flyway.configure()
+                .dataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword())
+                .schemas("user_service").defaultSchema("user_service").createSchemas(true)
+                .load().migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword()));
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, organization_id, password)
+                SELECT gen_random_uuid(), 'user' || n, 'user' || n || '@example' || (n % 37) || '.com',
+                       ('00000000-0000-0000-0000-' || lpad((n % ?)::text, 12, '0'))::uuid, 'x'
+                FROM generate_series(1, ?) AS n
+                """, ORGANIZATIONS, USERS);
+        jdbcTemplate.execute("ANALYZE users");
+
+        userReadRepository = new UserReadRepository(jdbcTemplate);
+        organizationId = UUID.fromString("00000000-0000-0000-0000-000000000007");
+    }
+
+    @Test
+    void testSubstringSearchMeetsLatencyTarget() {
+        assertP95Within(P95_TARGET_MILLIS, "er12");
+    }
+
+    @Test
+    void testEmailDomainSearchMeetsLatencyTarget() {
+        assertP95Within(P95_TARGET_MILLIS, "example3");
+    }
+
+    private void assertP95Within(long targetMillis, String term) {
+        // Warm up plan cache and shared buffers
+        for (int i = 0; i < 20; i++) {
+            userReadRepository.searchByOrganizationId(organizationId, term, 20);
+        }
+
+        long[] nanos = new long[RUNS];
+        List<UserDTO> users = List.of();
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            users = userReadRepository.searchByOrganizationId(organizationId, term, 20);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long p95Millis = nanos[(int) (RUNS * 0.95)] / 1_000_000;
+
+        assertFalse(users.isEmpty());
+        assertTrue(users.size() <= 20);
+        assertTrue(users.stream().allMatch(u -> organizationId.equals(u.getOrganizationId())));
+        assertTrue(p95Millis <= targetMillis, "p95 " + p95Millis + "ms for '" + term + "'");
+    }
+}
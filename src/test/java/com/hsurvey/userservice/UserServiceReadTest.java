@@ -0,0 +1,199 @@
+package com.hsurvey.userservice;
+
+import com.hsurvey.userservice.dto.CursorPageDTO;
+import com.hsurvey.userservice.dto.RoleUserCountDTO;
+import com.hsurvey.userservice.dto.UserCountsDTO;
+import com.hsurvey.userservice.dto.UserDTO;
+import com.hsurvey.userservice.mapper.UserMapper;
+import com.hsurvey.userservice.repositories.RoleRepository;
+import com.hsurvey.userservice.repositories.UserCountRepository;
+import com.hsurvey.userservice.repositories.UserReadRepository;
+import com.hsurvey.userservice.repositories.UserRepository;
+import com.hsurvey.userservice.repositories.UserRoleRepository;
+import com.hsurvey.userservice.service.UserDtoCache;
+import com.hsurvey.userservice.service.UserIdIndex;
+import com.hsurvey.userservice.service.UserInvalidationBus;
+import com.hsurvey.userservice.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Read methods are served by the JdbcTemplate projections alone; no JPA repository (which would
+ * hydrate roles and permissions) is touched. The JdbcTemplate is a mock, so these tests say
+ * nothing about the SQL that actually runs; QueryCountTest counts the statements each read
+ * executes at the DataSource.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserServiceReadTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserIdIndex userIdIndex;
+
+    @Mock
+    private UserInvalidationBus userInvalidationBus;
+
+    private UserServiceImpl userService;
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserServiceImpl(userRepository, new UserReadRepository(jdbcTemplate),
+                roleRepository, userMapper, passwordEncoder, userIdIndex,
+                new UserDtoCache(new SimpleMeterRegistry(), 1 << 20, Duration.ofMinutes(10)), userInvalidationBus,
+                new UserCountRepository(jdbcTemplate), new UserRoleRepository(jdbcTemplate));
+        organizationId = UUID.randomUUID();
+    }
+
+    @Test
+    void testGetAllUsersByOrganizationUsesProjectionOnly() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(organizationId)))
+                .thenReturn(List.of(user(UUID.randomUUID()), user(UUID.randomUUID())));
+
+        List<UserDTO> users = userService.getAllUsersByOrganization(organizationId);
+
+        assertEquals(2, users.size());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(organizationId));
+        verifyNoMoreInteractions(jdbcTemplate);
+        verifyNoInteractions(userRepository, roleRepository, userMapper);
+    }
+
+    @Test
+    void testGetUserByIdAndOrganizationUsesProjectionOnly() {
+        UUID userId = UUID.randomUUID();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(userId)))
+                .thenReturn(List.of(user(userId)));
+
+        UserDTO user = userService.getUserByIdAndOrganization(userId, organizationId);
+
+        assertEquals(userId, user.getId());
+        assertEquals(Set.of("USER"), user.getRoles());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(userId));
+        verifyNoMoreInteractions(jdbcTemplate);
+        verifyNoInteractions(userRepository, roleRepository, userMapper);
+    }
+
+    @Test
+    void testRepeatedGetUserByIdIsServedFromCache() {
+        UUID userId = UUID.randomUUID();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(userId)))
+                .thenReturn(List.of(user(userId)));
+
+        userService.getUserById(userId);
+        UserDTO user = userService.getUserByIdAndOrganization(userId, organizationId);
+
+        assertEquals(userId, user.getId());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(userId));
+        // The cached entry still enforces the caller's organization
+        assertThrows(EntityNotFoundException.class,
+                () -> userService.getUserByIdAndOrganization(userId, UUID.randomUUID()));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testGetUsersPageUsesProjectionOnly() {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(organizationId), any(UUID.class), eq(2)))
+                .thenReturn(List.of(user(firstId), user(secondId)));
+
+        CursorPageDTO<UserDTO> page = userService.getUsersPageByOrganization(organizationId, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(organizationId), any(UUID.class), eq(2));
+        verifyNoMoreInteractions(jdbcTemplate);
+        verifyNoInteractions(userRepository, roleRepository, userMapper);
+    }
+
+    @Test
+    void testGetUsersByIdsWithEmptyListSkipsTheDatabase() {
+        assertTrue(userService.getUsersByIds(List.of()).isEmpty());
+
+        verifyNoInteractions(jdbcTemplate, userRepository);
+    }
+
+    @Test
+    void testGetUserCountsReadsCountersOnly() {
+        UUID roleId = UUID.randomUUID();
+        when(jdbcTemplate.query(contains("organization_user_counts"), any(RowMapper.class), eq(organizationId)))
+                .thenReturn(List.of(1_000_000L));
+        when(jdbcTemplate.query(contains("role_user_counts"), any(RowMapper.class), eq(organizationId)))
+                .thenReturn(List.of(new RoleUserCountDTO(roleId, "USER", 999_999L)));
+
+        UserCountsDTO counts = userService.getUserCounts(organizationId);
+
+        assertEquals(1_000_000L, counts.getUserCount());
+        assertEquals(999_999L, counts.getRoles().get(0).getUserCount());
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowMapper.class), eq(organizationId));
+        verify(jdbcTemplate, never()).query(contains("FROM users"), any(RowMapper.class), any(Object[].class));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testSearchEscapesLikeWildcardsAndClampsLimit() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(organizationId),
+                anyString(), anyString(), anyString(), anyInt()))
+                .thenReturn(List.of(user(UUID.randomUUID())));
+
+        List<UserDTO> users = userService.searchUsersInOrganization(organizationId, "  Al_%\\ ", 1000);
+
+        assertEquals(1, users.size());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(organizationId),
+                eq("%al\\_\\%\\\\%"), eq("%al\\_\\%\\\\%"), eq("al\\_\\%\\\\%"), eq(50));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testSearchRejectsTermsTooShortForTheIndex() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.searchUsersInOrganization(organizationId, " ab ", 20));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private UserDTO user(UUID id) {
+        UserDTO user = new UserDTO();
+        user.setId(id);
+        user.setUsername("user-" + id);
+        user.setOrganizationId(organizationId);
+        user.setRoles(Set.of("USER"));
+        return user;
+    }
+}
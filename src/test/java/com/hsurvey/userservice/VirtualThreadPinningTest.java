@@ -0,0 +1,108 @@
+package com.hsurvey.userservice;
+
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Pinning diagnostics for the virtual-thread mode: records jdk.VirtualThreadPinned events
+ * while the BCrypt and JDBC paths run on virtual threads. Runs only on JDK 21+ (-Pjdk21);
+ * virtual-thread and RecordingStream.stop() APIs are reached reflectively so the class
+ * still compiles on the default JDK 17 toolchain.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadPinningTest {
+
+    private static final Object MONITOR = new Object();
+
+    @Test
+    void testSynchronizedSleepIsReportedAsPinned() throws Exception {
+        // Control case: proves the recording actually sees pinning
+        int pinned = countPinnedEvents(() -> {
+            synchronized (MONITOR) {
+                Thread.sleep(30);
+            }
+            return null;
+        });
+
+        assertTrue(pinned > 0);
+    }
+
+    @Test
+    void testBcryptDoesNotPinCarrierThreads() throws Exception {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+
+        int pinned = countPinnedEvents(() -> encoder.matches("password", encoder.encode("password")));
+
+        assertEquals(0, pinned);
+    }
+
+    @Test
+    void testJdbcDoesNotPinCarrierThreads() throws Exception {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is required for the JDBC path");
+
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")) {
+            postgres.start();
+
+            int pinned = countPinnedEvents(() -> {
+                try (Connection connection = DriverManager.getConnection(
+                        postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+                     Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery("SELECT pg_sleep(0.05)")) {
+                    return resultSet.next();
+                }
+            });
+
+            assertEquals(0, pinned);
+        }
+    }
+
+    private int countPinnedEvents(Callable<?> task) throws Exception {
+        AtomicInteger pinned = new AtomicInteger();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+            recording.startAsync();
+
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    futures.add(executor.submit(task));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            // stop() flushes pending events to the handlers before returning
+            RecordingStream.class.getMethod("stop").invoke(recording);
+        }
+        return pinned.get();
+    }
+}